@@ -0,0 +1,328 @@
+package com.brokerage.api.archive;
+
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of an order history segment, all orders of one customer for one month
+ * stored column by column, sorted by create date:
+ * <pre>
+ * header   magic, customer id, row count, min/max create date, min/max id
+ * assets   dictionary of distinct asset names, then one dictionary index per row
+ * created  create date in epoch microseconds, delta from the previous row
+ * ids      order id, delta from the previous row
+ * flags    side, status and time in force, bit-packed
+ * size     unscaled size at scale 4
+ * price    unscaled price at scale 4
+ * expires  expire date as microseconds after the create date, 0 when absent
+ * </pre>
+ * Numbers are zigzag varints and every column is length-prefixed, so a reader can find
+ * the rows in range from the header and the created column alone.
+ */
+final class OrderSegmentCodec {
+    
+    static final int MAGIC = 0x4F534731; // "OSG1"
+    static final int SCALE = 4;
+    
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final TimeInForce[] TIME_IN_FORCES = TimeInForce.values();
+    private static final int SIDE_BITS = bitsFor(SIDES.length);
+    private static final int STATUS_BITS = bitsFor(STATUSES.length);
+    private static final int TIF_BITS = bitsFor(TIME_IN_FORCES.length);
+    private static final int FLAG_BITS = SIDE_BITS + STATUS_BITS + TIF_BITS;
+    
+    private OrderSegmentCodec() {
+    }
+    
+    record SegmentHeader(long customerId, int rowCount, long minCreated, long maxCreated, long minId, long maxId) {
+        
+        boolean overlaps(long fromMicros, long toMicros) {
+            return rowCount > 0 && minCreated <= toMicros && maxCreated >= fromMicros;
+        }
+    }
+    
+    /**
+     * Encodes the orders, which must be sorted by create date.
+     */
+    static byte[] encode(long customerId, List<ArchivedOrder> orders) {
+        int rows = orders.size();
+        long[] created = new long[rows];
+        long[] ids = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            created[i] = toMicros(orders.get(i).getCreateDate());
+            ids[i] = orders.get(i).getId();
+        }
+        
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        ByteSink assets = new ByteSink(rows);
+        ByteSink createdColumn = new ByteSink(rows * 3);
+        ByteSink idColumn = new ByteSink(rows * 2);
+        byte[] flags = new byte[(rows * FLAG_BITS + 7) / 8];
+        ByteSink sizes = new ByteSink(rows * 3);
+        ByteSink prices = new ByteSink(rows * 4);
+        ByteSink expires = new ByteSink(rows);
+        
+        long previousCreated = 0;
+        long previousId = 0;
+        for (int i = 0; i < rows; i++) {
+            ArchivedOrder order = orders.get(i);
+            assets.writeVarLong(dictionary.computeIfAbsent(order.getAssetName(), name -> dictionary.size()));
+            createdColumn.writeSignedVarLong(created[i] - previousCreated);
+            idColumn.writeSignedVarLong(ids[i] - previousId);
+            previousCreated = created[i];
+            previousId = ids[i];
+            
+            int packed = order.getOrderSide().ordinal()
+                    | order.getStatus().ordinal() << SIDE_BITS
+                    | order.getTimeInForce().ordinal() << (SIDE_BITS + STATUS_BITS);
+            writeBits(flags, i * FLAG_BITS, FLAG_BITS, packed);
+            
+            sizes.writeSignedVarLong(unscaled(order.getSize()));
+            prices.writeSignedVarLong(unscaled(order.getPrice()));
+            expires.writeVarLong(order.getExpireAt() == null ? 0 : zigzag(toMicros(order.getExpireAt()) - created[i]) + 1);
+        }
+        
+        ByteSink dictionaryBlock = new ByteSink(dictionary.size() * 8);
+        dictionaryBlock.writeVarLong(dictionary.size());
+        for (String name : dictionary.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            dictionaryBlock.writeVarLong(bytes.length);
+            dictionaryBlock.write(bytes, bytes.length);
+        }
+        
+        ByteSink out = new ByteSink(64 + dictionaryBlock.size + assets.size + createdColumn.size + idColumn.size
+                + flags.length + sizes.size + prices.size + expires.size + 8 * 4);
+        out.writeInt(MAGIC);
+        out.writeLong(customerId);
+        out.writeInt(rows);
+        out.writeLong(rows > 0 ? created[0] : 0);
+        out.writeLong(rows > 0 ? created[rows - 1] : 0);
+        out.writeLong(rows > 0 ? Arrays.stream(ids).min().getAsLong() : 0);
+        out.writeLong(rows > 0 ? Arrays.stream(ids).max().getAsLong() : 0);
+        out.write(dictionaryBlock.bytes, dictionaryBlock.size);
+        for (ByteSink column : List.of(assets, createdColumn, idColumn)) {
+            out.writeColumn(column.bytes, column.size);
+        }
+        out.writeColumn(flags, flags.length);
+        for (ByteSink column : List.of(sizes, prices, expires)) {
+            out.writeColumn(column.bytes, column.size);
+        }
+        return Arrays.copyOf(out.bytes, out.size);
+    }
+    
+    static SegmentHeader readHeader(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an order segment");
+        }
+        return new SegmentHeader(buffer.getLong(4), buffer.getInt(12), buffer.getLong(16),
+                buffer.getLong(24), buffer.getLong(32), buffer.getLong(40));
+    }
+    
+    /**
+     * Decodes the orders created between the two instants, inclusive. Only those rows are materialized.
+     */
+    static List<ArchivedOrder> decode(ByteBuffer segment, long fromMicros, long toMicros) {
+        ByteBuffer buffer = segment.duplicate();
+        SegmentHeader header = readHeader(buffer);
+        if (!header.overlaps(fromMicros, toMicros)) {
+            return List.of();
+        }
+        int rows = header.rowCount();
+        buffer.position(48);
+        
+        String[] dictionary = new String[(int) readVarLong(buffer)];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[(int) readVarLong(buffer)];
+            buffer.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        ByteBuffer assets = nextColumn(buffer);
+        ByteBuffer createdColumn = nextColumn(buffer);
+        ByteBuffer idColumn = nextColumn(buffer);
+        ByteBuffer flags = nextColumn(buffer);
+        ByteBuffer sizes = nextColumn(buffer);
+        ByteBuffer prices = nextColumn(buffer);
+        ByteBuffer expires = nextColumn(buffer);
+        
+        // Rows are sorted by create date, so the matches are one contiguous run
+        long[] created = new long[rows];
+        long value = 0;
+        int first = rows;
+        int last = -1;
+        for (int i = 0; i < rows; i++) {
+            value += readSignedVarLong(createdColumn);
+            created[i] = value;
+            if (value >= fromMicros && value <= toMicros) {
+                first = Math.min(first, i);
+                last = i;
+            }
+        }
+        
+        List<ArchivedOrder> orders = new ArrayList<>(Math.max(0, last - first + 1));
+        long id = 0;
+        for (int i = 0; i <= last; i++) {
+            int asset = (int) readVarLong(assets);
+            id += readSignedVarLong(idColumn);
+            long size = readSignedVarLong(sizes);
+            long price = readSignedVarLong(prices);
+            long expire = readVarLong(expires);
+            if (i < first) {
+                continue;
+            }
+            
+            int packed = readBits(flags, i * FLAG_BITS, FLAG_BITS);
+            ArchivedOrder order = new ArchivedOrder();
+            order.setId(id);
+            order.setCustomerId(header.customerId());
+            order.setAssetName(dictionary[asset]);
+            order.setOrderSide(SIDES[packed & mask(SIDE_BITS)]);
+            order.setStatus(STATUSES[(packed >>> SIDE_BITS) & mask(STATUS_BITS)]);
+            order.setTimeInForce(TIME_IN_FORCES[(packed >>> (SIDE_BITS + STATUS_BITS)) & mask(TIF_BITS)]);
+            order.setSize(BigDecimal.valueOf(size, SCALE));
+            order.setPrice(BigDecimal.valueOf(price, SCALE));
+            order.setCreateDate(fromMicros(created[i]));
+            order.setExpireAt(expire == 0 ? null : fromMicros(created[i] + unzigzag(expire - 1)));
+            orders.add(order);
+        }
+        return orders;
+    }
+    
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+    
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+    
+    private static long unscaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+    
+    private static ByteBuffer nextColumn(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        ByteBuffer column = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return column;
+    }
+    
+    private static int bitsFor(int values) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(values - 1));
+    }
+    
+    private static int mask(int bits) {
+        return (1 << bits) - 1;
+    }
+    
+    private static void writeBits(byte[] target, int bitOffset, int bits, int value) {
+        for (int bit = 0; bit < bits; bit++) {
+            if ((value >>> bit & 1) != 0) {
+                int position = bitOffset + bit;
+                target[position >>> 3] |= (byte) (1 << (position & 7));
+            }
+        }
+    }
+    
+    private static int readBits(ByteBuffer source, int bitOffset, int bits) {
+        int value = 0;
+        for (int bit = 0; bit < bits; bit++) {
+            int position = bitOffset + bit;
+            if ((source.get(position >>> 3) >>> (position & 7) & 1) != 0) {
+                value |= 1 << bit;
+            }
+        }
+        return value;
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    private static long readSignedVarLong(ByteBuffer buffer) {
+        return unzigzag(readVarLong(buffer));
+    }
+    
+    private static final class ByteSink {
+        
+        private byte[] bytes;
+        private int size;
+        
+        ByteSink(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+        
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+        
+        void writeSignedVarLong(long value) {
+            writeVarLong(zigzag(value));
+        }
+        
+        void writeInt(int value) {
+            ensure(4);
+            ByteBuffer.wrap(bytes, size, 4).putInt(value);
+            size += 4;
+        }
+        
+        void writeLong(long value) {
+            ensure(8);
+            ByteBuffer.wrap(bytes, size, 8).putLong(value);
+            size += 8;
+        }
+        
+        void write(byte[] source, int length) {
+            ensure(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+        
+        void writeColumn(byte[] source, int length) {
+            writeInt(length);
+            write(source, length);
+        }
+        
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
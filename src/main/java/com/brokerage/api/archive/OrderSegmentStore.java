@@ -0,0 +1,135 @@
+package com.brokerage.api.archive;
+
+import com.brokerage.api.model.ArchivedOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Order history segments on disk, one file per customer and month
+ * ({@code <directory>/<customerId>/<yyyy-MM>.seg}) in the {@link OrderSegmentCodec} format.
+ * Files are replaced atomically and read through memory mapping, so readers never see a
+ * partial segment and only the rows in the requested range end up on the heap.
+ */
+@Component
+@Slf4j
+public class OrderSegmentStore {
+    
+    private static final String SUFFIX = ".seg";
+    
+    private final Path directory;
+    
+    public OrderSegmentStore(@Value("${orders.archive.segments.directory:./data/order-segments}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+    
+    /**
+     * Adds orders to the segment of the given month, merging with what is already there.
+     */
+    public synchronized void write(Long customerId, YearMonth month, List<ArchivedOrder> orders) {
+        Path file = segmentPath(customerId, month);
+        try {
+            // Merge by id, so rewriting orders that are already in the segment is harmless
+            Map<Long, ArchivedOrder> merged = new LinkedHashMap<>();
+            if (Files.exists(file)) {
+                decode(file, Long.MIN_VALUE, Long.MAX_VALUE).forEach(order -> merged.put(order.getId(), order));
+            }
+            orders.forEach(order -> merged.put(order.getId(), order));
+            
+            List<ArchivedOrder> sorted = new ArrayList<>(merged.values());
+            sorted.sort(Comparator.comparing(ArchivedOrder::getCreateDate).thenComparing(ArchivedOrder::getId));
+            byte[] segment = OrderSegmentCodec.encode(customerId, sorted);
+            
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, segment);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} orders to segment {}", sorted.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write order segment " + file, e);
+        }
+    }
+    
+    public List<ArchivedOrder> read(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+        Path customerDirectory = directory.resolve(customerId.toString());
+        if (!Files.isDirectory(customerDirectory)) {
+            return List.of();
+        }
+        
+        YearMonth firstMonth = YearMonth.from(startDate);
+        YearMonth lastMonth = YearMonth.from(endDate);
+        long from = OrderSegmentCodec.toMicros(startDate);
+        long to = OrderSegmentCodec.toMicros(endDate);
+        
+        List<ArchivedOrder> orders = new ArrayList<>();
+        try (Stream<Path> files = Files.list(customerDirectory)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                Optional<YearMonth> month = monthOf(file);
+                if (month.isPresent() && !month.get().isBefore(firstMonth) && !month.get().isAfter(lastMonth)) {
+                    orders.addAll(decode(file, from, to));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read order segments of customer " + customerId, e);
+        }
+        return orders;
+    }
+    
+    /**
+     * The latest month that has a segment for any customer.
+     */
+    public Optional<YearMonth> findLatestMonth() {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            return files.map(this::monthOf)
+                    .flatMap(Optional::stream)
+                    .max(Comparator.naturalOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list order segments", e);
+        }
+    }
+    
+    private List<ArchivedOrder> decode(Path file, long from, long to) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return OrderSegmentCodec.decode(segment, from, to);
+        }
+    }
+    
+    private Path segmentPath(Long customerId, YearMonth month) {
+        return directory.resolve(customerId.toString()).resolve(month + SUFFIX);
+    }
+    
+    private Optional<YearMonth> monthOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(name.substring(0, name.length() - SUFFIX.length())));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.brokerage.api.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one {@link Workload}. A request over the limit is turned away at once
+ * rather than queued, so a saturated workload holds at most its limit of request threads and
+ * its own connections, and everything else keeps running.
+ */
+public class Bulkhead {
+
+    private final Workload workload;
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter admitted;
+    private final Counter rejected;
+
+    Bulkhead(Workload workload, int maxConcurrent, MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.maxConcurrent = maxConcurrent;
+        Gauge.builder("bulkhead.in_flight", inFlight, AtomicInteger::get)
+                .tag("bulkhead", workload.key())
+                .description("Requests currently running in the bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.max_concurrent", this, Bulkhead::getMaxConcurrent)
+                .tag("bulkhead", workload.key())
+                .description("Requests the bulkhead runs at once before turning more away")
+                .register(meterRegistry);
+        this.admitted = Counter.builder("bulkhead.requests").tag("bulkhead", workload.key()).tag("outcome", "admitted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.requests").tag("bulkhead", workload.key()).tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Every successful acquire must be paired with a {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+}
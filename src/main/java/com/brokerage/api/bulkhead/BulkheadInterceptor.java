@@ -0,0 +1,76 @@
+package com.brokerage.api.bulkhead;
+
+import com.brokerage.api.exception.BulkheadFullException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits each request to the bulkhead its handler {@link RunsIn}, or rejects it with
+ * {@link BulkheadFullException}, and routes the request's database work to that workload's
+ * connection pool. An SSE stream leaves the bulkhead once its handler returns; events are sent
+ * from other threads and don't touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = BulkheadInterceptor.class.getName() + ".ADMITTED";
+
+    private final Bulkheads bulkheads;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Workload workload = workloadOf(handlerMethod);
+        if (workload == null) {
+            return true;
+        }
+        Bulkhead bulkhead = bulkheads.get(workload);
+        if (!bulkhead.tryAcquire()) {
+            log.warn("Bulkhead {} full, rejecting {} {}", workload.key(), request.getMethod(), request.getRequestURI());
+            throw new BulkheadFullException(workload.key());
+        }
+        request.setAttribute(ADMITTED, bulkhead);
+        WorkloadContext.set(workload);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        leave(request);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        leave(request);
+    }
+
+    private static void leave(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(ADMITTED);
+            bulkhead.release();
+            WorkloadContext.clear();
+        }
+    }
+
+    static Workload workloadOf(HandlerMethod handlerMethod) {
+        RunsIn runsIn = handlerMethod.getMethodAnnotation(RunsIn.class);
+        if (runsIn == null) {
+            runsIn = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RunsIn.class);
+        }
+        return runsIn != null ? runsIn.value() : null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.brokerage.api.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link Bulkhead} per {@link Workload}, sized by {@code bulkheads.<key>.max-concurrent}.
+ * Their limits together should stay well under the servlet container's thread pool, which is
+ * what keeps a saturated workload from starving the others of request threads.
+ */
+@Component
+@Slf4j
+public class Bulkheads {
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+    public Bulkheads(Environment environment, MeterRegistry meterRegistry) {
+        for (Workload workload : Workload.values()) {
+            int maxConcurrent = environment.getProperty("bulkheads." + workload.key() + ".max-concurrent",
+                    Integer.class, workload.defaultMaxConcurrent());
+            bulkheads.put(workload, new Bulkhead(workload, maxConcurrent, meterRegistry));
+        }
+        log.info("Bulkheads: {}", bulkheads.values().stream()
+                .map(bulkhead -> bulkhead.getWorkload().key() + "=" + bulkhead.getMaxConcurrent())
+                .toList());
+    }
+
+    public Bulkhead get(Workload workload) {
+        return bulkheads.get(workload);
+    }
+}
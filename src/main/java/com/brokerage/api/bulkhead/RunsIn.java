@@ -0,0 +1,18 @@
+package com.brokerage.api.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller, or one of its handler methods, behind the bulkhead of a {@link Workload}.
+ * A method-level annotation overrides the controller's. Handlers without one run unbounded on
+ * the background connection pool.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RunsIn {
+
+    Workload value();
+}
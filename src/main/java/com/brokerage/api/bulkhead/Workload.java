@@ -0,0 +1,41 @@
+package com.brokerage.api.bulkhead;
+
+/**
+ * The classes of work that get a {@link Bulkhead} and a connection pool of their own, so one
+ * can saturate without taking the others down with it. Defaults apply when
+ * {@code bulkheads.<key>.max-concurrent} or {@code bulkheads.<key>.pool-size} is not set.
+ */
+public enum Workload {
+
+    /** Placing, amending and canceling orders. */
+    ORDER_ENTRY("entry", 64, 10),
+    /** Order, asset, portfolio and statistics reads, and login. */
+    READS("reads", 16, 5),
+    /** Matching. The parallel bulk matching workers draw on the same pool. */
+    ADMIN("admin", 4, 5);
+
+    private final String key;
+    private final int defaultMaxConcurrent;
+    private final int defaultPoolSize;
+
+    Workload(String key, int defaultMaxConcurrent, int defaultPoolSize) {
+        this.key = key;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultPoolSize = defaultPoolSize;
+    }
+
+    /**
+     * Name in configuration keys, in the {@code bulkhead} metric tag and of the connection pool.
+     */
+    public String key() {
+        return key;
+    }
+
+    public int defaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    public int defaultPoolSize() {
+        return defaultPoolSize;
+    }
+}
@@ -0,0 +1,43 @@
+package com.brokerage.api.bulkhead;
+
+/**
+ * The {@link Workload} the current thread works for, which picks the connection pool in
+ * {@link WorkloadRoutingDataSource}. Request threads carry it while inside their bulkhead;
+ * threads that only ever do one kind of work, like partition writers, carry it for life.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * @return the current thread's workload, {@code null} for background work
+     */
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wraps a thread's body so that everything it runs belongs to the workload.
+     */
+    public static Runnable bound(Workload workload, Runnable body) {
+        return () -> {
+            set(workload);
+            try {
+                body.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
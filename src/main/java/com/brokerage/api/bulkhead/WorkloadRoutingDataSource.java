@@ -0,0 +1,37 @@
+package com.brokerage.api.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link WorkloadContext workload},
+ * and from the background pool when it has none. A transaction keeps the connection it started
+ * with, so the workload is fixed when the transaction begins.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public WorkloadRoutingDataSource(Map<Workload, HikariDataSource> workloadPools, HikariDataSource backgroundPool) {
+        setTargetDataSources(new HashMap<>(workloadPools));
+        setDefaultTargetDataSource(backgroundPool);
+        pools.addAll(workloadPools.values());
+        pools.add(backgroundPool);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
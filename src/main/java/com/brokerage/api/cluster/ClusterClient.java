@@ -0,0 +1,138 @@
+package com.brokerage.api.cluster;
+
+import com.brokerage.api.event.OrderEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTTP calls between cluster nodes: heartbeats, relayed order events and forwarded client requests.
+ * Node-to-node calls carry the shared {@code orders.cluster.secret}. Forwarded client requests carry
+ * the client's own credentials, plus the secret so the owner can tell a real forward from a client
+ * that sets {@value #FORWARDED_HEADER} itself.
+ */
+@Component
+@Slf4j
+public class ClusterClient {
+
+    public static final String NODE_HEADER = "X-Cluster-Node";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+
+    // Hop-by-hop headers, and the ones HttpClient sets itself
+    private static final Set<String> SKIPPED_HEADERS = Set.of("host", "connection", "content-length", "expect", "upgrade",
+            "transfer-encoding", "keep-alive", "te", "trailer", "proxy-connection", "http2-settings");
+
+    private final ObjectMapper objectMapper;
+    private final String contextPath;
+    private final byte[] secret;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public ClusterClient(ObjectMapper objectMapper,
+                         @Value("${server.servlet.context-path:}") String contextPath,
+                         @Value("${orders.cluster.secret:}") String secret,
+                         @Value("${orders.cluster.connect-timeout:500}") long connectTimeoutMillis,
+                         @Value("${orders.cluster.request-timeout:5000}") long requestTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.contextPath = contextPath;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    public boolean hasSecret() {
+        return secret.length > 0;
+    }
+
+    public boolean isClusterSecret(String presented) {
+        return hasSecret() && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean ping(String node, String self) {
+        HttpRequest request = nodeRequest(node, "/cluster/ping", self).GET().build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void relayEvent(String node, String self, OrderEvent event) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(event.getOrder());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize order event for relay", e);
+            return;
+        }
+        String path = "/cluster/events?type=" + event.getType()
+                + (event.getPreviousSize() != null ? "&previousSize=" + event.getPreviousSize().toPlainString() : "");
+        HttpRequest request = nodeRequest(node, path, self)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error != null || response.statusCode() >= 300) {
+                log.warn("Could not relay {} event for order {} to {}: {}", event.getType(), event.getOrder().getId(), node,
+                        error != null ? error.getMessage() : "HTTP " + response.statusCode());
+            }
+        });
+    }
+
+    /**
+     * Replays a client request on another node and returns its response unchanged. Cluster headers the
+     * client sent are dropped and replaced by this node's.
+     */
+    public HttpResponse<byte[]> forward(String node, String self, String method, String pathAndQuery,
+                                        Map<String, List<String>> headers, byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(node + pathAndQuery))
+                .timeout(requestTimeout)
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+        headers.forEach((name, values) -> {
+            if (!isSkippedHeader(name) && !isClusterHeader(name)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        builder.header(FORWARDED_HEADER, self);
+        builder.header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8));
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public static boolean isSkippedHeader(String name) {
+        return SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isClusterHeader(String name) {
+        return NODE_HEADER.equalsIgnoreCase(name) || SECRET_HEADER.equalsIgnoreCase(name) || FORWARDED_HEADER.equalsIgnoreCase(name);
+    }
+
+    private HttpRequest.Builder nodeRequest(String node, String path, String self) {
+        return HttpRequest.newBuilder(URI.create(node + contextPath + path))
+                .timeout(requestTimeout)
+                .header(NODE_HEADER, self)
+                .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8));
+    }
+}
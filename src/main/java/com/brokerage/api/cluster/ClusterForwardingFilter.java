@@ -0,0 +1,226 @@
+package com.brokerage.api.cluster;
+
+import com.brokerage.api.dto.ErrorResponse;
+import com.brokerage.api.service.CustomerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends customer-scoped order and asset requests to the node that owns the customer, so balance checks
+ * for a customer always run on one node and need no distributed lock. Runs after authorization; the owner
+ * authenticates the forwarded request again with the same token. Event streams are redirected to the
+ * owner instead of being proxied.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterForwardingFilter extends OncePerRequestFilter {
+
+    private final ClusterMembership clusterMembership;
+    private final ClusterClient clusterClient;
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !clusterMembership.isEnabled() || !isCustomerScoped(request.getMethod(), path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        // A forwarded request is always served where it lands, even if the two nodes' views briefly differ;
+        // only a peer knows the cluster secret, a client setting the header itself is routed like any other
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || isForwardedByPeer(request)) {
+            response.setHeader(ClusterClient.NODE_HEADER, clusterMembership.getSelf());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest servedRequest = request;
+        byte[] body = null;
+        Long customerId;
+        if ("POST".equals(request.getMethod()) || "PATCH".equals(request.getMethod())) {
+            body = request.getInputStream().readAllBytes();
+            servedRequest = new CachedBodyRequest(request, body);
+        }
+        if ("POST".equals(request.getMethod())) {
+            customerId = customerIdFromBody(body);
+        } else if (("DELETE".equals(request.getMethod()) || "PATCH".equals(request.getMethod())) && !"/orders".equals(path(request))) {
+            // Single orders are canceled and amended on behalf of the authenticated customer
+            customerId = customerService.getCustomerByUsername(authentication.getName()).getId();
+        } else {
+            customerId = customerIdFromQuery(request.getParameter("customerId"));
+        }
+
+        // Requests without a usable customer id fail validation wherever they run
+        if (customerId == null || clusterMembership.owns(customerId)) {
+            response.setHeader(ClusterClient.NODE_HEADER, clusterMembership.getSelf());
+            filterChain.doFilter(servedRequest, response);
+            return;
+        }
+
+        String owner = clusterMembership.ownerOf(customerId);
+        String pathAndQuery = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        if ("/orders/events".equals(path(request))) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, owner + pathAndQuery);
+            return;
+        }
+        forward(request, response, owner, pathAndQuery, body);
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String owner,
+                         String pathAndQuery, byte[] body) throws IOException {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, Collections.list(request.getHeaders(name)));
+        }
+
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = clusterClient.forward(owner, clusterMembership.getSelf(), request.getMethod(), pathAndQuery, headers, body);
+        } catch (IOException e) {
+            log.warn("Forwarding {} {} to {} failed: {}", request.getMethod(), pathAndQuery, owner, e.getMessage());
+            clusterMembership.markDown(owner);
+            ownerUnavailable(request, response);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ownerUnavailable(request, response);
+            return;
+        }
+
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().map().forEach((name, values) -> {
+            if (!ClusterClient.isSkippedHeader(name)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.setContentLength(forwarded.body().length);
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    private boolean isForwardedByPeer(HttpServletRequest request) {
+        return request.getHeader(ClusterClient.FORWARDED_HEADER) != null
+                && clusterClient.isClusterSecret(request.getHeader(ClusterClient.SECRET_HEADER));
+    }
+
+    private void ownerUnavailable(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse error = ErrorResponse.of("CLUSTER_001", "The node serving this customer is unavailable. Please retry shortly.");
+        error.setPath("uri=" + request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private Long customerIdFromBody(byte[] body) {
+        try {
+            JsonNode customerId = objectMapper.readTree(body).path("customerId");
+            return customerId.canConvertToLong() ? customerId.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Long customerIdFromQuery(String customerId) {
+        try {
+            return customerId != null ? Long.valueOf(customerId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCustomerScoped(String method, String path) {
+        return switch (method) {
+            case "POST" -> "/orders".equals(path);
+            case "GET" -> "/orders".equals(path) || "/orders/events".equals(path) || "/assets".equals(path)
+                    || path.startsWith("/orders/intake/");
+            case "DELETE" -> "/orders".equals(path) || path.startsWith("/orders/") && path.indexOf('/', "/orders/".length()) < 0;
+            case "PATCH" -> path.startsWith("/orders/") && path.indexOf('/', "/orders/".length()) < 0;
+            default -> false;
+        };
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.brokerage.api.cluster;
+
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.service.OrderPartitions;
+import com.brokerage.api.service.OrderStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which nodes are alive and which node owns each customer. Nodes start from the configured
+ * {@code orders.cluster.nodes}, learn about new nodes when those ping them, and drop a node from the
+ * ring after {@code orders.cluster.failure-threshold} missed heartbeats. Every membership change
+ * rebuilds the {@link ConsistentHashRing}, so ownership rebalances as nodes join and leave.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private final ClusterClient clusterClient;
+    private final OrderPartitions orderPartitions;
+    private final OrderStreamService orderStreamService;
+    private final boolean enabled;
+    private final String self;
+    private final int virtualNodes;
+    private final int failureThreshold;
+
+    // Consecutive missed heartbeats per peer; a peer is live below the threshold
+    private final Map<String, Integer> missedHeartbeats = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(ClusterClient clusterClient,
+                             OrderPartitions orderPartitions,
+                             OrderStreamService orderStreamService,
+                             @Value("${orders.cluster.enabled:false}") boolean enabled,
+                             @Value("${orders.cluster.self:}") String self,
+                             @Value("${orders.cluster.nodes:}") List<String> nodes,
+                             @Value("${orders.cluster.virtual-nodes:128}") int virtualNodes,
+                             @Value("${orders.cluster.failure-threshold:3}") int failureThreshold) {
+        this.clusterClient = clusterClient;
+        this.orderPartitions = orderPartitions;
+        this.orderStreamService = orderStreamService;
+        this.enabled = enabled;
+        this.self = self;
+        this.virtualNodes = virtualNodes;
+        this.failureThreshold = failureThreshold;
+
+        if (enabled) {
+            if (self.isBlank() || !clusterClient.hasSecret()) {
+                throw new IllegalStateException("orders.cluster.self and orders.cluster.secret are required in cluster mode");
+            }
+            // Peers count as down until they answer a heartbeat
+            nodes.stream().map(String::trim).filter(node -> !node.isEmpty() && !node.equals(self))
+                    .forEach(node -> missedHeartbeats.put(node, failureThreshold));
+            this.ring = new ConsistentHashRing(List.of(self), virtualNodes);
+            log.info("Cluster node {} starting with peers {}", self, missedHeartbeats.keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getMembers() {
+        return enabled ? ring.nodes() : List.of();
+    }
+
+    public String ownerOf(Long customerId) {
+        return enabled ? ring.ownerOf(customerId) : self;
+    }
+
+    public boolean owns(Long customerId) {
+        return !enabled || self.equals(ring.ownerOf(customerId));
+    }
+
+    @Scheduled(fixedDelayString = "${orders.cluster.heartbeat-interval:1000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        for (String peer : missedHeartbeats.keySet()) {
+            if (clusterClient.ping(peer, self)) {
+                missedHeartbeats.put(peer, 0);
+            } else {
+                missedHeartbeats.merge(peer, 1, (missed, one) -> Math.min(missed + one, failureThreshold));
+            }
+        }
+        updateRing();
+    }
+
+    /**
+     * A peer pinged this node, so it is alive; this is also how nodes that just joined become known.
+     */
+    public void peerSeen(String node) {
+        if (enabled && !node.equals(self)) {
+            missedHeartbeats.put(node, 0);
+            updateRing();
+        }
+    }
+
+    /**
+     * A forwarded request to the peer failed; stop routing to it until it answers a heartbeat again.
+     */
+    public void markDown(String node) {
+        if (missedHeartbeats.computeIfPresent(node, (peer, missed) -> failureThreshold) != null) {
+            updateRing();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        // Changes made here for customers owned elsewhere (admin matching, expiry) go to the owner's streams and caches
+        if (enabled && !owns(event.getCustomerId())) {
+            clusterClient.relayEvent(ownerOf(event.getCustomerId()), self, event);
+        }
+    }
+
+    private synchronized void updateRing() {
+        Set<String> live = new TreeSet<>();
+        live.add(self);
+        missedHeartbeats.forEach((peer, missed) -> {
+            if (missed < failureThreshold) {
+                live.add(peer);
+            }
+        });
+        if (live.equals(new TreeSet<>(ring.nodes()))) {
+            return;
+        }
+
+        ring = new ConsistentHashRing(live, virtualNodes);
+        log.info("Cluster membership changed, live nodes: {}", live);
+        // Customers gained may have changed on their previous owner, and streams of customers lost get no more events here
+        orderPartitions.invalidateAll();
+        orderStreamService.closeStreams(customerId -> !owns(customerId));
+    }
+}
@@ -0,0 +1,74 @@
+package com.brokerage.api.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring of cluster node ids. Every node is placed at {@code virtualNodes}
+ * points so customers spread evenly, and adding or removing a node only moves the customers on
+ * that node's arcs. Every node builds the same ring from the same member set.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the (unlikely) collision the smaller node id wins, the same on every node
+                ring.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            points[i] = entry.getKey();
+            owners[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public String ownerOf(long customerId) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        int index = Arrays.binarySearch(points, mix(customerId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    static long hash(String value) {
+        // FNV-1a, then the murmur3 finalizer to spread similar ids over the whole ring
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.brokerage.api.config;
+
+import com.brokerage.api.bulkhead.BulkheadInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts controllers behind their bulkheads; {@link DataSourceConfig} gives each workload its
+ * connection pool.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor);
+    }
+}
@@ -0,0 +1,48 @@
+package com.brokerage.api.config;
+
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.bulkhead.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The application's single {@link DataSource}, which routes each bulkhead {@link Workload} to a
+ * connection pool of its own ({@code bulkheads.<key>.pool-size}) and everything else, scheduled
+ * jobs and startup, to a background pool. A slow report can then exhaust the reads pool without
+ * order entry waiting for a connection. All pools connect with the {@code spring.datasource.*}
+ * settings and publish the {@code hikaricp.connections.*} metrics tagged with their name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    static final String BACKGROUND_POOL = "background";
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            int size = environment.getProperty("bulkheads." + workload.key() + ".pool-size", Integer.class, workload.defaultPoolSize());
+            pools.put(workload, pool(properties, workload.key(), size, meterRegistry));
+        }
+        int backgroundSize = environment.getProperty("bulkheads." + BACKGROUND_POOL + ".pool-size", Integer.class, 5);
+        return new WorkloadRoutingDataSource(pools, pool(properties, BACKGROUND_POOL, backgroundSize, meterRegistry));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name, int size, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(size);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.brokerage.api.config;
+
+import com.brokerage.api.outbox.FileOutboxSink;
+import com.brokerage.api.outbox.InMemoryOutboxSink;
+import com.brokerage.api.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses where {@link com.brokerage.api.outbox.OutboxRelay} delivers order events:
+ * {@code file} appends JSON lines to {@code orders.outbox.file}, {@code memory} keeps them in-process.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(@Value("${orders.outbox.sink:file}") String sink,
+                                 @Value("${orders.outbox.file:./data/order-events.jsonl}") String file,
+                                 ObjectMapper objectMapper) {
+        return switch (sink) {
+            case "file" -> new FileOutboxSink(Path.of(file), objectMapper);
+            case "memory" -> new InMemoryOutboxSink();
+            default -> throw new IllegalArgumentException("Unknown orders.outbox.sink: " + sink);
+        };
+    }
+}
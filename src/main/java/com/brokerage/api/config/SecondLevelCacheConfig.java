@@ -0,0 +1,84 @@
+package com.brokerage.api.config;
+
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.repository.CustomerRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level and query cache, held in Caffeine through JCache. Every region is
+ * created here with a size bound and a time to live, and Hibernate is told to fail rather than
+ * make up an unbounded region for anything else marked cacheable. Writes through Hibernate evict
+ * the entity and invalidate cached query results for the table; a change made to the database
+ * behind Hibernate's back is seen once the entry expires. Hits, misses and puts per region are
+ * published by Hibernate's statistics as the {@code hibernate.second.level.cache.*} and
+ * {@code hibernate.cache.query.*} metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Hibernate's region for query results without a region of their own.
+     */
+    static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+
+    /**
+     * When each table was last written, checked against cached query results. Entries must
+     * outlive the results they vouch for, so the region has neither bound nor expiry; it holds
+     * one entry per table.
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private final long customersMaxSize;
+    private final long customersTtlMillis;
+
+    public SecondLevelCacheConfig(@Value("${cache.customers.max-size:10000}") long customersMaxSize,
+                                  @Value("${cache.customers.ttl:600000}") long customersTtlMillis) {
+        this.customersMaxSize = customersMaxSize;
+        this.customersTtlMillis = customersTtlMillis;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A manager of its own per application context, so contexts sharing a JVM don't share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("brokerage-api-" + System.identityHashCode(this)), getClass().getClassLoader());
+        cacheManager.createCache(Customer.CACHE_REGION, bounded(customersMaxSize, customersTtlMillis));
+        // findByUsername and existsByUsername each cache one result per username
+        cacheManager.createCache(CustomerRepository.USERNAME_QUERY_REGION, bounded(2 * customersMaxSize, customersTtlMillis));
+        cacheManager.createCache(DEFAULT_QUERY_REGION, bounded(customersMaxSize, customersTtlMillis));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, long ttlMillis) {
+        // Hibernate caches immutable disassembled state, so entries need no copy on the way in or out
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMillis)))
+                .setStoreByValue(false);
+    }
+}
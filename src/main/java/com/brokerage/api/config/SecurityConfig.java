@@ -1,6 +1,9 @@
 package com.brokerage.api.config;
 
+import com.brokerage.api.cluster.ClusterForwardingFilter;
 import com.brokerage.api.security.JwtAuthenticationFilter;
+import com.brokerage.api.throttle.OrderIntakeThrottleFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +13,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -19,6 +23,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final OrderIntakeThrottleFilter orderIntakeThrottleFilter;
+    private final ClusterForwardingFilter clusterForwardingFilter;
     private final AuthenticationProvider authenticationProvider;
     
     @Bean
@@ -26,8 +32,11 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // SSE streams were authorized on the initial request
                 .requestMatchers("/auth/login").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/cluster/ping", "/cluster/events").permitAll() // checked against the cluster secret
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -35,6 +44,8 @@ public class SecurityConfig {
             )
             .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(clusterForwardingFilter, AuthorizationFilter.class) // before the throttle, so the owner throttles
+            .addFilterAfter(orderIntakeThrottleFilter, AuthorizationFilter.class)
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable())); // For H2 console
         
         return http.build();
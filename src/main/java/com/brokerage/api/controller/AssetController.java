@@ -1,28 +1,32 @@
 package com.brokerage.api.controller;
 
-import com.brokerage.api.dto.AssetResponse;
-import com.brokerage.api.service.AssetService;
+import com.brokerage.api.bulkhead.RunsIn;
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.json.ListResponseWriter;
 import com.brokerage.api.service.CustomerService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
+@RunsIn(Workload.READS)
 @RequestMapping("/assets")
 @RequiredArgsConstructor
 @Slf4j
 public class AssetController {
     
-    private final AssetService assetService;
     private final CustomerService customerService;
+    private final ListResponseWriter listResponseWriter;
     
     @GetMapping
-    public ResponseEntity<List<AssetResponse>> listAssets(@RequestParam Long customerId,
-                                                        Authentication authentication) {
+    public void listAssets(@RequestParam Long customerId,
+                           Authentication authentication,
+                           HttpServletResponse response) throws IOException {
         log.info("List assets request received for customer: {}", customerId);
         
         // Check if user is admin or the request is for the authenticated user
@@ -30,10 +34,11 @@ public class AssetController {
         var customer = customerService.getCustomerByUsername(username);
         
         if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
-            return ResponseEntity.status(403).build();
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
         
-        List<AssetResponse> assets = assetService.listAssets(customerId);
-        return ResponseEntity.ok(assets);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        listResponseWriter.writeAssets(customerId, response.getOutputStream());
     }
 }
@@ -1,5 +1,7 @@
 package com.brokerage.api.controller;
 
+import com.brokerage.api.bulkhead.RunsIn;
+import com.brokerage.api.bulkhead.Workload;
 import com.brokerage.api.dto.LoginRequest;
 import com.brokerage.api.dto.LoginResponse;
 import com.brokerage.api.service.CustomerService;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@RunsIn(Workload.READS)
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @Slf4j
@@ -0,0 +1,70 @@
+package com.brokerage.api.controller;
+
+import com.brokerage.api.cluster.ClusterClient;
+import com.brokerage.api.cluster.ClusterMembership;
+import com.brokerage.api.dto.ClusterStatusResponse;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.risk.RiskEngine;
+import com.brokerage.api.service.OrderPartitions;
+import com.brokerage.api.service.OrderStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/cluster")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterController {
+    
+    private final ClusterMembership clusterMembership;
+    private final ClusterClient clusterClient;
+    private final OrderStreamService orderStreamService;
+    private final OrderPartitions orderPartitions;
+    private final RiskEngine riskEngine;
+    
+    @GetMapping("/ping")
+    public ResponseEntity<ClusterStatusResponse> ping(@RequestHeader(ClusterClient.NODE_HEADER) String node,
+                                                      @RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret) {
+        if (!clusterMembership.isEnabled() || !clusterClient.isClusterSecret(secret)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        clusterMembership.peerSeen(node);
+        return ResponseEntity.ok(status());
+    }
+    
+    @PostMapping("/events")
+    public ResponseEntity<Void> relayEvent(@RequestParam OrderEventType type,
+                                           @RequestParam(required = false) BigDecimal previousSize,
+                                           @RequestBody OrderResponse order,
+                                           @RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret) {
+        if (!clusterMembership.isEnabled() || !clusterClient.isClusterSecret(secret)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        // An order of a customer owned here changed on another node
+        log.debug("Relayed {} event for order {}", type, order.getId());
+        OrderEvent event = new OrderEvent(type, order, previousSize);
+        orderStreamService.onOrderEvent(event);
+        orderPartitions.onOrderEvent(event);
+        riskEngine.onOrderEvent(event);
+        return ResponseEntity.accepted().build();
+    }
+    
+    @GetMapping("/members")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClusterStatusResponse> members() {
+        return ResponseEntity.ok(status());
+    }
+    
+    private ClusterStatusResponse status() {
+        return new ClusterStatusResponse(clusterMembership.getSelf(), clusterMembership.getMembers());
+    }
+}
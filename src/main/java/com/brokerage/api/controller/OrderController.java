@@ -1,23 +1,44 @@
 package com.brokerage.api.controller;
 
+import com.brokerage.api.bulkhead.RunsIn;
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.dto.AmendOrderRequest;
+import com.brokerage.api.dto.BulkCancelResponse;
+import com.brokerage.api.dto.BulkMatchRequest;
+import com.brokerage.api.dto.BulkMatchResponse;
 import com.brokerage.api.dto.CreateOrderRequest;
 import com.brokerage.api.dto.MatchOrderRequest;
+import com.brokerage.api.dto.OrderIntakeResponse;
 import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.history.ConsistencyToken;
+import com.brokerage.api.history.OrderHistoryProjector;
+import com.brokerage.api.json.ListResponseWriter;
+import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.service.CustomerService;
+import com.brokerage.api.service.OrderMatchingService;
 import com.brokerage.api.service.OrderService;
+import com.brokerage.api.service.OrderStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
+@RunsIn(Workload.ORDER_ENTRY)
 @RequestMapping("/orders")
 @RequiredArgsConstructor
 @Slf4j
@@ -25,12 +46,23 @@ public class OrderController {
     
     private final OrderService orderService;
     private final CustomerService customerService;
+    private final OrderStreamService orderStreamService;
+    private final OrderMatchingService orderMatchingService;
+    private final ListResponseWriter listResponseWriter;
+    private final OrderHistoryProjector orderHistoryProjector;
+    
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
     
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                    Authentication authentication) {
         log.info("Create order request received for customer: {}", request.getCustomerId());
         
+        checkIdempotencyKey(idempotencyKey);
+        
         // Check if user is admin or the order belongs to the authenticated user
         String username = authentication.getName();
         var customer = customerService.getCustomerByUsername(username);
@@ -39,16 +71,73 @@ public class OrderController {
             return ResponseEntity.status(403).build();
         }
         
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.ok(response);
+        OrderResponse response = orderService.createOrder(request, idempotencyKey);
+        return ResponseEntity.ok().headers(consistencyToken()).body(response);
+    }
+    
+    /**
+     * {@code Prefer: respond-async} answers 202 once the order passed the in-memory checks and is queued,
+     * with a Location to poll for the outcome. Without that preference the order is placed synchronously.
+     */
+    @PostMapping(headers = "Prefer")
+    public ResponseEntity<?> acceptOrder(@Valid @RequestBody CreateOrderRequest request,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                         @RequestHeader("Prefer") String prefer,
+                                         Authentication authentication) {
+        if (!prefersAsync(prefer)) {
+            return createOrder(request, idempotencyKey, authentication);
+        }
+        log.info("Async order request received for customer: {}", request.getCustomerId());
+        
+        checkIdempotencyKey(idempotencyKey);
+        
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
+        if (!customer.isAdmin() && !customer.getId().equals(request.getCustomerId())) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        OrderIntakeResponse response = orderService.acceptOrder(request, idempotencyKey);
+        if (response.getStatus() != OrderIntakeResponse.Status.ACCEPTED) {
+            return ResponseEntity.ok().headers(consistencyToken()).body(response);
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/orders/intake/{reference}")
+                .queryParam("customerId", request.getCustomerId())
+                .encode()
+                .buildAndExpand(response.getReference())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(response);
+    }
+    
+    @GetMapping("/intake/{reference}")
+    @RunsIn(Workload.READS)
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(@PathVariable String reference,
+                                                               @RequestParam Long customerId,
+                                                               Authentication authentication) {
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
+        if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        return ResponseEntity.ok(orderService.getIntakeStatus(customerId, reference));
     }
     
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> listOrders(
+    @RunsIn(Workload.READS)
+    public void listOrders(
             @RequestParam Long customerId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            Authentication authentication) {
+            @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
         
         log.info("List orders request received for customer: {} between {} and {}", 
                 customerId, startDate, endDate);
@@ -57,12 +146,40 @@ public class OrderController {
         String username = authentication.getName();
         var customer = customerService.getCustomerByUsername(username);
         
+        if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        
+        // Streamed straight from the rows, no List<OrderResponse> in between; from the read model
+        // unless it is off or has not caught up with the client's token
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ConsistencyToken readAt = orderHistoryProjector.awaitReadable(consistencyToken);
+        if (readAt != null) {
+            response.setHeader(ConsistencyToken.HEADER, readAt.toString());
+            listResponseWriter.writeOrderHistory(customerId, startDate, endDate, response.getOutputStream());
+        } else {
+            listResponseWriter.writeOrders(customerId, startDate, endDate, response.getOutputStream());
+        }
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RunsIn(Workload.READS)
+    public ResponseEntity<SseEmitter> streamOrderEvents(
+            @RequestParam Long customerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            Authentication authentication) {
+        
+        log.info("Order event stream request received for customer: {}", customerId);
+        
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
         if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
             return ResponseEntity.status(403).build();
         }
         
-        List<OrderResponse> orders = orderService.listOrders(customerId, startDate, endDate);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orderStreamService.subscribe(customerId, lastEventId));
     }
     
     @DeleteMapping("/{orderId}")
@@ -74,16 +191,93 @@ public class OrderController {
         var customer = customerService.getCustomerByUsername(username);
         
         orderService.deleteOrder(orderId, customer.getId());
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.noContent().headers(consistencyToken()).build();
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<BulkCancelResponse> cancelOrders(@RequestParam Long customerId,
+                                                           @RequestParam(required = false) String assetName,
+                                                           @RequestParam(required = false) OrderSide orderSide,
+                                                           Authentication authentication) {
+        log.info("Mass cancel request received for customer: {}, asset: {}, side: {}", customerId, assetName, orderSide);
+        
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
+        if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        BulkCancelResponse response = orderService.cancelOrders(customerId, assetName, orderSide);
+        return ResponseEntity.ok().headers(consistencyToken()).body(response);
+    }
+    
+    @PatchMapping("/{orderId}")
+    public ResponseEntity<OrderResponse> amendOrder(@PathVariable Long orderId,
+                                                    @Valid @RequestBody AmendOrderRequest request,
+                                                    Authentication authentication) {
+        log.info("Amend order request received for order: {}", orderId);
+        
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
+        OrderResponse response = orderService.amendOrder(orderId, customer.getId(), request);
+        return ResponseEntity.ok().headers(consistencyToken()).body(response);
     }
     
     @PostMapping("/{orderId}/match")
     @PreAuthorize("hasRole('ADMIN')")
+    @RunsIn(Workload.ADMIN)
     public ResponseEntity<OrderResponse> matchOrder(@PathVariable Long orderId,
                                                   @Valid @RequestBody MatchOrderRequest request) {
         log.info("Match order request received for order: {}", orderId);
         
         OrderResponse response = orderService.matchOrder(orderId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().headers(consistencyToken()).body(response);
+    }
+    
+    @PostMapping("/match")
+    @PreAuthorize("hasRole('ADMIN')")
+    @RunsIn(Workload.ADMIN)
+    public ResponseEntity<BulkMatchResponse> matchOrders(@RequestBody BulkMatchRequest request) {
+        log.info("Bulk match request received for {} orders, asset: {}",
+                request.getOrderIds() != null ? request.getOrderIds().size() : 0, request.getAssetName());
+        
+        BulkMatchResponse response;
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            response = orderMatchingService.matchOrders(request.getOrderIds());
+        } else if (request.getAssetName() != null && !request.getAssetName().isBlank()) {
+            response = orderMatchingService.matchPendingOrders(request.getAssetName());
+        } else {
+            throw new InvalidOrderException("Either orderIds or assetName is required");
+        }
+        return ResponseEntity.ok().headers(consistencyToken()).body(response);
+    }
+    
+    /**
+     * Lets the client read its own write from the order history read model, see {@link OrderHistoryProjector}.
+     */
+    private HttpHeaders consistencyToken() {
+        HttpHeaders headers = new HttpHeaders();
+        ConsistencyToken token = orderHistoryProjector.issuedToken();
+        if (token != null) {
+            headers.set(ConsistencyToken.HEADER, token.toString());
+        }
+        return headers;
+    }
+    
+    private static void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+    
+    private static boolean prefersAsync(String prefer) {
+        for (String preference : prefer.split(",")) {
+            if (RESPOND_ASYNC.equalsIgnoreCase(preference.split(";")[0].trim())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
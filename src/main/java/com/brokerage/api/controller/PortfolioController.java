@@ -0,0 +1,39 @@
+package com.brokerage.api.controller;
+
+import com.brokerage.api.bulkhead.RunsIn;
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.dto.PortfolioValuationResponse;
+import com.brokerage.api.service.CustomerService;
+import com.brokerage.api.service.PortfolioValuationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RunsIn(Workload.READS)
+@RequestMapping("/portfolio")
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioController {
+    
+    private final PortfolioValuationService portfolioValuationService;
+    private final CustomerService customerService;
+    
+    @GetMapping("/valuation")
+    public ResponseEntity<PortfolioValuationResponse> getValuation(@RequestParam Long customerId,
+                                                                   Authentication authentication) {
+        log.info("Portfolio valuation request received for customer: {}", customerId);
+        
+        // Check if user is admin or the request is for the authenticated user
+        String username = authentication.getName();
+        var customer = customerService.getCustomerByUsername(username);
+        
+        if (!customer.isAdmin() && !customer.getId().equals(customerId)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        return ResponseEntity.ok(portfolioValuationService.valuePortfolio(customerId));
+    }
+}
@@ -0,0 +1,42 @@
+package com.brokerage.api.controller;
+
+import com.brokerage.api.bulkhead.RunsIn;
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.dto.TradeStatsResponse;
+import com.brokerage.api.service.TradeStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RunsIn(Workload.READS)
+@RequestMapping("/stats/assets")
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsController {
+    
+    private final TradeStatisticsService tradeStatisticsService;
+    
+    @GetMapping
+    public ResponseEntity<List<TradeStatsResponse>> listStatistics() {
+        return ResponseEntity.ok(tradeStatisticsService.getAllStatistics());
+    }
+    
+    @GetMapping("/{assetName}")
+    public ResponseEntity<List<TradeStatsResponse>> getBuckets(@PathVariable String assetName) {
+        return ResponseEntity.ok(tradeStatisticsService.getBuckets(assetName));
+    }
+    
+    @GetMapping("/{assetName}/history")
+    public ResponseEntity<List<TradeStatsResponse>> getHistory(@PathVariable String assetName,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("Trade statistics history request received for asset: {}", assetName);
+        return ResponseEntity.ok(tradeStatisticsService.getHistory(assetName, startDate, endDate));
+    }
+}
@@ -0,0 +1,17 @@
+package com.brokerage.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class AmendOrderRequest {
+    
+    // Either or both may be given; a missing one keeps its current value
+    @DecimalMin(value = "0.0001", message = "Size must be greater than 0")
+    private BigDecimal size;
+    
+    @DecimalMin(value = "0.0001", message = "Price must be greater than 0")
+    private BigDecimal price;
+}
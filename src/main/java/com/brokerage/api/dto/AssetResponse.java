@@ -1,10 +1,14 @@
 package com.brokerage.api.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AssetResponse {
     private Long id;
     private Long customerId;
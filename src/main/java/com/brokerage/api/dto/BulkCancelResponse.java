@@ -0,0 +1,13 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancelResponse {
+    private int canceled;
+    private long elapsedMillis;
+}
@@ -0,0 +1,15 @@
+package com.brokerage.api.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkMatchRequest {
+    
+    // Either an explicit list of order IDs...
+    private List<Long> orderIds;
+    
+    // ...or every PENDING order for this asset
+    private String assetName;
+}
@@ -0,0 +1,15 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMatchResponse {
+    private int requested;
+    private int matched;
+    private int skipped;
+    private long elapsedMillis;
+}
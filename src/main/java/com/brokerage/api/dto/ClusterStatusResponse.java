@@ -0,0 +1,15 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStatusResponse {
+    private String node;
+    private List<String> members;
+}
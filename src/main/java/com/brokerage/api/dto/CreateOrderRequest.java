@@ -1,12 +1,14 @@
 package com.brokerage.api.dto;
 
 import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.TimeInForce;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 public class CreateOrderRequest {
@@ -27,4 +29,10 @@ public class CreateOrderRequest {
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.0001", message = "Price must be greater than 0")
     private BigDecimal price;
+    
+    // Optional, defaults to GTC
+    private TimeInForce timeInForce;
+    
+    // Required for GTD orders only
+    private LocalDateTime expireAt;
 }
@@ -0,0 +1,34 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResponse {
+
+    public enum Status {
+        ACCEPTED,
+        PLACED,
+        REJECTED
+    }
+
+    private String reference;
+    private Status status;
+    private OrderResponse order;
+    private String reason;
+
+    public static OrderIntakeResponse accepted(String reference) {
+        return new OrderIntakeResponse(reference, Status.ACCEPTED, null, null);
+    }
+
+    public static OrderIntakeResponse placed(String reference, OrderResponse order) {
+        return new OrderIntakeResponse(reference, Status.PLACED, order, null);
+    }
+
+    public static OrderIntakeResponse rejected(String reference, String reason) {
+        return new OrderIntakeResponse(reference, Status.REJECTED, null, reason);
+    }
+}
@@ -1,13 +1,20 @@
 package com.brokerage.api.dto;
 
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.Order;
 import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderResponse {
     private Long id;
     private Long customerId;
@@ -17,4 +24,36 @@ public class OrderResponse {
     private BigDecimal price;
     private OrderStatus status;
     private LocalDateTime createDate;
+    private TimeInForce timeInForce;
+    private LocalDateTime expireAt;
+    
+    public static OrderResponse from(Order order) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.getId());
+        response.setCustomerId(order.getCustomerId());
+        response.setAssetName(order.getAssetName());
+        response.setOrderSide(order.getOrderSide());
+        response.setSize(order.getSize());
+        response.setPrice(order.getPrice());
+        response.setStatus(order.getStatus());
+        response.setCreateDate(order.getCreateDate());
+        response.setTimeInForce(order.getTimeInForce());
+        response.setExpireAt(order.getExpireAt());
+        return response;
+    }
+    
+    public static OrderResponse from(ArchivedOrder order) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.getId());
+        response.setCustomerId(order.getCustomerId());
+        response.setAssetName(order.getAssetName());
+        response.setOrderSide(order.getOrderSide());
+        response.setSize(order.getSize());
+        response.setPrice(order.getPrice());
+        response.setStatus(order.getStatus());
+        response.setCreateDate(order.getCreateDate());
+        response.setTimeInForce(order.getTimeInForce());
+        response.setExpireAt(order.getExpireAt());
+        return response;
+    }
 }
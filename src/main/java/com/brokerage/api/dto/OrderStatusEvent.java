@@ -0,0 +1,15 @@
+package com.brokerage.api.dto;
+
+import com.brokerage.api.event.OrderEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+    private long sequence;
+    private OrderEventType type;
+    private OrderResponse order;
+}
@@ -0,0 +1,18 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuationResponse {
+    private Long customerId;
+    private BigDecimal totalValue;
+    private boolean complete; // false when some asset has no price yet and is left out of the total
+    private List<PositionValuation> positions;
+}
@@ -0,0 +1,19 @@
+package com.brokerage.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionValuation {
+    private String assetName;
+    private BigDecimal size;
+    private BigDecimal price;
+    private BigDecimal value;
+    private LocalDateTime priceTime;
+}
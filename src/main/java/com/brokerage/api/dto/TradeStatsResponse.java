@@ -0,0 +1,61 @@
+package com.brokerage.api.dto;
+
+import com.brokerage.api.model.TradeStatsSnapshot;
+import com.brokerage.api.stats.StatsBucket;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Data
+public class TradeStatsResponse {
+    private String assetName;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long trades;
+    private BigDecimal volume;
+    private BigDecimal notional;
+    private BigDecimal vwap;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    
+    public static TradeStatsResponse from(String assetName, StatsBucket bucket) {
+        TradeStatsResponse response = new TradeStatsResponse();
+        response.setAssetName(assetName);
+        response.setFrom(toDateTime(bucket.startMillis()));
+        response.setTo(toDateTime(bucket.startMillis() + bucket.lengthMillis()));
+        response.setTrades(bucket.trades());
+        response.setVolume(bucket.volume());
+        response.setNotional(bucket.notional());
+        response.setVwap(bucket.vwap());
+        response.setOpen(bucket.open());
+        response.setHigh(bucket.high());
+        response.setLow(bucket.low());
+        response.setClose(bucket.close());
+        return response;
+    }
+    
+    public static TradeStatsResponse from(TradeStatsSnapshot snapshot) {
+        TradeStatsResponse response = new TradeStatsResponse();
+        response.setAssetName(snapshot.getAssetName());
+        response.setFrom(snapshot.getBucketStart());
+        response.setTo(snapshot.getBucketStart().plusNanos(snapshot.getBucketMillis() * 1_000_000));
+        response.setTrades(snapshot.getTrades());
+        response.setVolume(snapshot.getVolume());
+        response.setNotional(snapshot.getNotional());
+        response.setVwap(snapshot.getVwap());
+        response.setOpen(snapshot.getOpen());
+        response.setHigh(snapshot.getHigh());
+        response.setLow(snapshot.getLow());
+        response.setClose(snapshot.getClose());
+        return response;
+    }
+    
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,30 @@
+package com.brokerage.api.event;
+
+import com.brokerage.api.dto.OrderResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by {@link com.brokerage.api.service.OrderService} whenever an order changes state.
+ * Listeners that talk to the outside world should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Data
+@AllArgsConstructor
+public class OrderEvent {
+    private OrderEventType type;
+    private OrderResponse order;
+    
+    // Size of the order before an AMENDED change, null for other events
+    private BigDecimal previousSize;
+    
+    public OrderEvent(OrderEventType type, OrderResponse order) {
+        this(type, order, null);
+    }
+    
+    public Long getCustomerId() {
+        return order.getCustomerId();
+    }
+}
@@ -0,0 +1,9 @@
+package com.brokerage.api.event;
+
+public enum OrderEventType {
+    CREATED,
+    MATCHED,
+    CANCELED,
+    EXPIRED,
+    AMENDED
+}
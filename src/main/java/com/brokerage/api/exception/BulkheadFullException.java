@@ -0,0 +1,15 @@
+package com.brokerage.api.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    
+    private final String bulkhead;
+    
+    public BulkheadFullException(String bulkhead) {
+        super("Too many " + bulkhead + " requests in progress. Please retry shortly.");
+        this.bulkhead = bulkhead;
+    }
+    
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,12 @@
+package com.brokerage.api.exception;
+
+public class DuplicateOrderException extends RuntimeException {
+    
+    public DuplicateOrderException(String message) {
+        super(message);
+    }
+    
+    public DuplicateOrderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,6 +2,7 @@ package com.brokerage.api.exception;
 
 import com.brokerage.api.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -57,6 +58,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(DuplicateOrderException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateOrderException(DuplicateOrderException ex, WebRequest request) {
+        log.error("Duplicate order error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of("ORDER_004", ex.getMessage());
+        error.setPath(request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(RiskLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRiskLimitExceededException(RiskLimitExceededException ex, WebRequest request) {
+        log.error("Risk limit error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of("ORDER_005", ex.getMessage());
+        error.setPath(request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(BulkheadFullException ex, WebRequest request) {
+        log.warn("Bulkhead full: {}", ex.getBulkhead());
+        ErrorResponse error = ErrorResponse.of("RATE_003", ex.getMessage());
+        error.setPath(request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCustomerNotFoundException(CustomerNotFoundException ex, WebRequest request) {
         log.error("Customer not found error: {}", ex.getMessage());
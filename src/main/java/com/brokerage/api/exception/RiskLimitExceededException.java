@@ -0,0 +1,15 @@
+package com.brokerage.api.exception;
+
+public class RiskLimitExceededException extends RuntimeException {
+    
+    private final String rule;
+    
+    public RiskLimitExceededException(String rule, String message) {
+        super(message);
+        this.rule = rule;
+    }
+    
+    public String getRule() {
+        return rule;
+    }
+}
@@ -0,0 +1,163 @@
+package com.brokerage.api.expiry;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel for order expiry deadlines.
+ * <p>
+ * Level 0 has {@code wheelSize} slots of one tick each, every higher level has the same
+ * number of slots, each covering a whole rotation of the level below. An entry is stored
+ * in the lowest level whose range covers its deadline and cascades down as time
+ * approaches it, so scheduling is O(1) and advancing costs O(1) per tick plus the
+ * entries that actually move or expire. Deadlines beyond the top level wait in an
+ * overflow bucket that is re-examined once per top-level rotation.
+ * <p>
+ * Entries are stored as primitive (id, deadline) pairs in growable arrays, and orders
+ * sharing a deadline (such as every DAY order at session close) end up in one slot that
+ * is drained in a single pass. Not thread-safe; callers serialize access.
+ */
+public class HierarchicalTimingWheel {
+    
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Bucket[][] wheels;
+    private final Bucket overflow = new Bucket();
+    private final Bucket due = new Bucket();
+    private long currentTick;
+    private int size;
+    
+    public HierarchicalTimingWheel(long tickMillis, int wheelSizePowerOfTwo, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || Integer.bitCount(wheelSizePowerOfTwo) != 1) {
+            throw new IllegalArgumentException("Tick must be positive, levels >= 1 and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSizePowerOfTwo);
+        this.mask = wheelSizePowerOfTwo - 1;
+        this.levels = levels;
+        this.wheels = new Bucket[levels][wheelSizePowerOfTwo];
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    public void schedule(long id, long deadlineMillis) {
+        size++;
+        place(id, deadlineMillis);
+    }
+    
+    /**
+     * Advances the wheel to {@code nowMillis} and hands every id whose deadline has
+     * passed to {@code expired}.
+     *
+     * @return the number of expired ids
+     */
+    public int advance(long nowMillis, LongConsumer expired) {
+        int count = drain(due, expired);
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so entries can fall all the way down in one tick
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    int index = (int) ((currentTick >>> (bits * level)) & mask);
+                    Bucket bucket = wheels[level][index];
+                    if (bucket != null && bucket.size > 0) {
+                        wheels[level][index] = null;
+                        cascade(bucket);
+                    }
+                }
+            }
+            if ((currentTick & ((1L << (bits * levels)) - 1)) == 0 && overflow.size > 0) {
+                Bucket pending = overflow.copyAndClear();
+                cascade(pending);
+            }
+            Bucket bucket = wheels[0][(int) (currentTick & mask)];
+            if (bucket != null && bucket.size > 0) {
+                count += drain(bucket, expired);
+            }
+            count += drain(due, expired);
+        }
+        return count;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void cascade(Bucket bucket) {
+        for (int i = 0; i < bucket.size; i++) {
+            place(bucket.ids[i], bucket.deadlines[i]);
+        }
+    }
+    
+    private void place(long id, long deadlineMillis) {
+        // Round up so an entry never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(id, deadlineMillis);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            if (delta < (1L << (bits * (level + 1)))) {
+                int index = (int) ((deadlineTick >>> (bits * level)) & mask);
+                Bucket bucket = wheels[level][index];
+                if (bucket == null) {
+                    bucket = new Bucket();
+                    wheels[level][index] = bucket;
+                }
+                bucket.add(id, deadlineMillis);
+                return;
+            }
+        }
+        overflow.add(id, deadlineMillis);
+    }
+    
+    private int drain(Bucket bucket, LongConsumer expired) {
+        int drained = bucket.size;
+        for (int i = 0; i < drained; i++) {
+            expired.accept(bucket.ids[i]);
+        }
+        bucket.clear();
+        size -= drained;
+        return drained;
+    }
+    
+    private static final class Bucket {
+        
+        private long[] ids = new long[4];
+        private long[] deadlines = new long[4];
+        private int size;
+        
+        void add(long id, long deadline) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            ids[size] = id;
+            deadlines[size] = deadline;
+            size++;
+        }
+        
+        void clear() {
+            size = 0;
+            if (ids.length > 1024) {
+                // Don't pin the memory of a huge burst (e.g. session close) forever
+                ids = new long[4];
+                deadlines = new long[4];
+            }
+        }
+        
+        Bucket copyAndClear() {
+            Bucket copy = new Bucket();
+            copy.ids = ids;
+            copy.deadlines = deadlines;
+            copy.size = size;
+            ids = new long[4];
+            deadlines = new long[4];
+            size = 0;
+            return copy;
+        }
+    }
+}
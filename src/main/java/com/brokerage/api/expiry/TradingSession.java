@@ -0,0 +1,29 @@
+package com.brokerage.api.expiry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Trading session calendar used to resolve {@code DAY} orders to an expiry timestamp.
+ */
+@Component
+public class TradingSession {
+    
+    private final LocalTime closeTime;
+    
+    public TradingSession(@Value("${orders.session.close-time:18:00}") LocalTime closeTime) {
+        this.closeTime = closeTime;
+    }
+    
+    /**
+     * The close of the session an order placed at {@code now} belongs to: today's close,
+     * or tomorrow's if today's session has already closed.
+     */
+    public LocalDateTime sessionClose(LocalDateTime now) {
+        LocalDateTime todayClose = now.toLocalDate().atTime(closeTime);
+        return now.isBefore(todayClose) ? todayClose : todayClose.plusDays(1);
+    }
+}
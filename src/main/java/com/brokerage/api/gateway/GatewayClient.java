@@ -0,0 +1,62 @@
+package com.brokerage.api.gateway;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Minimal blocking client for the order gateway: one request in flight at a time.
+ */
+public class GatewayClient implements Closeable {
+    
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(GatewayCodec.MAX_MESSAGE_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(4096);
+    
+    public GatewayClient(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+    
+    public GatewayMessage.LoginAck login(String username, String password) throws IOException {
+        return (GatewayMessage.LoginAck) request(new GatewayMessage.Login(username, password));
+    }
+    
+    public GatewayMessage.Ack newOrder(GatewayMessage.NewOrder order) throws IOException {
+        return (GatewayMessage.Ack) request(order);
+    }
+    
+    public GatewayMessage.Ack cancel(GatewayMessage.Cancel cancel) throws IOException {
+        return (GatewayMessage.Ack) request(cancel);
+    }
+    
+    private GatewayMessage request(GatewayMessage message) throws IOException {
+        out.clear();
+        GatewayCodec.encode(message, out);
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        
+        while (true) {
+            in.flip();
+            GatewayMessage reply = GatewayCodec.decode(in);
+            in.compact();
+            if (reply != null) {
+                return reply;
+            }
+            if (channel.read(in) < 0) {
+                throw new EOFException("Order gateway closed the connection");
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,171 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Fixed-layout, big-endian wire format of the order-entry gateway. Every message is one type
+ * byte followed by a body whose size depends only on the type:
+ * <pre>
+ * LOGIN      1  username[32] password[32]                                    (ASCII/UTF-8, zero padded)
+ * LOGIN_ACK  2  result[1] customerId[8]
+ * NEW_ORDER  3  clientOrderId[8] customerId[8] assetName[12] side[1] timeInForce[1]
+ *               size[8] price[8] expireAt[8]                                  (scale-4 longs, epoch millis, 0 = none)
+ * CANCEL     4  clientOrderId[8] orderId[8]
+ * ACK        5  clientOrderId[8] orderId[8] result[1] status[1]
+ * </pre>
+ * Enums are sent as ordinals.
+ */
+public final class GatewayCodec {
+    
+    static final byte LOGIN = 1;
+    static final byte LOGIN_ACK = 2;
+    static final byte NEW_ORDER = 3;
+    static final byte CANCEL = 4;
+    static final byte ACK = 5;
+    
+    static final int CREDENTIAL_LENGTH = 32;
+    static final int ASSET_LENGTH = 12;
+    static final int SCALE = 4;
+    
+    private static final int[] BODY_SIZES = {
+            0,
+            CREDENTIAL_LENGTH * 2,
+            1 + 8,
+            8 + 8 + ASSET_LENGTH + 1 + 1 + 8 + 8 + 8,
+            8 + 8,
+            8 + 8 + 1 + 1
+    };
+    
+    /** Size of the largest message, enough for any buffer that holds one complete message. */
+    public static final int MAX_MESSAGE_SIZE = 1 + CREDENTIAL_LENGTH * 2;
+    
+    private static final GatewayResult[] RESULTS = GatewayResult.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final TimeInForce[] TIME_IN_FORCES = TimeInForce.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    
+    private GatewayCodec() {
+    }
+    
+    public static void encode(GatewayMessage message, ByteBuffer buffer) {
+        if (message instanceof GatewayMessage.Login login) {
+            buffer.put(LOGIN);
+            putText(buffer, login.username(), CREDENTIAL_LENGTH);
+            putText(buffer, login.password(), CREDENTIAL_LENGTH);
+        } else if (message instanceof GatewayMessage.LoginAck ack) {
+            buffer.put(LOGIN_ACK);
+            buffer.put((byte) ack.result().ordinal());
+            buffer.putLong(ack.customerId());
+        } else if (message instanceof GatewayMessage.NewOrder order) {
+            buffer.put(NEW_ORDER);
+            buffer.putLong(order.clientOrderId());
+            buffer.putLong(order.customerId());
+            putText(buffer, order.assetName(), ASSET_LENGTH);
+            buffer.put((byte) order.orderSide().ordinal());
+            buffer.put((byte) (order.timeInForce() != null ? order.timeInForce() : TimeInForce.GTC).ordinal());
+            buffer.putLong(unscaled(order.size()));
+            buffer.putLong(unscaled(order.price()));
+            buffer.putLong(order.expireAt() == null ? 0 : order.expireAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        } else if (message instanceof GatewayMessage.Cancel cancel) {
+            buffer.put(CANCEL);
+            buffer.putLong(cancel.clientOrderId());
+            buffer.putLong(cancel.orderId());
+        } else if (message instanceof GatewayMessage.Ack ack) {
+            buffer.put(ACK);
+            buffer.putLong(ack.clientOrderId());
+            buffer.putLong(ack.orderId());
+            buffer.put((byte) ack.result().ordinal());
+            buffer.put((byte) (ack.status() != null ? ack.status().ordinal() : -1));
+        }
+    }
+    
+    /**
+     * Decodes the next message, or returns null and leaves the buffer untouched when it
+     * doesn't hold a complete message yet.
+     *
+     * @throws IllegalArgumentException on an unknown message type or enum value
+     */
+    public static GatewayMessage decode(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        int type = buffer.get(buffer.position());
+        if (type <= 0 || type >= BODY_SIZES.length) {
+            throw new IllegalArgumentException("Unknown gateway message type: " + type);
+        }
+        if (buffer.remaining() < 1 + BODY_SIZES[type]) {
+            return null;
+        }
+        
+        buffer.get();
+        switch (type) {
+            case LOGIN:
+                return new GatewayMessage.Login(getText(buffer, CREDENTIAL_LENGTH), getText(buffer, CREDENTIAL_LENGTH));
+            case LOGIN_ACK:
+                return new GatewayMessage.LoginAck(lookup(RESULTS, buffer.get()), buffer.getLong());
+            case NEW_ORDER:
+                long clientOrderId = buffer.getLong();
+                long customerId = buffer.getLong();
+                String assetName = getText(buffer, ASSET_LENGTH);
+                OrderSide side = lookup(SIDES, buffer.get());
+                TimeInForce timeInForce = lookup(TIME_IN_FORCES, buffer.get());
+                BigDecimal size = BigDecimal.valueOf(buffer.getLong(), SCALE);
+                BigDecimal price = BigDecimal.valueOf(buffer.getLong(), SCALE);
+                long expireAt = buffer.getLong();
+                return new GatewayMessage.NewOrder(clientOrderId, customerId, assetName, side, timeInForce, size, price,
+                        expireAt == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(expireAt), ZoneId.systemDefault()));
+            case CANCEL:
+                return new GatewayMessage.Cancel(buffer.getLong(), buffer.getLong());
+            default:
+                long ackClientOrderId = buffer.getLong();
+                long orderId = buffer.getLong();
+                GatewayResult result = lookup(RESULTS, buffer.get());
+                byte status = buffer.get();
+                return new GatewayMessage.Ack(ackClientOrderId, orderId, result, status < 0 ? null : lookup(STATUSES, status));
+        }
+    }
+    
+    private static <E> E lookup(E[] values, byte ordinal) {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown " + values.getClass().getComponentType().getSimpleName() + " value: " + ordinal);
+        }
+        return values[ordinal];
+    }
+    
+    private static long unscaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+    
+    private static void putText(ByteBuffer buffer, String value, int length) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (bytes.length > length) {
+            throw new IllegalArgumentException("Value longer than " + length + " bytes: " + value);
+        }
+        buffer.put(bytes);
+        for (int i = bytes.length; i < length; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+    
+    private static String getText(ByteBuffer buffer, int length) {
+        int start = buffer.position();
+        int end = start;
+        while (end < start + length && buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.position(start + length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
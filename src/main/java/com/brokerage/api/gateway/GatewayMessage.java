@@ -0,0 +1,35 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Messages of the binary order-entry protocol. See {@link GatewayCodec} for the wire layout.
+ */
+public sealed interface GatewayMessage {
+    
+    record Login(String username, String password) implements GatewayMessage {
+    }
+    
+    record LoginAck(GatewayResult result, long customerId) implements GatewayMessage {
+    }
+    
+    /**
+     * A new order. {@code customerId} 0 means the logged-in customer; {@code clientOrderId}
+     * doubles as the idempotency key, so resending after a lost ack is safe.
+     */
+    record NewOrder(long clientOrderId, long customerId, String assetName, OrderSide orderSide,
+                    TimeInForce timeInForce, BigDecimal size, BigDecimal price,
+                    LocalDateTime expireAt) implements GatewayMessage {
+    }
+    
+    record Cancel(long clientOrderId, long orderId) implements GatewayMessage {
+    }
+    
+    record Ack(long clientOrderId, long orderId, GatewayResult result, OrderStatus status) implements GatewayMessage {
+    }
+}
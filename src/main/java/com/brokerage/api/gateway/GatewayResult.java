@@ -0,0 +1,21 @@
+package com.brokerage.api.gateway;
+
+/**
+ * Outcome carried by gateway acknowledgements, sent as its ordinal. Maps one-to-one to
+ * the REST error codes; append new values at the end.
+ */
+public enum GatewayResult {
+    ACCEPTED,
+    AUTHENTICATION_FAILED,
+    NOT_LOGGED_IN,
+    NOT_PERMITTED,
+    INSUFFICIENT_FUNDS,
+    INVALID_ORDER,
+    ORDER_NOT_FOUND,
+    DUPLICATE_ORDER,
+    RATE_LIMITED,
+    OVERLOADED,
+    INTERNAL_ERROR,
+    WRONG_NODE,
+    RISK_REJECTED
+}
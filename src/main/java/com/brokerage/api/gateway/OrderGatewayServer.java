@@ -0,0 +1,371 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.bulkhead.WorkloadContext;
+import com.brokerage.api.cluster.ClusterMembership;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.exception.AuthenticationException;
+import com.brokerage.api.exception.DuplicateOrderException;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.exception.OrderNotFoundException;
+import com.brokerage.api.exception.RiskLimitExceededException;
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.service.CustomerService;
+import com.brokerage.api.service.OrderService;
+import com.brokerage.api.throttle.IntakeDecision;
+import com.brokerage.api.throttle.OrderIntakeThrottle;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binary order-entry gateway over TCP, enabled with {@code orders.gateway.enabled=true}.
+ * <p>
+ * One selector thread does all socket I/O. Decoded messages are handled on a worker pool,
+ * one connection at a time so each client's messages are processed in order, and go
+ * through the same bean validation, intake throttle and {@link OrderService} calls as the
+ * REST endpoints. A connection logs in once; every later message runs as that customer.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.gateway", name = "enabled", havingValue = "true")
+@Slf4j
+public class OrderGatewayServer {
+    
+    static final String IDEMPOTENCY_PREFIX = "gw-";
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_MESSAGES = 1024;
+    
+    private final OrderService orderService;
+    private final CustomerService customerService;
+    private final OrderIntakeThrottle throttle;
+    private final Validator validator;
+    private final ClusterMembership clusterMembership;
+    private final int port;
+    private final ExecutorService workers;
+    
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    
+    public OrderGatewayServer(OrderService orderService,
+                              CustomerService customerService,
+                              OrderIntakeThrottle throttle,
+                              Validator validator,
+                              ClusterMembership clusterMembership,
+                              @Value("${orders.gateway.port:9100}") int port,
+                              @Value("${orders.gateway.worker-threads:4}") int workerThreads) {
+        this.orderService = orderService;
+        this.customerService = customerService;
+        this.throttle = throttle;
+        this.validator = validator;
+        this.clusterMembership = clusterMembership;
+        this.port = port;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(WorkloadContext.bound(Workload.ORDER_ENTRY, runnable), "order-gateway-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        
+        selectorThread = new Thread(this::selectLoop, "order-gateway-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Order gateway listening on port {}", getPort());
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        selector.close();
+        serverChannel.close();
+        workers.shutdownNow();
+    }
+    
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+    
+    private void selectLoop() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // Shutting down
+        } catch (IOException e) {
+            log.error("Order gateway selector failed", e);
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        log.debug("Order gateway connection from {}", channel.getRemoteAddress());
+    }
+    
+    private GatewayMessage handle(Connection connection, GatewayMessage message) {
+        if (message instanceof GatewayMessage.Login login) {
+            return login(connection, login);
+        }
+        Customer customer = connection.customer;
+        if (message instanceof GatewayMessage.NewOrder order) {
+            return customer == null ? reject(order.clientOrderId(), 0, GatewayResult.NOT_LOGGED_IN) : newOrder(customer, order);
+        }
+        if (message instanceof GatewayMessage.Cancel cancel) {
+            return customer == null ? reject(cancel.clientOrderId(), cancel.orderId(), GatewayResult.NOT_LOGGED_IN) : cancel(customer, cancel);
+        }
+        // Acks only flow from server to client
+        return reject(0, 0, GatewayResult.INVALID_ORDER);
+    }
+    
+    private GatewayMessage login(Connection connection, GatewayMessage.Login login) {
+        try {
+            Customer customer = customerService.authenticate(login.username(), login.password());
+            connection.customer = customer;
+            log.info("Order gateway login for user: {}", customer.getUsername());
+            return new GatewayMessage.LoginAck(GatewayResult.ACCEPTED, customer.getId());
+        } catch (AuthenticationException e) {
+            log.warn("Order gateway login failed for user: {}", login.username());
+            return new GatewayMessage.LoginAck(GatewayResult.AUTHENTICATION_FAILED, 0);
+        }
+    }
+    
+    private GatewayMessage newOrder(Customer customer, GatewayMessage.NewOrder order) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(order.customerId() != 0 ? order.customerId() : customer.getId());
+        request.setAssetName(order.assetName());
+        request.setOrderSide(order.orderSide());
+        request.setSize(order.size());
+        request.setPrice(order.price());
+        request.setTimeInForce(order.timeInForce());
+        request.setExpireAt(order.expireAt());
+        
+        // Same checks as POST /orders: ownership, bean validation, then the intake throttle
+        if (!customer.isAdmin() && !customer.getId().equals(request.getCustomerId())) {
+            return reject(order.clientOrderId(), 0, GatewayResult.NOT_PERMITTED);
+        }
+        // Balance checks for a customer only run on the node that owns it
+        if (!clusterMembership.owns(request.getCustomerId())) {
+            return reject(order.clientOrderId(), 0, GatewayResult.WRONG_NODE);
+        }
+        if (!validator.validate(request).isEmpty()) {
+            return reject(order.clientOrderId(), 0, GatewayResult.INVALID_ORDER);
+        }
+        IntakeDecision decision = throttle.admit(customer.getUsername());
+        if (decision == IntakeDecision.RATE_LIMITED) {
+            return reject(order.clientOrderId(), 0, GatewayResult.RATE_LIMITED);
+        }
+        if (decision == IntakeDecision.OVERLOADED) {
+            return reject(order.clientOrderId(), 0, GatewayResult.OVERLOADED);
+        }
+        
+        try {
+            OrderResponse response = orderService.createOrder(request, IDEMPOTENCY_PREFIX + order.clientOrderId());
+            return new GatewayMessage.Ack(order.clientOrderId(), response.getId(), GatewayResult.ACCEPTED, response.getStatus());
+        } catch (RuntimeException e) {
+            return reject(order.clientOrderId(), 0, resultOf(e));
+        } finally {
+            throttle.release();
+        }
+    }
+    
+    private GatewayMessage cancel(Customer customer, GatewayMessage.Cancel cancel) {
+        if (!clusterMembership.owns(customer.getId())) {
+            return reject(cancel.clientOrderId(), cancel.orderId(), GatewayResult.WRONG_NODE);
+        }
+        try {
+            orderService.deleteOrder(cancel.orderId(), customer.getId());
+            return new GatewayMessage.Ack(cancel.clientOrderId(), cancel.orderId(), GatewayResult.ACCEPTED, OrderStatus.CANCELED);
+        } catch (RuntimeException e) {
+            return reject(cancel.clientOrderId(), cancel.orderId(), resultOf(e));
+        }
+    }
+    
+    private GatewayResult resultOf(RuntimeException e) {
+        if (e instanceof InsufficientFundsException) {
+            return GatewayResult.INSUFFICIENT_FUNDS;
+        }
+        if (e instanceof InvalidOrderException || e instanceof IllegalArgumentException) {
+            return GatewayResult.INVALID_ORDER;
+        }
+        if (e instanceof OrderNotFoundException) {
+            return GatewayResult.ORDER_NOT_FOUND;
+        }
+        if (e instanceof DuplicateOrderException) {
+            return GatewayResult.DUPLICATE_ORDER;
+        }
+        if (e instanceof RiskLimitExceededException) {
+            return GatewayResult.RISK_REJECTED;
+        }
+        log.error("Unexpected error handling gateway message", e);
+        return GatewayResult.INTERNAL_ERROR;
+    }
+    
+    private static GatewayMessage.Ack reject(long clientOrderId, long orderId, GatewayResult result) {
+        return new GatewayMessage.Ack(clientOrderId, orderId, result, null);
+    }
+    
+    private class Connection {
+        
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Queue<GatewayMessage> inbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private SelectionKey key;
+        private volatile Customer customer;
+        
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+        
+        void read() {
+            try {
+                if (channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+                in.flip();
+                GatewayMessage message;
+                while ((message = GatewayCodec.decode(in)) != null) {
+                    inbox.add(message);
+                    pending.incrementAndGet();
+                }
+                in.compact();
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Closing order gateway connection: {}", e.getMessage());
+                close();
+                return;
+            }
+            
+            // Stop reading from clients that send faster than their orders are processed
+            if (pending.get() >= MAX_PENDING_MESSAGES) {
+                key.interestOpsAnd(~SelectionKey.OP_READ);
+            }
+            schedule();
+        }
+        
+        private void schedule() {
+            if (!inbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                workers.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                GatewayMessage message;
+                while ((message = inbox.poll()) != null) {
+                    send(handle(this, message));
+                    if (pending.decrementAndGet() == MAX_PENDING_MESSAGES / 2 && key.isValid()) {
+                        key.interestOpsOr(SelectionKey.OP_READ);
+                        selector.wakeup();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            schedule();
+        }
+        
+        private synchronized void send(GatewayMessage message) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (out.remaining() < GatewayCodec.MAX_MESSAGE_SIZE) {
+                log.warn("Order gateway client is not reading its acks, closing connection");
+                close();
+                return;
+            }
+            GatewayCodec.encode(message, out);
+            flush();
+        }
+        
+        synchronized void flush() {
+            try {
+                out.flip();
+                channel.write(out);
+                out.compact();
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            if (!key.isValid()) {
+                return;
+            }
+            if (out.position() > 0) {
+                if ((key.interestOpsOr(SelectionKey.OP_WRITE) & SelectionKey.OP_WRITE) == 0) {
+                    selector.wakeup();
+                }
+            } else if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                key.interestOpsAnd(~SelectionKey.OP_WRITE);
+            }
+        }
+        
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Error closing order gateway connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.brokerage.api.history;
+
+import java.util.Optional;
+
+/**
+ * A position in one node's order history projection: the projector's epoch, which changes whenever
+ * the read model is rebuilt, and the sequence number of a change handed to it. Written on the wire as
+ * {@code <epoch>.<sequence>} in base 36.
+ */
+public record ConsistencyToken(long epoch, long sequence) {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    /**
+     * @return the token, empty when the value is not one
+     */
+    public static Optional<ConsistencyToken> parse(String value) {
+        int dot = value.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ConsistencyToken(Long.parseLong(value, 0, dot, 36),
+                    Long.parseLong(value, dot + 1, value.length(), 36)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(epoch, 36) + "." + Long.toString(sequence, 36);
+    }
+}
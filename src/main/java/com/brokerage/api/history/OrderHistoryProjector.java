@@ -0,0 +1,334 @@
+package com.brokerage.api.history;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.OrderHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains {@code order_history}, the read model order lists are served from, so list reads never
+ * touch the {@code orders} table that placement, matching and cancellation write.
+ * <p>
+ * Committed order events are numbered and queued on the publishing thread; a single background
+ * thread applies them in batches, keeping the latest state of each order, with one select, one batch
+ * of updates and one batch of inserts per transaction. The read model is rebuilt from the orders
+ * table at startup, which starts a new epoch.
+ * <p>
+ * Writes hand out a {@link ConsistencyToken} covering every change queued so far. A read presenting
+ * it waits up to {@code orders.history.max-wait} for the projector to get there and is served from
+ * the orders table if it does not, so a client always reads its own writes.
+ */
+@Service
+@Slf4j
+public class OrderHistoryProjector implements Runnable {
+
+    private static final String SELECT_STATUSES = "SELECT order_id, status FROM order_history WHERE order_id IN (%s)";
+    private static final String UPDATE = "UPDATE order_history SET size = ?, price = ?, status = ?, time_in_force = ?, expire_at = ? "
+            + "WHERE order_id = ?";
+    private static final String INSERT = "INSERT INTO order_history "
+            + "(order_id, customer_id, asset_name, order_side, size, price, status, create_date, time_in_force, expire_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private record Change(long sequence, OrderResponse order) {
+    }
+
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long epoch = System.currentTimeMillis();
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean ready;
+
+    // Written under the queue's lock, so queue order is sequence order
+    private volatile long issued;
+    // Written under its own monitor, which readers waiting for a token wait on
+    private volatile long applied;
+    private final Object appliedMonitor = new Object();
+
+    private final Counter appliedChanges;
+    private final DistributionSummary batchSizes;
+    private final Counter historyReads;
+    private final Counter fallbackReads;
+
+    public OrderHistoryProjector(OrderHistoryRepository orderHistoryRepository,
+                                 DataSource dataSource,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${orders.history.enabled:false}") boolean enabled,
+                                 @Value("${orders.history.batch-size:500}") int batchSize,
+                                 @Value("${orders.history.max-wait:500}") long maxWaitMillis) {
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.thread = new Thread(this, "order-history");
+        this.thread.setDaemon(true);
+
+        Gauge.builder("orders.history.lag", this, projector -> projector.issued - projector.applied)
+                .description("Order changes queued for the history read model but not yet applied")
+                .register(meterRegistry);
+        this.appliedChanges = Counter.builder("orders.history.applied")
+                .description("Order changes applied to the history read model")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.history.batch_size")
+                .description("Order changes applied per history transaction")
+                .register(meterRegistry);
+        this.historyReads = Counter.builder("orders.history.reads").tag("source", "history").register(meterRegistry);
+        this.fallbackReads = Counter.builder("orders.history.reads").tag("source", "orders").register(meterRegistry);
+    }
+
+    // After the data initializer, so the rebuild sees everything written at startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            thread.start();
+            log.info("Order history read model enabled, epoch {}", Long.toString(epoch, 36));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread.isAlive()) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (queue) {
+            queue.add(new Change(++issued, event.getOrder()));
+        }
+    }
+
+    /**
+     * Token covering every order change committed on this node so far, null when the read model is off.
+     */
+    public ConsistencyToken issuedToken() {
+        return enabled ? new ConsistencyToken(epoch, issued) : null;
+    }
+
+    /**
+     * Decides where an order list read goes. Waits for the read model to cover the client's token,
+     * if it sent one that is from the current epoch; tokens from an earlier epoch are covered by the
+     * rebuild.
+     *
+     * @param token the client's {@link ConsistencyToken#HEADER} value, may be null
+     * @return the position the read model was read at, or null when the read has to go to the orders table
+     */
+    public ConsistencyToken awaitReadable(String token) {
+        if (!enabled) {
+            return null;
+        }
+        long required = 0;
+        if (token != null) {
+            ConsistencyToken parsed = ConsistencyToken.parse(token).orElse(null);
+            if (parsed == null || parsed.epoch() > epoch) {
+                fallbackReads.increment();
+                return null;
+            }
+            if (parsed.epoch() == epoch) {
+                required = parsed.sequence();
+            }
+        }
+        if (!ready || required > issued || !awaitApplied(required)) {
+            fallbackReads.increment();
+            return null;
+        }
+        historyReads.increment();
+        return new ConsistencyToken(epoch, applied);
+    }
+
+    private boolean awaitApplied(long sequence) {
+        if (applied >= sequence) {
+            return true;
+        }
+        long deadline = System.nanoTime() + maxWaitNanos;
+        synchronized (appliedMonitor) {
+            try {
+                while (applied < sequence) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(appliedMonitor, remaining);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Drops orders that left the orders table for the archive, in the caller's transaction. Reads merge
+     * the archive in themselves.
+     */
+    public void forget(Collection<Long> orderIds) {
+        if (enabled) {
+            orderHistoryRepository.deleteByOrderIdIn(orderIds);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running && !rebuild()) {
+            if (!pause()) {
+                return;
+            }
+        }
+        List<Change> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Change first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                // The read model can always be rebuilt, but dropping a change would leave it wrong until then
+                while (!apply(batch)) {
+                    if (!running || !pause()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            Integer copied = transactionTemplate.execute(status -> {
+                orderHistoryRepository.deleteAllEntries();
+                return orderHistoryRepository.copyAllFromOrders();
+            });
+            ready = true;
+            log.info("Rebuilt order history read model from {} orders in {} ms", copied, System.currentTimeMillis() - start);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Order history rebuild failed, retrying", e);
+            return false;
+        }
+    }
+
+    boolean apply(List<Change> batch) {
+        // Changes to an order arrive in commit order except when two commits race to the queue, and
+        // an order never leaves a terminal status, so a terminal state is never replaced by a pending one
+        Map<Long, OrderResponse> latest = new LinkedHashMap<>();
+        for (Change change : batch) {
+            latest.merge(change.order().getId(), change.order(), OrderHistoryProjector::later);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(latest.values()));
+        } catch (RuntimeException e) {
+            log.error("Applying {} order changes to the history read model failed, retrying", batch.size(), e);
+            return false;
+        }
+        synchronized (appliedMonitor) {
+            applied = batch.get(batch.size() - 1).sequence();
+            appliedMonitor.notifyAll();
+        }
+        appliedChanges.increment(batch.size());
+        batchSizes.record(batch.size());
+        return true;
+    }
+
+    private void write(Collection<OrderResponse> orders) {
+        Map<Long, String> stored = new HashMap<>();
+        jdbcTemplate.query(String.format(SELECT_STATUSES, String.join(",", Collections.nCopies(orders.size(), "?"))),
+                (RowCallbackHandler) rs -> stored.put(rs.getLong(1), rs.getString(2)),
+                orders.stream().map(OrderResponse::getId).toArray());
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (OrderResponse order : orders) {
+            String status = stored.get(order.getId());
+            if (status == null) {
+                inserts.add(new Object[]{order.getId(), order.getCustomerId(), order.getAssetName(), name(order.getOrderSide()),
+                        order.getSize(), order.getPrice(), name(order.getStatus()), timestamp(order.getCreateDate()),
+                        name(order.getTimeInForce()), timestamp(order.getExpireAt())});
+            } else if (OrderStatus.PENDING.name().equals(status)) {
+                updates.add(new Object[]{order.getSize(), order.getPrice(), name(order.getStatus()),
+                        name(order.getTimeInForce()), timestamp(order.getExpireAt()), order.getId()});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, inserts);
+        }
+    }
+
+    private static OrderResponse later(OrderResponse earlier, OrderResponse later) {
+        return earlier.getStatus() != OrderStatus.PENDING && later.getStatus() == OrderStatus.PENDING ? earlier : later;
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
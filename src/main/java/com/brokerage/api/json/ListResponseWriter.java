@@ -0,0 +1,261 @@
+package com.brokerage.api.json;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.service.OrderArchiveService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes order and asset lists straight from JDBC rows to the response stream. Skips the
+ * entity and DTO for every row, writes enum columns as stored and formats dates into a
+ * reused buffer; the output is the same JSON Jackson produces for {@link OrderResponse}
+ * and {@link com.brokerage.api.dto.AssetResponse} lists.
+ */
+@Component
+public class ListResponseWriter {
+    
+    private static final String ORDERS_SQL =
+            "SELECT id, customer_id, asset_name, order_side, size, price, status, create_date, time_in_force, expire_at " +
+            "FROM orders WHERE customer_id = ? AND create_date BETWEEN ? AND ?";
+    private static final String ORDER_HISTORY_SQL =
+            "SELECT order_id, customer_id, asset_name, order_side, size, price, status, create_date, time_in_force, expire_at " +
+            "FROM order_history WHERE customer_id = ? AND create_date BETWEEN ? AND ?";
+    private static final String ASSETS_SQL =
+            "SELECT id, customer_id, asset_name, size, usable_size FROM assets WHERE customer_id = ?";
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CUSTOMER_ID = new SerializedString("customerId");
+    private static final SerializedString ASSET_NAME = new SerializedString("assetName");
+    private static final SerializedString ORDER_SIDE = new SerializedString("orderSide");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CREATE_DATE = new SerializedString("createDate");
+    private static final SerializedString TIME_IN_FORCE = new SerializedString("timeInForce");
+    private static final SerializedString EXPIRE_AT = new SerializedString("expireAt");
+    private static final SerializedString USABLE_SIZE = new SerializedString("usableSize");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+    private final OrderArchiveService orderArchiveService;
+    
+    public ListResponseWriter(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              OrderArchiveService orderArchiveService,
+                              @Value("${orders.list.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jsonFactory = objectMapper.getFactory();
+        this.orderArchiveService = orderArchiveService;
+    }
+    
+    public void writeOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        writeOrders(ORDERS_SQL, customerId, startDate, endDate, out);
+    }
+    
+    /**
+     * Same as {@link #writeOrders}, with the live orders read from the {@code order_history} read model.
+     */
+    public void writeOrderHistory(Long customerId, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        writeOrders(ORDER_HISTORY_SQL, customerId, startDate, endDate, out);
+    }
+    
+    private void writeOrders(String sql, Long customerId, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            
+            char[] dateBuffer = new char[32];
+            IdList written = new IdList();
+            query(sql, rs -> {
+                long id = rs.getLong(1);
+                written.add(id);
+                writeOrderRow(generator, rs, id, dateBuffer);
+            }, customerId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+            
+            // Hot rows first, then the archive: an order archived in between shows up in both rather than in
+            // neither, and only its hot copy is written. Archived orders follow the hot rows, not merged by date
+            List<OrderResponse> archived = orderArchiveService.findArchivedOrders(customerId, startDate, endDate);
+            if (!archived.isEmpty()) {
+                long[] ids = written.sorted();
+                for (OrderResponse order : archived) {
+                    if (Arrays.binarySearch(ids, order.getId()) < 0) {
+                        writeOrder(generator, order, dateBuffer);
+                    }
+                }
+            }
+            
+            generator.writeEndArray();
+        }
+    }
+    
+    public void writeAssets(Long customerId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            query(ASSETS_SQL, rs -> {
+                generator.writeStartObject();
+                generator.writeFieldName(ID);
+                generator.writeNumber(rs.getLong(1));
+                generator.writeFieldName(CUSTOMER_ID);
+                generator.writeNumber(rs.getLong(2));
+                generator.writeFieldName(ASSET_NAME);
+                generator.writeString(rs.getString(3));
+                writeDecimal(generator, SIZE, rs.getBigDecimal(4));
+                writeDecimal(generator, USABLE_SIZE, rs.getBigDecimal(5));
+                generator.writeEndObject();
+            }, customerId);
+            generator.writeEndArray();
+        }
+    }
+    
+    private void writeOrderRow(JsonGenerator generator, ResultSet rs, long id, char[] dateBuffer) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(CUSTOMER_ID);
+        generator.writeNumber(rs.getLong(2));
+        writeString(generator, ASSET_NAME, rs.getString(3));
+        writeString(generator, ORDER_SIDE, rs.getString(4));
+        writeDecimal(generator, SIZE, rs.getBigDecimal(5));
+        writeDecimal(generator, PRICE, rs.getBigDecimal(6));
+        writeString(generator, STATUS, rs.getString(7));
+        writeDateTime(generator, CREATE_DATE, rs.getObject(8, LocalDateTime.class), dateBuffer);
+        writeString(generator, TIME_IN_FORCE, rs.getString(9));
+        writeDateTime(generator, EXPIRE_AT, rs.getObject(10, LocalDateTime.class), dateBuffer);
+        generator.writeEndObject();
+    }
+    
+    private void writeOrder(JsonGenerator generator, OrderResponse order, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(order.getId());
+        generator.writeFieldName(CUSTOMER_ID);
+        generator.writeNumber(order.getCustomerId());
+        writeString(generator, ASSET_NAME, order.getAssetName());
+        writeString(generator, ORDER_SIDE, order.getOrderSide() != null ? order.getOrderSide().name() : null);
+        writeDecimal(generator, SIZE, order.getSize());
+        writeDecimal(generator, PRICE, order.getPrice());
+        writeString(generator, STATUS, order.getStatus() != null ? order.getStatus().name() : null);
+        writeDateTime(generator, CREATE_DATE, order.getCreateDate(), dateBuffer);
+        writeString(generator, TIME_IN_FORCE, order.getTimeInForce() != null ? order.getTimeInForce().name() : null);
+        writeDateTime(generator, EXPIRE_AT, order.getExpireAt(), dateBuffer);
+        generator.writeEndObject();
+    }
+    
+    private void query(String sql, RowWriter rowWriter, Object... args) throws IOException {
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+    
+    private static void writeDecimal(JsonGenerator generator, SerializedString name, BigDecimal value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeNumber(value);
+    }
+    
+    private static void writeDateTime(JsonGenerator generator, SerializedString name, LocalDateTime value, char[] buffer) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } else {
+            generator.writeString(buffer, 0, formatDateTime(value, buffer));
+        }
+    }
+    
+    /**
+     * Formats like {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which Jackson uses for
+     * {@link LocalDateTime}: seconds always, fraction only as long as needed.
+     */
+    static int formatDateTime(LocalDateTime value, char[] buffer) {
+        writeDigits(buffer, 0, value.getYear(), 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+        
+        int nanos = value.getNano();
+        if (nanos > 0) {
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            buffer[length++] = '.';
+            writeDigits(buffer, length, nanos, digits);
+            length += digits;
+        }
+        return length;
+    }
+    
+    private static void writeDigits(char[] buffer, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+    
+    private static final class IdList {
+        
+        private long[] ids = new long[64];
+        private int size;
+        
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+        
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+}
@@ -0,0 +1,72 @@
+package com.brokerage.api.market;
+
+import com.brokerage.api.model.Symbols;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The tradable symbols, loaded from {@code market.instruments} at startup and numbered densely
+ * from 0, with TRY always first. In-memory tables index arrays by these ids instead of hashing
+ * asset name strings, and symbols outside the list are rejected before they reach the database.
+ */
+@Component
+@Slf4j
+public class InstrumentRegistry {
+
+    public static final String CASH = "TRY";
+    public static final int CASH_ID = 0;
+    public static final int UNKNOWN = -1;
+
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9.]{1," + Symbols.MAX_SYMBOL_LENGTH + "}");
+
+    private final String[] symbols;
+    private final Map<String, Integer> ids;
+
+    public InstrumentRegistry(@Value("${market.instruments:TRY,AAPL,GOOGL,MSFT,TSLA,AMZN,NVDA,META,NFLX}") List<String> configured) {
+        List<String> symbols = new ArrayList<>();
+        symbols.add(CASH);
+        Map<String, Integer> ids = new HashMap<>();
+        ids.put(CASH, CASH_ID);
+        for (String symbol : configured) {
+            symbol = symbol.strip();
+            if (!SYMBOL.matcher(symbol).matches()) {
+                throw new IllegalStateException("Invalid instrument symbol in market.instruments: '" + symbol + "'");
+            }
+            if (ids.putIfAbsent(symbol, symbols.size()) == null) {
+                symbols.add(symbol);
+            } else if (!symbol.equals(CASH)) {
+                throw new IllegalStateException("Duplicate instrument symbol in market.instruments: " + symbol);
+            }
+        }
+        this.symbols = symbols.toArray(String[]::new);
+        this.ids = Map.copyOf(ids);
+        log.info("Loaded {} instruments", this.symbols.length);
+    }
+
+    /**
+     * @return the id of the symbol, or {@link #UNKNOWN}
+     */
+    public int idOf(String symbol) {
+        Integer id = symbol != null ? ids.get(symbol) : null;
+        return id != null ? id : UNKNOWN;
+    }
+
+    public boolean isKnown(String symbol) {
+        return idOf(symbol) != UNKNOWN;
+    }
+
+    public String symbolOf(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+}
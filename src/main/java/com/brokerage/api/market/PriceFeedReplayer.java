@@ -0,0 +1,102 @@
+package com.brokerage.api.market;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Simulated market data: replays a local feed file into the {@link PriceTable}, enabled with
+ * {@code market.feed.enabled=true}. Each line is {@code SYMBOL,PRICE}; blank lines, lines
+ * starting with {@code #} and symbols outside the {@link InstrumentRegistry} are skipped. Ticks are applied {@code market.feed.tick-millis} apart,
+ * stamped with the replay time, and the file starts over at the end when {@code market.feed.loop}
+ * is set.
+ */
+@Component
+@ConditionalOnProperty(prefix = "market.feed", name = "enabled", havingValue = "true")
+@Slf4j
+public class PriceFeedReplayer {
+    
+    private final PriceTable priceTable;
+    private final Resource feed;
+    private final long tickMillis;
+    private final boolean loop;
+    private Thread thread;
+    
+    public PriceFeedReplayer(PriceTable priceTable,
+                             @Value("${market.feed.file:classpath:market/sample-feed.csv}") Resource feed,
+                             @Value("${market.feed.tick-millis:100}") long tickMillis,
+                             @Value("${market.feed.loop:true}") boolean loop) {
+        this.priceTable = priceTable;
+        this.feed = feed;
+        this.tickMillis = tickMillis;
+        this.loop = loop;
+    }
+    
+    @PostConstruct
+    public void start() {
+        thread = new Thread(this::run, "price-feed");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Replaying price feed {}", feed.getDescription());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        thread.interrupt();
+    }
+    
+    private void run() {
+        try {
+            do {
+                try (Reader reader = new InputStreamReader(feed.getInputStream(), StandardCharsets.UTF_8)) {
+                    replay(reader);
+                }
+            } while (loop);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Price feed {} could not be read", feed.getDescription(), e);
+        }
+    }
+    
+    /**
+     * Applies every tick of the feed to the price table.
+     *
+     * @return the number of ticks applied
+     */
+    int replay(Reader feed) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(feed);
+        int ticks = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            try {
+                priceTable.update(line.substring(0, comma).strip(), new BigDecimal(line.substring(comma + 1).strip()),
+                        System.currentTimeMillis());
+                ticks++;
+            } catch (RuntimeException e) {
+                log.warn("Skipping price feed line '{}': {}", line, e.getMessage());
+                continue;
+            }
+            if (tickMillis > 0) {
+                Thread.sleep(tickMillis);
+            }
+        }
+        return ticks;
+    }
+}
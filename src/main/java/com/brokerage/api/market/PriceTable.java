@@ -0,0 +1,84 @@
+package com.brokerage.api.market;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latest price per symbol, readable without locks.
+ * <p>
+ * Every instrument of the {@link InstrumentRegistry} has a fixed slot of one cache line in a
+ * shared {@link AtomicLongArray}, at its instrument id: a sequence word, the price as a long at
+ * 4 decimal places, and the tick timestamp. Slots are guarded seqlock-style: a writer makes the
+ * sequence odd, writes the fields and makes it even again; a reader retries while the sequence
+ * is odd or changed under it. Readers never write
+ * shared state, so valuing many portfolios against the table doesn't slow down the feed.
+ */
+@Component
+public class PriceTable {
+
+    public static final int SCALE = 4;
+
+    // Longs per slot, one 64-byte cache line so neighbouring symbols don't false-share
+    private static final int STRIDE = 8;
+    private static final int SEQUENCE = 0;
+    private static final int PRICE = 1;
+    private static final int TIMESTAMP = 2;
+
+    private final InstrumentRegistry instrumentRegistry;
+    private final AtomicLongArray cells;
+
+    public PriceTable(InstrumentRegistry instrumentRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
+        this.cells = new AtomicLongArray(instrumentRegistry.size() * STRIDE);
+    }
+
+    public void update(String symbol, BigDecimal price, long timestampMillis) {
+        int id = instrumentRegistry.idOf(symbol);
+        if (id == InstrumentRegistry.UNKNOWN) {
+            throw new IllegalArgumentException("Unknown instrument: " + symbol);
+        }
+        update(id, price, timestampMillis);
+    }
+
+    public void update(int instrumentId, BigDecimal price, long timestampMillis) {
+        int base = instrumentId * STRIDE;
+        long scaledPrice = price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+
+        long sequence;
+        do {
+            sequence = cells.get(base + SEQUENCE);
+        } while ((sequence & 1) != 0 || !cells.compareAndSet(base + SEQUENCE, sequence, sequence + 1));
+        cells.set(base + PRICE, scaledPrice);
+        cells.set(base + TIMESTAMP, timestampMillis);
+        cells.set(base + SEQUENCE, sequence + 2);
+    }
+
+    /**
+     * @return the latest price of the symbol, or {@code null} if it never ticked
+     */
+    public Quote get(String symbol) {
+        int id = instrumentRegistry.idOf(symbol);
+        return id != InstrumentRegistry.UNKNOWN ? get(id) : null;
+    }
+
+    public Quote get(int instrumentId) {
+        int base = instrumentId * STRIDE;
+        while (true) {
+            long sequence = cells.get(base + SEQUENCE);
+            if ((sequence & 1) == 0) {
+                long price = cells.get(base + PRICE);
+                long timestamp = cells.get(base + TIMESTAMP);
+                if (cells.get(base + SEQUENCE) == sequence) {
+                    return sequence == 0 ? null : new Quote(BigDecimal.valueOf(price, SCALE), timestamp);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public record Quote(BigDecimal price, long timestampMillis) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.brokerage.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A terminal order moved out of the hot {@code orders} table. Keeps the original order id,
+ * so archived and live orders never clash.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_customer_create_date", columnList = "customer_id, create_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
+    private String assetName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_side", nullable = false)
+    private OrderSide orderSide;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal size;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal price;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_in_force", nullable = false)
+    private TimeInForce timeInForce;
+    
+    @Column(name = "expire_at")
+    private LocalDateTime expireAt;
+    
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+}
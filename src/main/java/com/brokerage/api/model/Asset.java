@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_assets_customer_asset", columnNames = {"customer_id", "asset_name"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +23,7 @@ public class Asset {
     @Column(name = "customer_id", nullable = false)
     private Long customerId;
     
-    @Column(name = "asset_name", nullable = false)
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
     private String assetName;
     
     @Column(nullable = false, precision = 19, scale = 4)
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,11 +15,18 @@ import java.util.Collections;
 
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer implements UserDetails {
     
+    /**
+     * Second-level cache region; identity lookups on every request are served from it.
+     */
+    public static final String CACHE_REGION = "customers";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -9,7 +9,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_orders_customer_idempotency_key", columnNames = {"customer_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_orders_customer_create_date", columnList = "customer_id, create_date"),
+        @Index(name = "idx_orders_status_create_date", columnList = "status, create_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +27,7 @@ public class Order {
     @Column(name = "customer_id", nullable = false)
     private Long customerId;
     
-    @Column(name = "asset_name", nullable = false)
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
     private String assetName;
     
     @Enumerated(EnumType.STRING)
@@ -42,6 +47,20 @@ public class Order {
     @Column(name = "create_date", nullable = false)
     private LocalDateTime createDate;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_in_force", nullable = false)
+    private TimeInForce timeInForce = TimeInForce.GTC;
+    
+    @Column(name = "expire_at")
+    private LocalDateTime expireAt;
+    
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+    
+    // Terms the order was placed with, which retries of the keyed request are checked against; size and price can be amended
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", insertable = false, updatable = false)
     private Customer customer;
@@ -0,0 +1,58 @@
+package com.brokerage.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order as the order history read model sees it. Written only by
+ * {@link com.brokerage.api.history.OrderHistoryProjector} from committed order events, and laid out
+ * for one query: a customer's orders in a create date range.
+ */
+@Entity
+@Table(name = "order_history", indexes = {
+        @Index(name = "idx_order_history_customer_create_date", columnList = "customer_id, create_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryEntry {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
+    private String assetName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_side", nullable = false)
+    private OrderSide orderSide;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal size;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal price;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_in_force", nullable = false)
+    private TimeInForce timeInForce;
+    
+    @Column(name = "expire_at")
+    private LocalDateTime expireAt;
+}
@@ -3,5 +3,6 @@ package com.brokerage.api.model;
 public enum OrderStatus {
     PENDING,
     MATCHED,
-    CANCELED
+    CANCELED,
+    EXPIRED
 }
@@ -0,0 +1,49 @@
+package com.brokerage.api.model;
+
+import com.brokerage.api.event.OrderEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order state change waiting to be relayed downstream. Rows are inserted by
+ * {@link com.brokerage.api.outbox.OrderOutbox} in the transaction that made the change and deleted
+ * by {@link com.brokerage.api.outbox.OutboxRelay} once the sink has them.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private OrderEventType eventType;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    // Size before an AMENDED change
+    @Column(name = "previous_size", precision = 19, scale = 4)
+    private BigDecimal previousSize;
+    
+    // The order as it was after the change, as JSON
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.brokerage.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a sink has been fed from the outbox: the highest event id it has acknowledged and how
+ * many events it received in total. Updated in the transaction that deletes the delivered events.
+ */
+@Entity
+@Table(name = "outbox_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxWatermark {
+    
+    @Id
+    @Column(length = 64)
+    private String sink;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+    
+    @Column(nullable = false)
+    private long delivered;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.brokerage.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A matched order whose balance change has not been applied yet: the amount the customer's
+ * asset row grows by. Written in the matching transaction and deleted in the transaction that
+ * applies it, keyed by order id, so each match is settled exactly once.
+ */
+@Entity
+@Table(name = "settlement_journal")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementEntry {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
+    private String assetName;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+}
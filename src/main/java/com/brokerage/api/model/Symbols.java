@@ -0,0 +1,14 @@
+package com.brokerage.api.model;
+
+/**
+ * Limits on instrument symbols shared by the entities that store them and the
+ * {@link com.brokerage.api.market.InstrumentRegistry} that validates them.
+ */
+public final class Symbols {
+
+    /** Longest symbol accepted; asset name columns are sized to match. */
+    public static final int MAX_SYMBOL_LENGTH = 16;
+
+    private Symbols() {
+    }
+}
@@ -0,0 +1,7 @@
+package com.brokerage.api.model;
+
+public enum TimeInForce {
+    GTC, // good till canceled
+    DAY, // expires at the end of the current trading session
+    GTD  // good till the given expiry timestamp
+}
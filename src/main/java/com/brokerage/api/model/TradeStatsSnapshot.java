@@ -0,0 +1,61 @@
+package com.brokerage.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A closed trade statistics bucket of one asset, persisted by
+ * {@link com.brokerage.api.service.TradeStatisticsService}. In cluster mode every node writes the
+ * trades it matched, so a period may have one row per node.
+ */
+@Entity
+@Table(name = "trade_stats_snapshots", indexes = {
+        @Index(name = "idx_trade_stats_asset_bucket", columnList = "asset_name, bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeStatsSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "asset_name", nullable = false, length = Symbols.MAX_SYMBOL_LENGTH)
+    private String assetName;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "bucket_millis", nullable = false)
+    private long bucketMillis;
+    
+    @Column(nullable = false)
+    private long trades;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal volume;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal notional;
+    
+    @Column(precision = 19, scale = 4)
+    private BigDecimal vwap;
+    
+    @Column(name = "open_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal open;
+    
+    @Column(name = "high_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal high;
+    
+    @Column(name = "low_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal low;
+    
+    @Column(name = "close_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal close;
+}
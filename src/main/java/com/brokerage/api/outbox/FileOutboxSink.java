@@ -0,0 +1,80 @@
+package com.brokerage.api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each message as one JSON line to a local file and forces it to disk once per batch, so
+ * the cost of durability is paid per batch rather than per event.
+ */
+public class FileOutboxSink implements OutboxSink, Closeable {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+
+    public FileOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file:" + file.getFileName();
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(messages.size() * 256);
+        for (OutboxMessage message : messages) {
+            ObjectNode line = objectMapper.createObjectNode()
+                    .put("id", message.id())
+                    .put("type", message.type().name())
+                    .put("orderId", message.orderId())
+                    .put("customerId", message.customerId())
+                    .put("previousSize", message.previousSize())
+                    .put("createdAt", message.createdAt().toString());
+            // Stored as JSON already, no need to parse it again
+            line.putRawValue("order", new RawValue(message.payload()));
+            objectMapper.writeValue(lines, line);
+            lines.write('\n');
+        }
+
+        FileChannel out = channel();
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,30 @@
+package com.brokerage.api.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered messages in memory, for tests and local runs without a downstream system.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,118 @@
+package com.brokerage.api.outbox;
+
+import com.brokerage.api.event.OrderEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes every order event to the outbox table in the transaction that published it, so an event is
+ * stored if and only if the change it describes commits. The events of a transaction are collected
+ * and inserted as one JDBC batch just before it commits: a mass cancel or bulk match costs one round
+ * trip for its events, however many orders it touched.
+ */
+@Component
+@Slf4j
+public class OrderOutbox {
+
+    private static final String INSERT = "INSERT INTO order_outbox "
+            + "(event_type, order_id, customer_id, previous_size, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OrderOutbox(DataSource dataSource,
+                       ObjectMapper objectMapper,
+                       @Value("${orders.outbox.enabled:false}") boolean enabled) {
+        // Same DataSource as JPA, so inserts join the transaction's connection
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A plain listener: it runs inside the publishing transaction, not after it
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Object[] row = row(event);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(Collections.singletonList(row));
+            return;
+        }
+        pendingRows().add(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingRows() {
+        List<Object[]> rows = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (rows != null) {
+            return rows;
+        }
+        List<Object[]> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(OrderOutbox.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(OrderOutbox.this, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                insert(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OrderOutbox.this);
+            }
+        });
+        return created;
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+            log.debug("Wrote {} order events to the outbox", rows.size());
+        }
+    }
+
+    private Object[] row(OrderEvent event) {
+        try {
+            return new Object[]{
+                    event.getType().name(),
+                    event.getOrder().getId(),
+                    event.getCustomerId(),
+                    event.getPreviousSize(),
+                    objectMapper.writeValueAsString(event.getOrder()),
+                    Timestamp.valueOf(LocalDateTime.now())
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order " + event.getOrder().getId() + " could not be serialized for the outbox", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.brokerage.api.outbox;
+
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.model.OutboxEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order state change as handed to an {@link OutboxSink}. The id increases with each change
+ * written, but a change can be delivered again, so consumers should skip ids they have already seen.
+ */
+public record OutboxMessage(long id,
+                            OrderEventType type,
+                            Long orderId,
+                            Long customerId,
+                            BigDecimal previousSize,
+                            String payload,
+                            LocalDateTime createdAt) {
+
+    static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getOrderId(), event.getCustomerId(),
+                event.getPreviousSize(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,162 @@
+package com.brokerage.api.outbox;
+
+import com.brokerage.api.model.OutboxEvent;
+import com.brokerage.api.model.OutboxWatermark;
+import com.brokerage.api.repository.OutboxEventRepository;
+import com.brokerage.api.repository.OutboxWatermarkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the configured {@link OutboxSink}, oldest events first, a batch at a time.
+ * A batch is locked, delivered, deleted and added to the sink's watermark in one transaction: a
+ * failed delivery or a crash before that commit delivers the batch again, so every event reaches
+ * the sink at least once. The row locks make relays on cluster nodes sharing the database take
+ * turns instead of delivering the same batch, and the watermark is advanced with a single guarded
+ * update.
+ * <p>
+ * The outbox keeps only what is still undelivered rather than relaying everything above the
+ * watermark: ids are assigned at insert, so a transaction may commit a lower id after a higher one
+ * has already gone out, and a high-water mark alone would skip it.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxWatermarkRepository outboxWatermarkRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final AtomicLong watermark = new AtomicLong();
+    private boolean watermarkCreated;
+    private final Counter relayed;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxWatermarkRepository outboxWatermarkRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${orders.outbox.enabled:false}") boolean enabled,
+                       @Value("${orders.outbox.batch-size:1000}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxWatermarkRepository = outboxWatermarkRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("orders.outbox.relayed")
+                .description("Order events delivered to the outbox sink")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.failures = Counter.builder("orders.outbox.failures")
+                .description("Outbox batches the sink failed to accept")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.outbox.batch_size")
+                .description("Order events per delivery to the outbox sink")
+                .register(meterRegistry);
+        Gauge.builder("orders.outbox.watermark", watermark, AtomicLong::get)
+                .description("Highest outbox event id the sink has acknowledged")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox.relay-interval:200}")
+    public void tick() {
+        if (enabled) {
+            relayPending();
+        }
+    }
+
+    /**
+     * Delivers batches until the outbox is empty or the sink fails.
+     *
+     * @return events delivered
+     */
+    public synchronized int relayPending() {
+        if (!watermarkCreated) {
+            createWatermark();
+        }
+        int delivered = 0;
+        Integer count;
+        do {
+            try {
+                count = transactionTemplate.execute(this::relayBatch);
+            } catch (PessimisticLockingFailureException e) {
+                // Another node holds the oldest events and is delivering them
+                log.debug("Outbox events locked by another relay: {}", e.getMessage());
+                break;
+            }
+            if (count == null || count <= 0) {
+                break;
+            }
+            relayed.increment(count);
+            batchSizes.record(count);
+            delivered += count;
+        } while (count == batchSize);
+        return delivered;
+    }
+
+    /**
+     * Claims the oldest events, delivers them and deletes them in one transaction. The row locks keep
+     * relays on other nodes sharing the database off the same events until this one commits or rolls back.
+     *
+     * @return events delivered, or -1 when the sink failed
+     */
+    private int relayBatch(TransactionStatus status) {
+        List<OutboxEvent> batch = outboxEventRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> messages = batch.stream().map(OutboxMessage::from).toList();
+        try {
+            sink.deliver(messages);
+        } catch (IOException | RuntimeException e) {
+            // Left in the outbox and delivered again next time
+            status.setRollbackOnly();
+            failures.increment();
+            log.warn("Outbox sink {} failed to accept {} events: {}", sink.name(), messages.size(), e.getMessage());
+            return -1;
+        }
+
+        long highest = messages.stream().mapToLong(OutboxMessage::id).max().orElseThrow();
+        outboxEventRepository.deleteByIdIn(messages.stream().map(OutboxMessage::id).toList());
+        outboxWatermarkRepository.advance(sink.name(), highest, messages.size(), LocalDateTime.now());
+        watermark.accumulateAndGet(highest, Math::max);
+        log.debug("Relayed {} order events to {}, watermark {}", messages.size(), sink.name(), highest);
+        return messages.size();
+    }
+
+    private void createWatermark() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!outboxWatermarkRepository.existsById(sink.name())) {
+                    outboxWatermarkRepository.save(new OutboxWatermark(sink.name(), 0, 0, LocalDateTime.now()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox watermark for {} created by another node", sink.name());
+        }
+        watermarkCreated = true;
+    }
+}
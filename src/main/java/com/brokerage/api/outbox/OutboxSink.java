@@ -0,0 +1,22 @@
+package com.brokerage.api.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers order events, e.g. a message broker or the back office's
+ * import directory. Configured with {@code orders.outbox.sink}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Identifies the sink's watermark, so switching sinks starts a new one.
+     */
+    String name();
+
+    /**
+     * Delivers a batch in id order. Returning normally means the sink has kept every message;
+     * after an exception the whole batch is delivered again.
+     */
+    void deliver(List<OutboxMessage> messages) throws IOException;
+}
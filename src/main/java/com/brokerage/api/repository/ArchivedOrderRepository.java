@@ -0,0 +1,42 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    @Query("SELECT new com.brokerage.api.dto.OrderResponse(a.id, a.customerId, a.assetName, a.orderSide, a.size, a.price, " +
+           "a.status, a.createDate, a.timeInForce, a.expireAt) " +
+           "FROM ArchivedOrder a WHERE a.customerId = :customerId AND a.createDate BETWEEN :startDate AND :endDate")
+    List<OrderResponse> findResponsesByCustomerAndDateRange(@Param("customerId") Long customerId,
+                                                            @Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT MAX(a.createDate) FROM ArchivedOrder a")
+    LocalDateTime findLatestCreateDate();
+    
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.createDate < :cutoff ORDER BY a.customerId, a.createDate, a.id")
+    List<ArchivedOrder> findByCreateDateBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ArchivedOrder a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ArchivedOrder (id, customerId, assetName, orderSide, size, price, status, createDate, timeInForce, expireAt, idempotencyKey) " +
+           "SELECT o.id, o.customerId, o.assetName, o.orderSide, o.size, o.price, o.status, o.createDate, o.timeInForce, o.expireAt, o.idempotencyKey " +
+           "FROM Order o WHERE o.id IN :ids AND o.status IN :statuses")
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OrderStatus> statuses);
+}
@@ -1,11 +1,14 @@
 package com.brokerage.api.repository;
 
+import com.brokerage.api.dto.AssetResponse;
 import com.brokerage.api.model.Asset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +17,29 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
     
     List<Asset> findByCustomerId(Long customerId);
     
+    @Query("SELECT new com.brokerage.api.dto.AssetResponse(a.id, a.customerId, a.assetName, a.size, a.usableSize) " +
+           "FROM Asset a WHERE a.customerId = :customerId")
+    List<AssetResponse> findResponsesByCustomerId(@Param("customerId") Long customerId);
+    
     Optional<Asset> findByCustomerIdAndAssetName(Long customerId, String assetName);
     
+    <T> List<T> findByAssetNameNot(String assetName, Class<T> type);
+    
     @Query("SELECT a FROM Asset a WHERE a.customerId = :customerId AND a.assetName = :assetName")
     Optional<Asset> findAssetByCustomerAndName(@Param("customerId") Long customerId, @Param("assetName") String assetName);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Asset a SET a.size = a.size + :sizeDelta, a.usableSize = a.usableSize + :usableDelta " +
+           "WHERE a.customerId = :customerId AND a.assetName = :assetName")
+    int adjustBalances(@Param("customerId") Long customerId,
+                       @Param("assetName") String assetName,
+                       @Param("sizeDelta") BigDecimal sizeDelta,
+                       @Param("usableDelta") BigDecimal usableDelta);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Asset a SET a.usableSize = a.usableSize - :amount " +
+           "WHERE a.customerId = :customerId AND a.assetName = :assetName AND a.usableSize >= :amount")
+    int reserveUsable(@Param("customerId") Long customerId,
+                      @Param("assetName") String assetName,
+                      @Param("amount") BigDecimal amount);
 }
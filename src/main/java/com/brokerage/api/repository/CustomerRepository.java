@@ -1,7 +1,10 @@
 package com.brokerage.api.repository;
 
 import com.brokerage.api.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,7 +12,21 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
+    /**
+     * Query cache region of the username lookups. A cached result holds the customer's row, so a
+     * warm lookup runs no SQL; any write to the customers table invalidates it.
+     */
+    String USERNAME_QUERY_REGION = "customers-by-username";
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = USERNAME_QUERY_REGION)
+    })
     Optional<Customer> findByUsername(String username);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = USERNAME_QUERY_REGION)
+    })
     boolean existsByUsername(String username);
 }
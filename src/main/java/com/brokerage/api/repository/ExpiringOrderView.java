@@ -0,0 +1,13 @@
+package com.brokerage.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection used to rebuild the expiry schedule at startup.
+ */
+public interface ExpiringOrderView {
+    
+    Long getId();
+    
+    LocalDateTime getExpireAt();
+}
@@ -0,0 +1,19 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * Narrow projection used to rebuild pre-trade risk exposure from pending orders at startup.
+ */
+public interface OpenOrderView {
+    
+    Long getCustomerId();
+    
+    String getAssetName();
+    
+    OrderSide getOrderSide();
+    
+    BigDecimal getSize();
+}
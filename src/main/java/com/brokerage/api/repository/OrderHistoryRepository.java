@@ -0,0 +1,28 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.OrderHistoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface OrderHistoryRepository extends JpaRepository<OrderHistoryEntry, Long> {
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OrderHistoryEntry h")
+    int deleteAllEntries();
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OrderHistoryEntry h WHERE h.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO OrderHistoryEntry (orderId, customerId, assetName, orderSide, size, price, status, createDate, timeInForce, expireAt) " +
+           "SELECT o.id, o.customerId, o.assetName, o.orderSide, o.size, o.price, o.status, o.createDate, o.timeInForce, o.expireAt " +
+           "FROM Order o")
+    int copyAllFromOrders();
+}
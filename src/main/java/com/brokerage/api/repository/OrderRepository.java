@@ -1,14 +1,22 @@
 package com.brokerage.api.repository;
 
+import com.brokerage.api.dto.OrderResponse;
 import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -19,6 +27,49 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByStatus(OrderStatus status);
     
+    Optional<Order> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+    
+    <T> List<T> findByStatus(OrderStatus status, Class<T> type);
+    
+    <T> List<T> findByStatusAndExpireAtIsNotNull(OrderStatus status, Class<T> type);
+    
+    <T> List<T> findByStatusAndAssetName(OrderStatus status, String assetName, Class<T> type);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = :status ORDER BY o.id")
+    List<Order> findByIdInAndStatusForUpdate(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.brokerage.api.dto.OrderResponse(o.id, o.customerId, o.assetName, o.orderSide, o.size, o.price, " +
+           "o.status, o.createDate, o.timeInForce, o.expireAt) " +
+           "FROM Order o WHERE o.customerId = :customerId AND o.status = :status " +
+           "AND (:assetName IS NULL OR o.assetName = :assetName) AND (:orderSide IS NULL OR o.orderSide = :orderSide) ORDER BY o.id")
+    List<OrderResponse> findResponsesByCustomerAndStatusForUpdate(@Param("customerId") Long customerId,
+                                                                  @Param("status") OrderStatus status,
+                                                                  @Param("assetName") String assetName,
+                                                                  @Param("orderSide") OrderSide orderSide);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id IN :ids AND o.status = :currentStatus")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("currentStatus") OrderStatus currentStatus,
+                     @Param("newStatus") OrderStatus newStatus);
+    
+    // For rows already locked as PENDING: without a status predicate the planner looks them up by primary key
+    // instead of walking the status index across every pending order
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id IN :ids")
+    int updateStatusOfLocked(@Param("ids") Collection<Long> ids, @Param("newStatus") OrderStatus newStatus);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createDate < :cutoff ORDER BY o.id")
+    List<Long> findIdsByStatusInAndCreateDateBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                                                    @Param("cutoff") LocalDateTime cutoff,
+                                                    Pageable pageable);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.id IN :ids AND o.status IN :statuses")
+    int deleteByIdInAndStatusIn(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OrderStatus> statuses);
+    
     @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND o.createDate BETWEEN :startDate AND :endDate")
     List<Order> findOrdersByCustomerAndDateRange(@Param("customerId") Long customerId, 
                                                 @Param("startDate") LocalDateTime startDate, 
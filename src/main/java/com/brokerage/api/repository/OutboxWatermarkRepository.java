@@ -0,0 +1,21 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.OutboxWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxWatermarkRepository extends JpaRepository<OutboxWatermark, String> {
+    
+    // One statement, so concurrent relays neither lose counts nor move the watermark backwards
+    @Modifying
+    @Query("UPDATE OutboxWatermark w SET w.lastEventId = GREATEST(w.lastEventId, :eventId), " +
+           "w.delivered = w.delivered + :count, w.updatedAt = :now WHERE w.sink = :sink")
+    int advance(@Param("sink") String sink, @Param("eventId") long eventId, @Param("count") long count,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.brokerage.api.repository;
+
+/**
+ * Narrow projection used by sweeps over pending orders, so they don't have to
+ * hydrate full {@link com.brokerage.api.model.Order} entities.
+ */
+public interface PendingOrderView {
+    
+    Long getId();
+    
+    Long getCustomerId();
+}
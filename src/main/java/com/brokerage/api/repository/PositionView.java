@@ -0,0 +1,15 @@
+package com.brokerage.api.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Narrow projection of a customer's holding in one asset.
+ */
+public interface PositionView {
+    
+    Long getCustomerId();
+    
+    String getAssetName();
+    
+    BigDecimal getSize();
+}
@@ -0,0 +1,39 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.SettlementEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SettlementEntryRepository extends JpaRepository<SettlementEntry, Long> {
+    
+    // Same balance rules as immediate settlement: a buy adds the asset bought, a sell adds its proceeds in cash
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SettlementEntry (orderId, customerId, assetName, amount) " +
+           "SELECT o.id, o.customerId, " +
+           "CASE WHEN o.orderSide = com.brokerage.api.model.OrderSide.BUY THEN o.assetName ELSE :cashAsset END, " +
+           "CASE WHEN o.orderSide = com.brokerage.api.model.OrderSide.BUY THEN o.size ELSE o.size * o.price END " +
+           "FROM Order o WHERE o.id IN :ids AND o.status = :status")
+    int copyFromOrders(@Param("ids") Collection<Long> ids,
+                       @Param("status") OrderStatus status,
+                       @Param("cashAsset") String cashAsset);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.orderId AS orderId, e.customerId AS customerId, e.assetName AS assetName, e.amount AS amount " +
+           "FROM SettlementEntry e ORDER BY e.orderId")
+    List<SettlementEntryView> findBatchForUpdate(Pageable pageable);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SettlementEntry e WHERE e.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,18 @@
+package com.brokerage.api.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Narrow projection of a settlement journal entry, so settlement batches don't put thousands
+ * of entities into the persistence context.
+ */
+public interface SettlementEntryView {
+    
+    Long getOrderId();
+    
+    Long getCustomerId();
+    
+    String getAssetName();
+    
+    BigDecimal getAmount();
+}
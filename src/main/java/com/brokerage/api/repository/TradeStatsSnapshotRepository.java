@@ -0,0 +1,16 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.TradeStatsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TradeStatsSnapshotRepository extends JpaRepository<TradeStatsSnapshot, Long> {
+    
+    List<TradeStatsSnapshot> findByAssetNameAndBucketStartBetweenOrderByBucketStart(String assetName,
+                                                                                    LocalDateTime from,
+                                                                                    LocalDateTime to);
+}
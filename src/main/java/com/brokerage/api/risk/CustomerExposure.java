@@ -0,0 +1,75 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.model.OrderSide;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * What one customer has on: the number of pending orders and, per instrument id, the quantity
+ * held and the quantity of pending buys. Quantities are longs at the 4 decimal places of the
+ * orders table. Only the {@link RiskEngine} changes it, holding the object's monitor; rules read
+ * it under the same monitor.
+ */
+public class CustomerExposure {
+
+    public static final int SCALE = 4;
+
+    private final long[] positions;
+    private final long[] pendingBuys;
+    private int openOrders;
+
+    CustomerExposure(int instruments) {
+        this.positions = new long[instruments];
+        this.pendingBuys = new long[instruments];
+    }
+
+    public int openOrders() {
+        return openOrders;
+    }
+
+    public long position(int instrumentId) {
+        return positions[instrumentId];
+    }
+
+    public long pendingBuys(int instrumentId) {
+        return pendingBuys[instrumentId];
+    }
+
+    void orderOpened(int instrumentId, OrderSide side, long size) {
+        openOrders++;
+        if (side == OrderSide.BUY) {
+            pendingBuys[instrumentId] += size;
+        }
+    }
+
+    void orderClosed(int instrumentId, OrderSide side, long size, boolean filled) {
+        openOrders = Math.max(0, openOrders - 1);
+        if (side == OrderSide.BUY) {
+            pendingBuys[instrumentId] = Math.max(0, pendingBuys[instrumentId] - size);
+        }
+        if (filled) {
+            positions[instrumentId] += side == OrderSide.BUY ? size : -size;
+        }
+    }
+
+    /**
+     * Adds to the open order count and, for buys, to the pending quantity; negative values take
+     * away. Unlike {@link #orderClosed} nothing is clamped, so a change undone with the negated
+     * values restores the exposure exactly.
+     */
+    void orderChanged(int instrumentId, OrderSide side, int orders, long size) {
+        openOrders += orders;
+        if (side == OrderSide.BUY) {
+            pendingBuys[instrumentId] += size;
+        }
+    }
+
+    void positionLoaded(int instrumentId, long size) {
+        positions[instrumentId] = size;
+    }
+
+    public static long scaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,38 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the number of pending orders a customer can have at {@code orders.risk.max-open-orders}.
+ */
+@Component
+@Order(30)
+public class MaxOpenOrdersRule implements RiskRule {
+
+    private final int maxOpenOrders;
+
+    public MaxOpenOrdersRule(@Value("${orders.risk.max-open-orders:1000}") int maxOpenOrders) {
+        this.maxOpenOrders = maxOpenOrders;
+    }
+
+    @Override
+    public String name() {
+        return "max-open-orders";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return maxOpenOrders > 0;
+    }
+
+    @Override
+    public String check(CreateOrderRequest order, int instrumentId, CustomerExposure exposure) {
+        if (exposure.openOrders() >= maxOpenOrders) {
+            return "Customer already has " + exposure.openOrders() + " open orders, the limit is " + maxOpenOrders;
+        }
+        return null;
+    }
+}
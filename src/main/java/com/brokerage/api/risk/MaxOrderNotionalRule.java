@@ -0,0 +1,42 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Rejects orders whose size times price exceeds {@code orders.risk.max-order-notional} TRY.
+ */
+@Component
+@Order(10)
+public class MaxOrderNotionalRule implements RiskRule {
+
+    private final BigDecimal maxNotional;
+
+    public MaxOrderNotionalRule(@Value("${orders.risk.max-order-notional:1000000}") BigDecimal maxNotional) {
+        this.maxNotional = maxNotional;
+    }
+
+    @Override
+    public String name() {
+        return "max-order-notional";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return maxNotional.signum() > 0;
+    }
+
+    @Override
+    public String check(CreateOrderRequest order, int instrumentId, CustomerExposure exposure) {
+        BigDecimal notional = order.getSize().multiply(order.getPrice());
+        if (notional.compareTo(maxNotional) > 0) {
+            return "Order notional " + notional.stripTrailingZeros().toPlainString()
+                    + " exceeds the limit of " + maxNotional.toPlainString();
+        }
+        return null;
+    }
+}
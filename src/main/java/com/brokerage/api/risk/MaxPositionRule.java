@@ -0,0 +1,51 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.model.OrderSide;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Rejects buys that could take a customer's position in a symbol past
+ * {@code orders.risk.max-position} units, counting what is held plus all pending buys.
+ */
+@Component
+@Order(40)
+public class MaxPositionRule implements RiskRule {
+
+    private final BigDecimal maxPosition;
+    private final long maxPositionScaled;
+
+    public MaxPositionRule(@Value("${orders.risk.max-position:1000000}") BigDecimal maxPosition) {
+        this.maxPosition = maxPosition;
+        this.maxPositionScaled = CustomerExposure.scaled(maxPosition);
+    }
+
+    @Override
+    public String name() {
+        return "max-position";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return maxPosition.signum() > 0;
+    }
+
+    @Override
+    public String check(CreateOrderRequest order, int instrumentId, CustomerExposure exposure) {
+        if (order.getOrderSide() != OrderSide.BUY) {
+            return null;
+        }
+        long potential = exposure.position(instrumentId) + exposure.pendingBuys(instrumentId)
+                + CustomerExposure.scaled(order.getSize());
+        if (potential > maxPositionScaled) {
+            return "Position in " + order.getAssetName() + " could reach "
+                    + BigDecimal.valueOf(potential, CustomerExposure.SCALE).stripTrailingZeros().toPlainString()
+                    + ", the limit is " + maxPosition.toPlainString();
+        }
+        return null;
+    }
+}
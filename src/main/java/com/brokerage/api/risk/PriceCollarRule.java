@@ -0,0 +1,63 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.market.PriceTable;
+import com.brokerage.api.model.OrderSide;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Rejects buys priced more than {@code orders.risk.price-collar-percent} above the last market
+ * price and sells priced that far below it, the orders that would trade through the market at a
+ * bad price. Orders resting away from the market, and symbols without a price yet, pass.
+ */
+@Component
+@Order(20)
+public class PriceCollarRule implements RiskRule {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PriceTable priceTable;
+    private final BigDecimal percent;
+    private final BigDecimal upper;
+    private final BigDecimal lower;
+
+    public PriceCollarRule(PriceTable priceTable,
+                           @Value("${orders.risk.price-collar-percent:20}") BigDecimal percent) {
+        this.priceTable = priceTable;
+        this.percent = percent;
+        this.upper = HUNDRED.add(percent);
+        this.lower = HUNDRED.subtract(percent);
+    }
+
+    @Override
+    public String name() {
+        return "price-collar";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return percent.signum() > 0;
+    }
+
+    @Override
+    public String check(CreateOrderRequest order, int instrumentId, CustomerExposure exposure) {
+        PriceTable.Quote quote = priceTable.get(instrumentId);
+        if (quote == null) {
+            return null;
+        }
+        // Compare price * 100 with reference * (100 +/- percent) to stay clear of division
+        BigDecimal price = order.getPrice().multiply(HUNDRED);
+        boolean outside = order.getOrderSide() == OrderSide.BUY
+                ? price.compareTo(quote.price().multiply(upper)) > 0
+                : price.compareTo(quote.price().multiply(lower)) < 0;
+        if (outside) {
+            return "Price " + order.getPrice().toPlainString() + " is more than " + percent.toPlainString()
+                    + "% through the market price of " + quote.price().toPlainString();
+        }
+        return null;
+    }
+}
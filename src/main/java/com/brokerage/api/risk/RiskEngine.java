@@ -0,0 +1,201 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.exception.RiskLimitExceededException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OpenOrderView;
+import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.repository.PositionView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-trade risk checks on the order entry path. The enabled {@link RiskRule}s run as a chain
+ * against the customer's {@link CustomerExposure}, which lives in memory: it is rebuilt from
+ * pending orders and holdings at startup and then kept current from committed order events, so
+ * a check never touches the database. Each rule's latency and rejections are published as
+ * {@code orders.risk.rule} and {@code orders.risk.rejects}, tagged with the rule name.
+ * <p>
+ * Exposure reflects committed orders only, so orders of one customer that are in flight at the
+ * same time are checked against the same exposure and can overshoot a limit by their number.
+ */
+@Component
+@Slf4j
+public class RiskEngine {
+
+    private final InstrumentRegistry instrumentRegistry;
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final boolean enabled;
+    private final RiskRule[] rules;
+    private final RuleStats[] stats;
+    private final Map<Long, CustomerExposure> exposures = new ConcurrentHashMap<>();
+
+    public RiskEngine(List<RiskRule> rules,
+                      InstrumentRegistry instrumentRegistry,
+                      OrderRepository orderRepository,
+                      AssetRepository assetRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${orders.risk.enabled:true}") boolean enabled) {
+        this.instrumentRegistry = instrumentRegistry;
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.enabled = enabled;
+        this.rules = enabled ? rules.stream().filter(RiskRule::isEnabled).toArray(RiskRule[]::new) : new RiskRule[0];
+        this.stats = new RuleStats[this.rules.length];
+        for (int i = 0; i < this.rules.length; i++) {
+            RuleStats ruleStats = new RuleStats();
+            stats[i] = ruleStats;
+            FunctionTimer.builder("orders.risk.rule", ruleStats, s -> s.checks.sum(), s -> s.nanos.sum(), TimeUnit.NANOSECONDS)
+                    .tag("rule", this.rules[i].name())
+                    .description("Time spent in one pre-trade risk rule")
+                    .register(meterRegistry);
+            FunctionCounter.builder("orders.risk.rejects", ruleStats, s -> s.rejects.sum())
+                    .tag("rule", this.rules[i].name())
+                    .description("Orders rejected by one pre-trade risk rule")
+                    .register(meterRegistry);
+        }
+        log.info("Pre-trade risk rules: {}", Arrays.stream(this.rules).map(RiskRule::name).toList());
+    }
+
+    /**
+     * Runs the rule chain for a new order.
+     *
+     * @throws RiskLimitExceededException from the first rule that rejects it
+     */
+    public void check(CreateOrderRequest order) {
+        if (rules.length == 0) {
+            return;
+        }
+        int instrumentId = instrumentRegistry.idOf(order.getAssetName());
+        CustomerExposure exposure = exposure(order.getCustomerId());
+        synchronized (exposure) {
+            runChain(order, instrumentId, exposure);
+        }
+    }
+
+    /**
+     * Runs the rule chain for a pending order as it will be after an amendment. The order is
+     * already part of the exposure, so it is taken out at its current size while the rules look
+     * at its new terms.
+     *
+     * @throws RiskLimitExceededException from the first rule that rejects it
+     */
+    public void checkAmendment(CreateOrderRequest amended, BigDecimal currentSize) {
+        if (rules.length == 0) {
+            return;
+        }
+        int instrumentId = instrumentRegistry.idOf(amended.getAssetName());
+        CustomerExposure exposure = exposure(amended.getCustomerId());
+        long size = CustomerExposure.scaled(currentSize);
+        synchronized (exposure) {
+            exposure.orderChanged(instrumentId, amended.getOrderSide(), -1, -size);
+            try {
+                runChain(amended, instrumentId, exposure);
+            } finally {
+                exposure.orderChanged(instrumentId, amended.getOrderSide(), 1, size);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!enabled) {
+            return;
+        }
+        OrderResponse order = event.getOrder();
+        int instrumentId = instrumentRegistry.idOf(order.getAssetName());
+        if (instrumentId == InstrumentRegistry.UNKNOWN) {
+            return;
+        }
+        long size = CustomerExposure.scaled(order.getSize());
+        CustomerExposure exposure = exposure(order.getCustomerId());
+        synchronized (exposure) {
+            switch (event.getType()) {
+                case CREATED -> exposure.orderOpened(instrumentId, order.getOrderSide(), size);
+                case MATCHED -> exposure.orderClosed(instrumentId, order.getOrderSide(), size, true);
+                case CANCELED, EXPIRED -> exposure.orderClosed(instrumentId, order.getOrderSide(), size, false);
+                case AMENDED -> exposure.orderChanged(instrumentId, order.getOrderSide(), 0,
+                        size - CustomerExposure.scaled(event.getPreviousSize()));
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadExposure() {
+        if (!enabled) {
+            return;
+        }
+        for (PositionView position : assetRepository.findByAssetNameNot(InstrumentRegistry.CASH, PositionView.class)) {
+            int instrumentId = instrumentRegistry.idOf(position.getAssetName());
+            if (instrumentId != InstrumentRegistry.UNKNOWN) {
+                CustomerExposure exposure = exposure(position.getCustomerId());
+                synchronized (exposure) {
+                    exposure.positionLoaded(instrumentId, CustomerExposure.scaled(position.getSize()));
+                }
+            }
+        }
+        List<OpenOrderView> open = orderRepository.findByStatus(OrderStatus.PENDING, OpenOrderView.class);
+        for (OpenOrderView order : open) {
+            int instrumentId = instrumentRegistry.idOf(order.getAssetName());
+            if (instrumentId != InstrumentRegistry.UNKNOWN) {
+                CustomerExposure exposure = exposure(order.getCustomerId());
+                synchronized (exposure) {
+                    exposure.orderOpened(instrumentId, order.getOrderSide(), CustomerExposure.scaled(order.getSize()));
+                }
+            }
+        }
+        log.info("Loaded risk exposure of {} customers with {} open orders", exposures.size(), open.size());
+    }
+
+    private void runChain(CreateOrderRequest order, int instrumentId, CustomerExposure exposure) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rules.length; i++) {
+            String rejection = rules[i].check(order, instrumentId, exposure);
+            long end = System.nanoTime();
+            stats[i].record(end - start, rejection != null);
+            if (rejection != null) {
+                throw new RiskLimitExceededException(rules[i].name(), "Order rejected by " + rules[i].name() + ": " + rejection);
+            }
+            start = end;
+        }
+    }
+
+    CustomerExposure exposure(Long customerId) {
+        return exposures.computeIfAbsent(customerId, id -> new CustomerExposure(instrumentRegistry.size()));
+    }
+
+    private static final class RuleStats {
+
+        final LongAdder checks = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder rejects = new LongAdder();
+
+        void record(long elapsedNanos, boolean rejected) {
+            checks.increment();
+            nanos.add(elapsedNanos);
+            if (rejected) {
+                rejects.increment();
+            }
+        }
+    }
+}
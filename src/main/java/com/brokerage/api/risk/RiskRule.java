@@ -0,0 +1,28 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+
+/**
+ * One pre-trade check of the {@link RiskEngine} chain. Rules are Spring beans, evaluated in
+ * {@link org.springframework.core.annotation.Order} order; a new limit is a new bean. Checks run
+ * under the customer's exposure lock on the order entry path, so they must stay in memory.
+ */
+public interface RiskRule {
+
+    /**
+     * Name used in rejection messages and as the {@code rule} tag of the risk metrics.
+     */
+    String name();
+
+    /**
+     * Whether the rule is configured at all; disabled rules are left out of the chain.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @return {@code null} to accept the order, otherwise why it is rejected
+     */
+    String check(CreateOrderRequest order, int instrumentId, CustomerExposure exposure);
+}
@@ -1,14 +1,13 @@
 package com.brokerage.api.service;
 
 import com.brokerage.api.dto.AssetResponse;
-import com.brokerage.api.model.Asset;
 import com.brokerage.api.repository.AssetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,22 +16,14 @@ public class AssetService {
     
     private final AssetRepository assetRepository;
     
+    /**
+     * Reads the balances straight into responses: the query selects only the response columns
+     * and no entities are attached to the persistence context or dirty-checked.
+     */
+    @Transactional(readOnly = true)
     public List<AssetResponse> listAssets(Long customerId) {
         log.info("Listing assets for customer: {}", customerId);
         
-        List<Asset> assets = assetRepository.findByCustomerId(customerId);
-        return assets.stream()
-                .map(this::mapToAssetResponse)
-                .collect(Collectors.toList());
-    }
-    
-    private AssetResponse mapToAssetResponse(Asset asset) {
-        AssetResponse response = new AssetResponse();
-        response.setId(asset.getId());
-        response.setCustomerId(asset.getCustomerId());
-        response.setAssetName(asset.getAssetName());
-        response.setSize(asset.getSize());
-        response.setUsableSize(asset.getUsableSize());
-        return response;
+        return assetRepository.findResponsesByCustomerId(customerId);
     }
 }
@@ -0,0 +1,14 @@
+package com.brokerage.api.service;
+
+/**
+ * (customer, asset) key used to net balance changes before applying them as set-based updates.
+ * Ordered so that rows are always updated in the same order, avoiding lock cycles.
+ */
+record BalanceKey(Long customerId, String assetName) implements Comparable<BalanceKey> {
+    
+    @Override
+    public int compareTo(BalanceKey other) {
+        int byCustomer = customerId.compareTo(other.customerId);
+        return byCustomer != 0 ? byCustomer : assetName.compareTo(other.assetName);
+    }
+}
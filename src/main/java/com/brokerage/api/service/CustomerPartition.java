@@ -0,0 +1,200 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.bulkhead.WorkloadContext;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * One single-writer partition of {@link OrderPartitions}. Only the partition thread touches the cached
+ * balances, so funds are checked and reserved without locks; commands arrive through a lock-free queue
+ * and the placements accepted since the last write are persisted together. A customer's cached usable
+ * balances are an array indexed by {@link InstrumentRegistry} id.
+ */
+@Slf4j
+class CustomerPartition implements Runnable {
+
+    sealed interface Command permits PlaceOrder, Invalidate, InvalidateAll {
+    }
+
+    record PlaceOrder(Order order, String idempotencyKey, CompletableFuture<OrderResponse> result) implements Command {
+
+        String reservedAsset() {
+            return order.getOrderSide() == OrderSide.BUY ? InstrumentRegistry.CASH : order.getAssetName();
+        }
+
+        BigDecimal reservedAmount() {
+            return order.getOrderSide() == OrderSide.BUY ? order.getSize().multiply(order.getPrice()) : order.getSize();
+        }
+    }
+
+    record Invalidate(Long customerId) implements Command {
+    }
+
+    record InvalidateAll() implements Command {
+    }
+
+    private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Long, BigDecimal[]> usableBalances = new HashMap<>();
+    private final InstrumentRegistry instrumentRegistry;
+    private final Function<Long, BigDecimal[]> balanceLoader;
+    private final Function<List<PlaceOrder>, List<OrderResponse>> batchWriter;
+    private final int batchSize;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    CustomerPartition(int index,
+                      int batchSize,
+                      InstrumentRegistry instrumentRegistry,
+                      Function<Long, BigDecimal[]> balanceLoader,
+                      Function<List<PlaceOrder>, List<OrderResponse>> batchWriter) {
+        this.batchSize = batchSize;
+        this.instrumentRegistry = instrumentRegistry;
+        this.balanceLoader = balanceLoader;
+        this.batchWriter = batchWriter;
+        this.thread = new Thread(WorkloadContext.bound(Workload.ORDER_ENTRY, this), "order-partition-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void submit(Command command) {
+        queue.offer(command);
+        LockSupport.unpark(thread);
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        List<PlaceOrder> batch = new ArrayList<>(batchSize);
+        while (running) {
+            Command command = queue.poll();
+            if (command == null) {
+                // Everything queued so far has been reserved; persist it before going idle
+                flush(batch);
+                if (queue.isEmpty()) {
+                    LockSupport.park(this);
+                }
+            } else if (command instanceof PlaceOrder place) {
+                if (reserve(place)) {
+                    batch.add(place);
+                    if (batch.size() >= batchSize) {
+                        flush(batch);
+                    }
+                }
+            } else if (command instanceof Invalidate invalidate) {
+                // Unwritten reservations are not in the database yet, so write them before reloading
+                flush(batch);
+                usableBalances.remove(invalidate.customerId());
+            } else if (command instanceof InvalidateAll) {
+                flush(batch);
+                usableBalances.clear();
+            }
+        }
+
+        batch.forEach(place -> place.result().completeExceptionally(shuttingDown()));
+        Command command;
+        while ((command = queue.poll()) != null) {
+            if (command instanceof PlaceOrder place) {
+                place.result().completeExceptionally(shuttingDown());
+            }
+        }
+    }
+
+    private boolean reserve(PlaceOrder place) {
+        Order order = place.order();
+        try {
+            BigDecimal[] usable = usableBalances.computeIfAbsent(order.getCustomerId(), balanceLoader);
+            int instrumentId = instrumentRegistry.idOf(place.reservedAsset());
+            BigDecimal available = instrumentId != InstrumentRegistry.UNKNOWN ? usable[instrumentId] : null;
+            BigDecimal required = place.reservedAmount();
+            if (available == null) {
+                throw new InvalidOrderException(order.getOrderSide() == OrderSide.BUY
+                        ? "TRY asset not found for customer"
+                        : "Asset not found: " + order.getAssetName());
+            }
+            if (available.compareTo(required) < 0) {
+                throw new InsufficientFundsException((order.getOrderSide() == OrderSide.BUY
+                        ? "Insufficient TRY balance. Required: "
+                        : "Insufficient asset balance. Required: ") + required + ", Available: " + available);
+            }
+            usable[instrumentId] = available.subtract(required);
+            return true;
+        } catch (RuntimeException e) {
+            place.result().completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private void flush(List<PlaceOrder> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            complete(batch, batchWriter.apply(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                usableBalances.remove(batch.get(0).order().getCustomerId());
+                batch.get(0).result().completeExceptionally(e);
+            } else {
+                // One bad order (e.g. a duplicate idempotency key) fails the whole batch; retry them one by one
+                log.warn("Order batch of {} failed, writing orders individually: {}", batch.size(), e.getMessage());
+                writeIndividually(batch);
+            }
+        }
+        batch.clear();
+    }
+
+    private void writeIndividually(List<PlaceOrder> batch) {
+        batch.forEach(place -> usableBalances.remove(place.order().getCustomerId()));
+        for (PlaceOrder place : batch) {
+            // The rolled back insert may have assigned an id
+            place.order().setId(null);
+            if (!reserve(place)) {
+                continue;
+            }
+            try {
+                complete(List.of(place), batchWriter.apply(List.of(place)));
+            } catch (RuntimeException e) {
+                usableBalances.remove(place.order().getCustomerId());
+                place.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void complete(List<PlaceOrder> batch, List<OrderResponse> responses) {
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+
+    private static IllegalStateException shuttingDown() {
+        return new IllegalStateException("Order partition is shutting down");
+    }
+}
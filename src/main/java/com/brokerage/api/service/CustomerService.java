@@ -23,12 +23,7 @@ public class CustomerService {
     public LoginResponse login(LoginRequest request) {
         log.info("Login attempt for user: {}", request.getUsername());
         
-        Customer customer = customerRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new AuthenticationException("Invalid username or password"));
-        
-        if (!passwordEncoder.matches(request.getPassword(), customer.getPassword())) {
-            throw new AuthenticationException("Invalid username or password");
-        }
+        Customer customer = authenticate(request.getUsername(), request.getPassword());
         
         String token = jwtService.generateToken(customer.getUsername(), customer.isAdmin());
         
@@ -37,6 +32,16 @@ public class CustomerService {
         return new LoginResponse(token, customer.getUsername(), customer.isAdmin(), "Login successful");
     }
     
+    public Customer authenticate(String username, String password) {
+        Customer customer = customerRepository.findByUsername(username)
+                .orElseThrow(() -> new AuthenticationException("Invalid username or password"));
+        
+        if (!passwordEncoder.matches(password, customer.getPassword())) {
+            throw new AuthenticationException("Invalid username or password");
+        }
+        return customer;
+    }
+    
     public Customer getCustomerById(Long id) {
         return customerRepository.findById(id)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + id));
@@ -0,0 +1,92 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited in-memory index of idempotency keys to the order they created.
+ * It only short-circuits replays; the unique (customer_id, idempotency_key) column on
+ * the orders table stays the source of truth and covers restarts and evictions.
+ */
+@Component
+public class IdempotencyStore {
+    
+    private final int maxEntries;
+    private final long ttlMillis;
+    
+    // Insertion ordered, so the eldest entry is always the first to expire
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    
+    public IdempotencyStore(@Value("${orders.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${orders.idempotency.ttl:86400000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    public synchronized Optional<OrderResponse> get(Long customerId, String idempotencyKey) {
+        String key = key(customerId, idempotencyKey);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.response);
+    }
+    
+    public synchronized void put(Long customerId, String idempotencyKey, OrderResponse response) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        entries.put(key(customerId, idempotencyKey), new Entry(response, now + ttlMillis));
+        if (entries.size() > maxEntries) {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+    
+    /**
+     * Remembers the result once the surrounding transaction commits, so a rolled back
+     * order is never replayed.
+     */
+    public void putAfterCommit(Long customerId, String idempotencyKey, OrderResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(customerId, idempotencyKey, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(customerId, idempotencyKey, response);
+            }
+        });
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt < now) {
+            iterator.remove();
+        }
+    }
+    
+    private static String key(Long customerId, String idempotencyKey) {
+        return customerId + ":" + idempotencyKey;
+    }
+    
+    private record Entry(OrderResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.archive.OrderSegmentStore;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.history.OrderHistoryProjector;
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.ArchivedOrderRepository;
+import com.brokerage.api.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@code orders} table down to the working set. Terminal orders older than the
+ * retention period are moved to {@code orders_archive} in background batches, and archived
+ * orders older than the segment age are compacted further into columnar
+ * {@link OrderSegmentStore} files. Reads for a date range only touch the archive when the
+ * range reaches back into archived history.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+    
+    static final List<OrderStatus> TERMINAL_STATUSES = List.of(OrderStatus.MATCHED, OrderStatus.CANCELED, OrderStatus.EXPIRED);
+    
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderSegmentStore segmentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderHistoryProjector orderHistoryProjector;
+    private final int retentionDays;
+    private final int segmentAfterDays;
+    private final int batchSize;
+    
+    // Upper bound on the create date of anything in the archive, null while it is empty
+    private volatile LocalDateTime archivedUntil;
+    
+    public OrderArchiveService(OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               OrderSegmentStore segmentStore,
+                               TransactionTemplate transactionTemplate,
+                               OrderHistoryProjector orderHistoryProjector,
+                               @Value("${orders.archive.retention-days:30}") int retentionDays,
+                               @Value("${orders.archive.segments.after-days:365}") int segmentAfterDays,
+                               @Value("${orders.archive.batch-size:1000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.segmentStore = segmentStore;
+        this.transactionTemplate = transactionTemplate;
+        this.orderHistoryProjector = orderHistoryProjector;
+        this.retentionDays = retentionDays;
+        this.segmentAfterDays = segmentAfterDays;
+        this.batchSize = batchSize;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWatermark() {
+        LocalDateTime latestArchived = archivedOrderRepository.findLatestCreateDate();
+        LocalDateTime latestSegmented = segmentStore.findLatestMonth()
+                .map(month -> month.plusMonths(1).atDay(1).atStartOfDay())
+                .orElse(null);
+        archivedUntil = Stream.of(latestArchived, latestSegmented)
+                .filter(date -> date != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        log.info("Order archive holds orders created until: {}", archivedUntil);
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.archive.interval:3600000}",
+               initialDelayString = "${orders.archive.interval:3600000}")
+    public void archive() {
+        LocalDateTime now = LocalDateTime.now();
+        archiveOrdersBefore(now.minusDays(retentionDays));
+        compactOrdersBefore(now.minusDays(segmentAfterDays));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<OrderResponse> findArchivedOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime until = archivedUntil;
+        if (until == null || startDate.isAfter(until)) {
+            return List.of();
+        }
+        // Archive table first, then segments: compaction writes a segment before deleting its rows
+        return Stream.concat(
+                        archivedOrderRepository.findResponsesByCustomerAndDateRange(customerId, startDate, endDate).stream(),
+                        segmentStore.read(customerId, startDate, endDate).stream().map(OrderResponse::from))
+                .collect(Collectors.toList());
+    }
+    
+    synchronized int archiveOrdersBefore(LocalDateTime cutoff) {
+        // Raise the watermark before rows move, so a concurrent read never skips the archive
+        // for a row that has already left the hot table
+        if (archivedUntil == null || archivedUntil.isBefore(cutoff)) {
+            archivedUntil = cutoff;
+        }
+        
+        long start = System.currentTimeMillis();
+        int archived = 0;
+        Integer count;
+        do {
+            count = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += count != null ? count : 0;
+        } while (count != null && count > 0);
+        
+        if (archived > 0) {
+            log.info("Archived {} orders created before {} in {} ms", archived, cutoff, System.currentTimeMillis() - start);
+        }
+        return archived;
+    }
+    
+    synchronized int compactOrdersBefore(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        int compacted = 0;
+        Integer count;
+        do {
+            count = transactionTemplate.execute(status -> compactBatch(cutoff));
+            compacted += count != null ? count : 0;
+        } while (count != null && count > 0);
+        
+        if (compacted > 0) {
+            log.info("Compacted {} archived orders created before {} into segments in {} ms", compacted, cutoff, System.currentTimeMillis() - start);
+        }
+        return compacted;
+    }
+    
+    private int compactBatch(LocalDateTime cutoff) {
+        List<ArchivedOrder> orders = archivedOrderRepository.findByCreateDateBefore(cutoff, PageRequest.of(0, batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        
+        // Segments are written before the rows are deleted; a failed batch leaves duplicates, which the store merges by id
+        Map<Long, Map<YearMonth, List<ArchivedOrder>>> segments = orders.stream()
+                .collect(Collectors.groupingBy(ArchivedOrder::getCustomerId, TreeMap::new,
+                        Collectors.groupingBy(order -> YearMonth.from(order.getCreateDate()), TreeMap::new, Collectors.toList())));
+        segments.forEach((customerId, months) -> months.forEach((month, rows) -> segmentStore.write(customerId, month, rows)));
+        
+        return archivedOrderRepository.deleteByIdIn(orders.stream().map(ArchivedOrder::getId).collect(Collectors.toList()));
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findIdsByStatusInAndCreateDateBefore(TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        int copied = archivedOrderRepository.copyFromOrders(ids, TERMINAL_STATUSES);
+        int deleted = orderRepository.deleteByIdInAndStatusIn(ids, TERMINAL_STATUSES);
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " orders but removed " + deleted + " from the orders table");
+        }
+        orderHistoryProjector.forget(ids);
+        return deleted;
+    }
+}
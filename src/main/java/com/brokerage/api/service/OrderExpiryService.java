@@ -0,0 +1,159 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.expiry.HierarchicalTimingWheel;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.ExpiringOrderView;
+import com.brokerage.api.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Expires DAY and GTD orders. Deadlines live in an in-memory {@link HierarchicalTimingWheel}
+ * rebuilt from the orders table at startup and fed by new orders, so the table is never
+ * polled. Due orders are expired in batches: one guarded status update per batch and
+ * one reservation release per (customer, asset).
+ */
+@Service
+@Slf4j
+public class OrderExpiryService {
+    
+    private static final String TRY_ASSET = "TRY";
+    
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final HierarchicalTimingWheel wheel;
+    
+    // Schedules from request threads, handed to the wheel on the next tick
+    private final Queue<long[]> incoming = new ConcurrentLinkedQueue<>();
+    
+    public OrderExpiryService(OrderRepository orderRepository,
+                              AssetRepository assetRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${orders.expiry.tick-millis:1000}") long tickMillis,
+                              @Value("${orders.expiry.wheel-size:256}") int wheelSize,
+                              @Value("${orders.expiry.levels:4}") int levels,
+                              @Value("${orders.expiry.batch-size:1000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel(tickMillis, wheelSize, levels, System.currentTimeMillis());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingExpiries() {
+        List<ExpiringOrderView> pending = orderRepository.findByStatusAndExpireAtIsNotNull(OrderStatus.PENDING, ExpiringOrderView.class);
+        pending.forEach(view -> schedule(view.getId(), view.getExpireAt()));
+        log.info("Scheduled expiry for {} pending orders", pending.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        OrderResponse order = event.getOrder();
+        if (event.getType() == OrderEventType.CREATED && order.getExpireAt() != null) {
+            schedule(order.getId(), order.getExpireAt());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.expiry.tick-millis:1000}")
+    public void tick() {
+        expireDueOrders(System.currentTimeMillis());
+    }
+    
+    synchronized int expireDueOrders(long nowMillis) {
+        long[] entry;
+        while ((entry = incoming.poll()) != null) {
+            wheel.schedule(entry[0], entry[1]);
+        }
+        
+        List<Long> due = new ArrayList<>();
+        wheel.advance(nowMillis, due::add);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        
+        long start = System.currentTimeMillis();
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            Integer count = transactionTemplate.execute(status -> expireBatch(batch));
+            expired += count != null ? count : 0;
+        }
+        log.info("Expired {} of {} due orders in {} ms", expired, due.size(), System.currentTimeMillis() - start);
+        return expired;
+    }
+    
+    private int expireBatch(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        // Orders that were matched or canceled in the meantime simply aren't PENDING any more
+        List<Order> orders = new ArrayList<>();
+        for (Order order : orderRepository.findByIdInAndStatusForUpdate(ids, OrderStatus.PENDING)) {
+            if (order.getExpireAt() == null) {
+                continue;
+            }
+            if (order.getExpireAt().isAfter(now)) {
+                // Expiry was moved since it was scheduled
+                schedule(order.getId(), order.getExpireAt());
+            } else {
+                orders.add(order);
+            }
+        }
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        
+        orderRepository.updateStatus(orders.stream().map(Order::getId).collect(Collectors.toList()),
+                OrderStatus.PENDING, OrderStatus.EXPIRED);
+        
+        // Release the reservations of the whole batch, netted per (customer, asset)
+        Map<BalanceKey, BigDecimal> releases = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getOrderSide() == OrderSide.BUY) {
+                releases.merge(new BalanceKey(order.getCustomerId(), TRY_ASSET), order.getSize().multiply(order.getPrice()), BigDecimal::add);
+            } else {
+                releases.merge(new BalanceKey(order.getCustomerId(), order.getAssetName()), order.getSize(), BigDecimal::add);
+            }
+        }
+        releases.forEach((key, amount) -> assetRepository.adjustBalances(key.customerId(), key.assetName(), BigDecimal.ZERO, amount));
+        
+        for (Order order : orders) {
+            OrderResponse response = OrderResponse.from(order);
+            response.setStatus(OrderStatus.EXPIRED);
+            eventPublisher.publishEvent(new OrderEvent(OrderEventType.EXPIRED, response));
+        }
+        return orders.size();
+    }
+    
+    private void schedule(Long orderId, LocalDateTime expireAt) {
+        incoming.add(new long[] {orderId, expireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()});
+    }
+}
@@ -0,0 +1,323 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.bulkhead.WorkloadContext;
+import com.brokerage.api.dto.OrderIntakeResponse;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.BulkheadFullException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake. Orders that passed the in-memory checks wait in a bounded queue while one
+ * consumer thread writes them in micro-batches: every order still gets its own guarded reservation, but a
+ * batch shares one connection and one commit. With customer partitions enabled the consumer hands orders
+ * to them instead, and they do the group commit. The outcome of each order is kept by its intake reference
+ * for a while so the client can poll for it.
+ */
+@Service
+@Slf4j
+public class OrderIntakePipeline implements Runnable {
+
+    record Accepted(Order order, String reference, long acceptedAt) {
+
+        String reservedAsset() {
+            return order.getOrderSide() == OrderSide.BUY ? InstrumentRegistry.CASH : order.getAssetName();
+        }
+
+        BigDecimal reservedAmount() {
+            return order.getOrderSide() == OrderSide.BUY ? order.getSize().multiply(order.getPrice()) : order.getSize();
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPartitions orderPartitions;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxStatuses;
+    private final long statusTtlMillis;
+    private final BlockingQueue<Accepted> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Insertion ordered, so the eldest status is always the first to expire
+    private final LinkedHashMap<String, Status> statuses = new LinkedHashMap<>();
+
+    private final DistributionSummary batchSizes;
+    private final Timer latency;
+    private final Counter placed;
+    private final Counter rejected;
+
+    public OrderIntakePipeline(OrderRepository orderRepository,
+                               AssetRepository assetRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               IdempotencyStore idempotencyStore,
+                               TransactionTemplate transactionTemplate,
+                               OrderPartitions orderPartitions,
+                               MeterRegistry meterRegistry,
+                               @Value("${orders.intake.async.enabled:false}") boolean enabled,
+                               @Value("${orders.intake.async.capacity:10000}") int capacity,
+                               @Value("${orders.intake.async.batch-size:256}") int batchSize,
+                               @Value("${orders.intake.async.status-max-entries:100000}") int maxStatuses,
+                               @Value("${orders.intake.async.status-ttl:600000}") long statusTtlMillis) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyStore = idempotencyStore;
+        this.transactionTemplate = transactionTemplate;
+        this.orderPartitions = orderPartitions;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxStatuses = maxStatuses;
+        this.statusTtlMillis = statusTtlMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(WorkloadContext.bound(Workload.ORDER_ENTRY, this), "order-intake");
+        this.thread.setDaemon(true);
+
+        Gauge.builder("orders.intake.queue_depth", queue, BlockingQueue::size)
+                .description("Accepted orders waiting to be written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.intake.batch_size")
+                .description("Orders taken off the intake queue per write")
+                .register(meterRegistry);
+        this.latency = Timer.builder("orders.intake.latency")
+                .description("Time from acceptance to the order being placed or rejected")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.placed = Counter.builder("orders.intake.outcomes").tag("outcome", "placed").register(meterRegistry);
+        this.rejected = Counter.builder("orders.intake.outcomes").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            thread.start();
+            log.info("Asynchronous order intake enabled, queue capacity {}", queue.remainingCapacity());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread.isAlive()) {
+            // Write what was already acknowledged before going down
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a checked order for writing. Accepting the same reference again while it is queued or placed
+     * returns its current status instead of queueing it twice.
+     *
+     * @throws BulkheadFullException when the queue is full
+     */
+    public OrderIntakeResponse submit(Order order, String reference) {
+        Long customerId = order.getCustomerId();
+        synchronized (statuses) {
+            Status existing = current(customerId, reference);
+            if (existing != null && existing.response().getStatus() != OrderIntakeResponse.Status.REJECTED) {
+                return existing.response();
+            }
+            if (!queue.offer(new Accepted(order, reference, System.nanoTime()))) {
+                throw new BulkheadFullException("async order intake");
+            }
+            return record(customerId, OrderIntakeResponse.accepted(reference));
+        }
+    }
+
+    /**
+     * Status of an order accepted here recently, if it is still remembered.
+     */
+    public Optional<OrderIntakeResponse> status(Long customerId, String reference) {
+        synchronized (statuses) {
+            return Optional.ofNullable(current(customerId, reference)).map(Status::response);
+        }
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        List<Accepted> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Accepted first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+                if (orderPartitions.isEnabled()) {
+                    batch.forEach(this::handOff);
+                } else {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake batch of {} failed", batch.size(), e);
+                batch.forEach(accepted -> resolve(accepted, OrderIntakeResponse.rejected(accepted.reference(), e.getMessage())));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void handOff(Accepted accepted) {
+        orderPartitions.placeAsync(accepted.order(), accepted.reference()).whenComplete((response, error) ->
+                resolve(accepted, error == null
+                        ? OrderIntakeResponse.placed(accepted.reference(), response)
+                        : OrderIntakeResponse.rejected(accepted.reference(), cause(error).getMessage())));
+    }
+
+    private void writeBatch(List<Accepted> batch) {
+        List<OrderIntakeResponse> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            // One bad order (e.g. a reference already used by a synchronous request) fails the whole batch
+            log.warn("Order intake batch of {} failed, writing orders individually: {}", batch.size(), e.getMessage());
+            outcomes = new ArrayList<>(batch.size());
+            for (Accepted accepted : batch) {
+                // The rolled back insert may have assigned an id
+                accepted.order().setId(null);
+                outcomes.add(writeIndividually(accepted));
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            resolve(batch.get(i), outcomes.get(i));
+        }
+        log.debug("Wrote intake batch of {} orders", batch.size());
+    }
+
+    private OrderIntakeResponse writeIndividually(Accepted accepted) {
+        try {
+            return transactionTemplate.execute(status -> write(List.of(accepted)).get(0));
+        } catch (DataIntegrityViolationException e) {
+            return OrderIntakeResponse.rejected(accepted.reference(),
+                    "An order with idempotency key " + accepted.reference() + " already exists");
+        } catch (RuntimeException e) {
+            return OrderIntakeResponse.rejected(accepted.reference(), e.getMessage());
+        }
+    }
+
+    private List<OrderIntakeResponse> write(List<Accepted> batch) {
+        OrderIntakeResponse[] outcomes = new OrderIntakeResponse[batch.size()];
+        // Reservations first: each update flushes the session, which stays empty until the inserts
+        for (int i = 0; i < batch.size(); i++) {
+            Accepted accepted = batch.get(i);
+            // Guarded, so an order the customer can no longer afford is rejected on its own
+            if (assetRepository.reserveUsable(accepted.order().getCustomerId(), accepted.reservedAsset(), accepted.reservedAmount()) == 0) {
+                outcomes[i] = OrderIntakeResponse.rejected(accepted.reference(),
+                        "Insufficient " + accepted.reservedAsset() + " balance to reserve " + accepted.reservedAmount());
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] == null) {
+                Accepted accepted = batch.get(i);
+                Order saved = orderRepository.save(accepted.order());
+                OrderResponse response = OrderResponse.from(saved);
+                idempotencyStore.putAfterCommit(saved.getCustomerId(), accepted.reference(), response);
+                eventPublisher.publishEvent(new OrderEvent(OrderEventType.CREATED, response));
+                outcomes[i] = OrderIntakeResponse.placed(accepted.reference(), response);
+            }
+        }
+        return List.of(outcomes);
+    }
+
+    private void resolve(Accepted accepted, OrderIntakeResponse outcome) {
+        latency.record(System.nanoTime() - accepted.acceptedAt(), TimeUnit.NANOSECONDS);
+        (outcome.getStatus() == OrderIntakeResponse.Status.PLACED ? placed : rejected).increment();
+        synchronized (statuses) {
+            record(accepted.order().getCustomerId(), outcome);
+        }
+    }
+
+    private OrderIntakeResponse record(Long customerId, OrderIntakeResponse response) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        String key = key(customerId, response.getReference());
+        if (response.getStatus() == OrderIntakeResponse.Status.ACCEPTED) {
+            statuses.remove(key);
+        }
+        Status previous = statuses.get(key);
+        // Keeps its place, so it still expires relative to when it was accepted
+        statuses.put(key, new Status(response, previous != null ? previous.expiresAt() : now + statusTtlMillis));
+        if (statuses.size() > maxStatuses) {
+            Iterator<Map.Entry<String, Status>> eldest = statuses.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return response;
+    }
+
+    private Status current(Long customerId, String reference) {
+        String key = key(customerId, reference);
+        Status status = statuses.get(key);
+        if (status != null && status.expiresAt() < System.currentTimeMillis()) {
+            statuses.remove(key);
+            return null;
+        }
+        return status;
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Status> iterator = statuses.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() < now) {
+            iterator.remove();
+        }
+    }
+
+    private static Throwable cause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String key(Long customerId, String reference) {
+        return customerId + ":" + reference;
+    }
+
+    private record Status(OrderIntakeResponse response, long expiresAt) {
+    }
+}
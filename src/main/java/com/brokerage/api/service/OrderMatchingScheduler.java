@@ -0,0 +1,27 @@
+package com.brokerage.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically matches every pending order. Disabled by default; turn it on with
+ * {@code orders.matching.scheduler.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.matching.scheduler", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderMatchingScheduler {
+    
+    private final OrderMatchingService orderMatchingService;
+    
+    @Scheduled(fixedDelayString = "${orders.matching.scheduler.interval:60000}",
+               initialDelayString = "${orders.matching.scheduler.interval:60000}")
+    public void sweepPendingOrders() {
+        log.debug("Running scheduled sweep of pending orders");
+        orderMatchingService.matchPendingOrders(null);
+    }
+}
@@ -0,0 +1,192 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.bulkhead.WorkloadContext;
+import com.brokerage.api.dto.BulkMatchResponse;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.repository.PendingOrderView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Matches many orders at once. Orders are settled in chunks, one transaction per chunk,
+ * with the balance changes of a chunk netted per (customer, asset) and applied as
+ * set-based updates. Sweeps over all pending orders are split by customer so that
+ * parallel chunks never touch the same asset rows.
+ */
+@Service
+@Slf4j
+public class OrderMatchingService {
+
+    private static final String TRY_ASSET = "TRY";
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+    private final SettlementService settlementService;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public OrderMatchingService(OrderRepository orderRepository,
+                                AssetRepository assetRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                InstrumentRegistry instrumentRegistry,
+                                SettlementService settlementService,
+                                @Value("${orders.matching.chunk-size:500}") int chunkSize,
+                                @Value("${orders.matching.parallelism:4}") int parallelism) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.instrumentRegistry = instrumentRegistry;
+        this.settlementService = settlementService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(WorkloadContext.bound(Workload.ADMIN, runnable), "order-matching");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkMatchResponse matchOrders(Collection<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new InvalidOrderException("At least one order ID is required");
+        }
+        log.info("Bulk matching {} orders", orderIds.size());
+
+        long start = System.currentTimeMillis();
+        List<Long> ids = orderIds.stream().distinct().sorted().collect(Collectors.toList());
+        int matched = matchInChunks(ids);
+        return result(ids.size(), matched, start);
+    }
+
+    public BulkMatchResponse matchPendingOrders(String assetName) {
+        log.info("Matching all pending orders{}", assetName != null ? " for asset: " + assetName : "");
+        if (assetName != null && !instrumentRegistry.isKnown(assetName)) {
+            throw new InvalidOrderException("Unknown asset: " + assetName);
+        }
+
+        long start = System.currentTimeMillis();
+        List<PendingOrderView> pending = assetName != null
+                ? orderRepository.findByStatusAndAssetName(OrderStatus.PENDING, assetName, PendingOrderView.class)
+                : orderRepository.findByStatus(OrderStatus.PENDING, PendingOrderView.class);
+        if (pending.isEmpty()) {
+            return result(0, 0, start);
+        }
+
+        // Split by customer so parallel chunks never contend on the same asset rows
+        Map<Integer, List<Long>> partitions = pending.stream()
+                .collect(Collectors.groupingBy(
+                        view -> Math.floorMod(view.getCustomerId().hashCode(), parallelism),
+                        Collectors.mapping(PendingOrderView::getId, Collectors.toList())));
+
+        List<CompletableFuture<Integer>> futures = partitions.values().stream()
+                .map(ids -> CompletableFuture.supplyAsync(() -> matchInChunks(ids), executor))
+                .collect(Collectors.toList());
+        int matched = futures.stream().mapToInt(CompletableFuture::join).sum();
+
+        return result(pending.size(), matched, start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int matchInChunks(List<Long> ids) {
+        int matched = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Integer count = transactionTemplate.execute(status -> matchChunk(chunk));
+            matched += count != null ? count : 0;
+        }
+        return matched;
+    }
+
+    private int matchChunk(List<Long> ids) {
+        List<Order> orders = orderRepository.findByIdInAndStatusForUpdate(ids, OrderStatus.PENDING);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> lockedIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        orderRepository.updateStatus(lockedIds, OrderStatus.PENDING, OrderStatus.MATCHED);
+
+        if (settlementService.isNetting()) {
+            settlementService.record(lockedIds);
+        } else {
+            settle(orders);
+        }
+
+        for (Order order : orders) {
+            OrderResponse response = OrderResponse.from(order);
+            response.setStatus(OrderStatus.MATCHED);
+            eventPublisher.publishEvent(new OrderEvent(OrderEventType.MATCHED, response));
+        }
+
+        return orders.size();
+    }
+
+    private void settle(List<Order> orders) {
+        // Net the balance changes of the whole chunk per (customer, asset), same rules as OrderService.matchOrder
+        Map<BalanceKey, BigDecimal> deltas = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getOrderSide() == OrderSide.BUY) {
+                // TRY was already reserved during order creation, add the bought asset
+                deltas.merge(new BalanceKey(order.getCustomerId(), order.getAssetName()), order.getSize(), BigDecimal::add);
+            } else {
+                // Customer sold asset, add TRY to balance
+                deltas.merge(new BalanceKey(order.getCustomerId(), TRY_ASSET), order.getSize().multiply(order.getPrice()), BigDecimal::add);
+            }
+        }
+        deltas.forEach(this::applyDelta);
+    }
+
+    private void applyDelta(BalanceKey key, BigDecimal delta) {
+        int updated = assetRepository.adjustBalances(key.customerId(), key.assetName(), delta, delta);
+        if (updated == 0) {
+            // Create new asset if it doesn't exist
+            Asset asset = new Asset();
+            asset.setCustomerId(key.customerId());
+            asset.setAssetName(key.assetName());
+            asset.setSize(delta);
+            asset.setUsableSize(delta);
+            assetRepository.save(asset);
+        }
+    }
+
+    private BulkMatchResponse result(int requested, int matched, long start) {
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Bulk match finished: {} of {} orders matched in {} ms", matched, requested, elapsed);
+        return new BulkMatchResponse(requested, matched, requested - matched, elapsed);
+    }
+}
@@ -0,0 +1,218 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.DuplicateOrderException;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.service.CustomerPartition.Invalidate;
+import com.brokerage.api.service.CustomerPartition.InvalidateAll;
+import com.brokerage.api.service.CustomerPartition.PlaceOrder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Single-writer execution for order placement. Customers are hashed onto a fixed number of partitions,
+ * each served by one thread that owns the usable balances of its customers in memory, so placing an order
+ * never waits on another request's asset row lock. Whatever a partition accepted while its previous write
+ * was running is persisted as one transaction, with the reservations netted per (customer, asset) and
+ * applied as guarded set-based updates.
+ *
+ * Changes made outside the partition drop the customer's cached balances through their events, so the next
+ * order reloads them. Until that event is handled a cached balance can be wrong in either direction: an
+ * amendment that raises a reservation leaves it too high. What keeps balances from being overspent is the
+ * guarded {@code reserveUsable} update in each batch write, which fails the batch rather than let a usable
+ * balance go below zero.
+ */
+@Service
+@Slf4j
+public class OrderPartitions {
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+    private final boolean enabled;
+    private final CustomerPartition[] partitions;
+
+    public OrderPartitions(OrderRepository orderRepository,
+                           AssetRepository assetRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           IdempotencyStore idempotencyStore,
+                           TransactionTemplate transactionTemplate,
+                           InstrumentRegistry instrumentRegistry,
+                           MeterRegistry meterRegistry,
+                           @Value("${orders.partitions.enabled:false}") boolean enabled,
+                           @Value("${orders.partitions.count:0}") int count,
+                           @Value("${orders.partitions.batch-size:256}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyStore = idempotencyStore;
+        this.transactionTemplate = transactionTemplate;
+        this.instrumentRegistry = instrumentRegistry;
+        this.enabled = enabled;
+        int size = !enabled ? 0 : count > 0 ? count : Runtime.getRuntime().availableProcessors();
+        this.partitions = new CustomerPartition[size];
+        for (int i = 0; i < size; i++) {
+            partitions[i] = new CustomerPartition(i, batchSize, instrumentRegistry, this::loadUsableBalances, this::writeBatch);
+        }
+
+        Gauge.builder("orders.partitions.queue_depth", this, OrderPartitions::queueDepth)
+                .description("Order placement commands waiting across all customer partitions")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (CustomerPartition partition : partitions) {
+            partition.start();
+        }
+        if (enabled) {
+            log.info("Order placement running on {} customer partitions", partitions.length);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (CustomerPartition partition : partitions) {
+            partition.stop();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves funds on the customer's partition and waits until the order has been written.
+     */
+    public OrderResponse place(Order order, String idempotencyKey) {
+        try {
+            return placeAsync(order, idempotencyKey).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Hands the order to the customer's partition; the result completes once it has been written or rejected.
+     */
+    public CompletableFuture<OrderResponse> placeAsync(Order order, String idempotencyKey) {
+        CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+        partitionFor(order.getCustomerId()).submit(new PlaceOrder(order, idempotencyKey, result));
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        // Partitions publish CREATED themselves and already account for it
+        if (enabled && event.getType() != OrderEventType.CREATED) {
+            invalidate(event.getCustomerId());
+        }
+    }
+
+    /**
+     * Drops the customer's cached balances after they changed outside the partition.
+     */
+    public void invalidate(Long customerId) {
+        partitionFor(customerId).submit(new Invalidate(customerId));
+    }
+
+    /**
+     * Drops every cached balance, e.g. when customers may have been served by another node meanwhile.
+     */
+    public void invalidateAll() {
+        for (CustomerPartition partition : partitions) {
+            partition.submit(new InvalidateAll());
+        }
+    }
+
+    int queueDepth() {
+        int depth = 0;
+        for (CustomerPartition partition : partitions) {
+            depth += partition.queueDepth();
+        }
+        return depth;
+    }
+
+    private CustomerPartition partitionFor(Long customerId) {
+        return partitions[Math.floorMod(customerId.hashCode(), partitions.length)];
+    }
+
+    private BigDecimal[] loadUsableBalances(Long customerId) {
+        BigDecimal[] usable = new BigDecimal[instrumentRegistry.size()];
+        for (Asset asset : assetRepository.findByCustomerId(customerId)) {
+            int instrumentId = instrumentRegistry.idOf(asset.getAssetName());
+            if (instrumentId != InstrumentRegistry.UNKNOWN) {
+                usable[instrumentId] = asset.getUsableSize();
+            }
+        }
+        return usable;
+    }
+
+    private List<OrderResponse> writeBatch(List<PlaceOrder> batch) {
+        return transactionTemplate.execute(status -> {
+            List<OrderResponse> responses = new ArrayList<>(batch.size());
+            Map<BalanceKey, BigDecimal> reservations = new TreeMap<>();
+            for (PlaceOrder place : batch) {
+                Order saved = save(place);
+                reservations.merge(new BalanceKey(saved.getCustomerId(), place.reservedAsset()), place.reservedAmount(), BigDecimal::add);
+
+                OrderResponse response = OrderResponse.from(saved);
+                if (place.idempotencyKey() != null) {
+                    idempotencyStore.putAfterCommit(saved.getCustomerId(), place.idempotencyKey(), response);
+                }
+                eventPublisher.publishEvent(new OrderEvent(OrderEventType.CREATED, response));
+                responses.add(response);
+            }
+
+            // Guarded so the database never goes below zero even if a cached balance was wrong
+            reservations.forEach((key, amount) -> {
+                if (assetRepository.reserveUsable(key.customerId(), key.assetName(), amount) == 0) {
+                    throw new InsufficientFundsException("Insufficient " + key.assetName() + " balance to reserve " + amount);
+                }
+            });
+            log.debug("Wrote batch of {} orders", batch.size());
+            return responses;
+        });
+    }
+
+    private Order save(PlaceOrder place) {
+        try {
+            return orderRepository.save(place.order());
+        } catch (DataIntegrityViolationException e) {
+            if (place.idempotencyKey() == null) {
+                throw e;
+            }
+            throw new DuplicateOrderException("An order with idempotency key " + place.idempotencyKey() + " is already being processed", e);
+        }
+    }
+}
@@ -1,24 +1,44 @@
 package com.brokerage.api.service;
 
+import com.brokerage.api.dto.AmendOrderRequest;
+import com.brokerage.api.dto.BulkCancelResponse;
 import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderIntakeResponse;
 import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.DuplicateOrderException;
 import com.brokerage.api.exception.InsufficientFundsException;
 import com.brokerage.api.exception.InvalidOrderException;
 import com.brokerage.api.exception.OrderNotFoundException;
+import com.brokerage.api.expiry.TradingSession;
+import com.brokerage.api.market.InstrumentRegistry;
 import com.brokerage.api.model.Asset;
 import com.brokerage.api.model.Order;
 import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
 import com.brokerage.api.repository.AssetRepository;
 import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.risk.RiskEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,22 +48,134 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdempotencyStore idempotencyStore;
+    private final TradingSession tradingSession;
+    private final OrderPartitions orderPartitions;
+    private final TransactionTemplate transactionTemplate;
+    private final InstrumentRegistry instrumentRegistry;
+    private final RiskEngine riskEngine;
+    private final SettlementService settlementService;
+    private final OrderIntakePipeline orderIntakePipeline;
     
     private static final String TRY_ASSET = "TRY";
+    // Order ids per status update of a mass cancel, to keep IN lists within driver limits
+    private static final int STATUS_UPDATE_CHUNK = 1000;
     
-    @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return createOrder(request, null);
+    }
+    
+    public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
         log.info("Creating order for customer: {}, asset: {}, side: {}, size: {}, price: {}", 
                 request.getCustomerId(), request.getAssetName(), request.getOrderSide(), 
                 request.getSize(), request.getPrice());
         
-        // Validate order
+        // Unknown symbols never reach the database
+        if (!instrumentRegistry.isKnown(request.getAssetName())) {
+            throw new InvalidOrderException("Unknown asset: " + request.getAssetName());
+        }
+        
+        if (!orderPartitions.isEnabled()) {
+            return transactionTemplate.execute(status -> placeOrder(request, idempotencyKey));
+        }
+        
+        // The customer's partition checks and reserves funds; don't hold a connection while waiting for it
+        OrderResponse previous = findReplay(request, idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+        validateOrder(request);
+        riskEngine.check(request);
+        return orderPartitions.place(newOrder(request, idempotencyKey), idempotencyKey);
+    }
+    
+    /**
+     * Accepts an order for asynchronous placement. Only the in-memory checks run before the order is queued;
+     * funds are reserved when it is written. The idempotency key, or a generated one, is the reference under
+     * which the outcome can be looked up.
+     */
+    public OrderIntakeResponse acceptOrder(CreateOrderRequest request, String idempotencyKey) {
+        if (!orderIntakePipeline.isEnabled()) {
+            OrderResponse response = createOrder(request, idempotencyKey);
+            return OrderIntakeResponse.placed(idempotencyKey, response);
+        }
+        
+        log.info("Accepting order for customer: {}, asset: {}, side: {}, size: {}, price: {}", 
+                request.getCustomerId(), request.getAssetName(), request.getOrderSide(), 
+                request.getSize(), request.getPrice());
+        
+        if (!instrumentRegistry.isKnown(request.getAssetName())) {
+            throw new InvalidOrderException("Unknown asset: " + request.getAssetName());
+        }
+        
+        String reference = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+        OrderResponse previous = findReplay(request, idempotencyKey);
+        if (previous != null) {
+            return OrderIntakeResponse.placed(reference, previous);
+        }
         validateOrder(request);
+        riskEngine.check(request);
+        return orderIntakePipeline.submit(newOrder(request, reference), reference);
+    }
+    
+    public OrderIntakeResponse getIntakeStatus(Long customerId, String reference) {
+        // Statuses are only remembered for a while; a placed order can always be found by its key
+        return orderIntakePipeline.status(customerId, reference)
+                .or(() -> orderRepository.findByCustomerIdAndIdempotencyKey(customerId, reference)
+                        .map(order -> OrderIntakeResponse.placed(reference, mapToOrderResponse(order))))
+                .orElseThrow(() -> new OrderNotFoundException("No order accepted with reference: " + reference));
+    }
+    
+    private OrderResponse placeOrder(CreateOrderRequest request, String idempotencyKey) {
+        // Replay the original result for a retried request
+        OrderResponse previous = findReplay(request, idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+        
+        // Validate order and run the pre-trade risk checks
+        validateOrder(request);
+        riskEngine.check(request);
         
-        // Check if customer has sufficient funds/assets
-        checkSufficientFunds(request);
+        // Check and reserve the customer's funds/assets
+        reserveFunds(request);
         
         // Create and save order
+        Order order = newOrder(request, idempotencyKey);
+        
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            // A concurrent request with the same key won the insert
+            throw new DuplicateOrderException("An order with idempotency key " + idempotencyKey + " is already being processed", e);
+        }
+        
+        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        OrderResponse response = mapToOrderResponse(savedOrder);
+        if (idempotencyKey != null) {
+            idempotencyStore.putAfterCommit(request.getCustomerId(), idempotencyKey, response);
+        }
+        eventPublisher.publishEvent(new OrderEvent(OrderEventType.CREATED, response));
+        return response;
+    }
+    
+    private OrderResponse findReplay(CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        OrderResponse previous = findPreviousResult(request, idempotencyKey);
+        if (previous != null) {
+            log.info("Replaying order {} for idempotency key: {}", previous.getId(), idempotencyKey);
+        }
+        return previous;
+    }
+    
+    private Order newOrder(CreateOrderRequest request, String idempotencyKey) {
         Order order = new Order();
         order.setCustomerId(request.getCustomerId());
         order.setAssetName(request.getAssetName());
@@ -51,71 +183,197 @@ public class OrderService {
         order.setSize(request.getSize());
         order.setPrice(request.getPrice());
         order.setStatus(OrderStatus.PENDING);
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        // Update asset balances
-        updateAssetBalances(request);
-        
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
-        return mapToOrderResponse(savedOrder);
-    }
-    
-    public List<OrderResponse> listOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Listing orders for customer: {} between {} and {}", customerId, startDate, endDate);
-        
-        List<Order> orders = orderRepository.findOrdersByCustomerAndDateRange(customerId, startDate, endDate);
-        return orders.stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+        order.setIdempotencyKey(idempotencyKey);
+        if (idempotencyKey != null) {
+            order.setRequestHash(requestHash(request.getAssetName(), request.getOrderSide(), request.getSize(), request.getPrice()));
+        }
+        TimeInForce timeInForce = request.getTimeInForce() != null ? request.getTimeInForce() : TimeInForce.GTC;
+        order.setTimeInForce(timeInForce);
+        order.setExpireAt(resolveExpiry(timeInForce, request.getExpireAt()));
+        return order;
     }
     
     @Transactional
     public void deleteOrder(Long orderId, Long customerId) {
         log.info("Deleting order: {} for customer: {}", orderId, customerId);
         
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
+        // Locked like a mass cancel does, so the two never both release the reservation
+        Order order = lockPendingOrder(orderId, "deleted");
         
         // Check if order belongs to customer or if customer is admin
         if (!order.getCustomerId().equals(customerId)) {
             throw new InvalidOrderException("Order does not belong to customer");
         }
         
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new InvalidOrderException("Only pending orders can be deleted");
-        }
-        
         // Update order status
         order.setStatus(OrderStatus.CANCELED);
         orderRepository.save(order);
         
         // Restore asset balances
         restoreAssetBalances(order);
+        eventPublisher.publishEvent(new OrderEvent(OrderEventType.CANCELED, mapToOrderResponse(order)));
         
         log.info("Order {} deleted successfully", orderId);
     }
     
     @Transactional
-    public OrderResponse matchOrder(Long orderId) {
-        log.info("Matching order: {}", orderId);
+    public BulkCancelResponse cancelOrders(Long customerId, String assetName, OrderSide orderSide) {
+        log.info("Canceling pending orders for customer: {}, asset: {}, side: {}", customerId, assetName, orderSide);
+        if (assetName != null && !instrumentRegistry.isKnown(assetName)) {
+            throw new InvalidOrderException("Unknown asset: " + assetName);
+        }
         
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
+        long start = System.currentTimeMillis();
+        // Lock what is pending now; orders placed after this stay untouched
+        List<OrderResponse> orders = orderRepository.findResponsesByCustomerAndStatusForUpdate(
+                customerId, OrderStatus.PENDING, assetName, orderSide);
+        if (!orders.isEmpty()) {
+            List<Long> ids = orders.stream().map(OrderResponse::getId).collect(Collectors.toList());
+            for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK) {
+                orderRepository.updateStatusOfLocked(ids.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, ids.size())),
+                        OrderStatus.CANCELED);
+            }
+            
+            // Release the reservations netted per asset: TRY for all buys, the asset itself for sells
+            Map<String, BigDecimal> releases = new TreeMap<>();
+            for (OrderResponse order : orders) {
+                if (order.getOrderSide() == OrderSide.BUY) {
+                    releases.merge(TRY_ASSET, order.getSize().multiply(order.getPrice()), BigDecimal::add);
+                } else {
+                    releases.merge(order.getAssetName(), order.getSize(), BigDecimal::add);
+                }
+            }
+            releases.forEach((asset, amount) -> assetRepository.adjustBalances(customerId, asset, BigDecimal.ZERO, amount));
+            
+            for (OrderResponse order : orders) {
+                order.setStatus(OrderStatus.CANCELED);
+                eventPublisher.publishEvent(new OrderEvent(OrderEventType.CANCELED, order));
+            }
+        }
         
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new InvalidOrderException("Only pending orders can be matched");
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Canceled {} orders for customer {} in {} ms", orders.size(), customerId, elapsed);
+        return new BulkCancelResponse(orders.size(), elapsed);
+    }
+    
+    @Transactional
+    public OrderResponse amendOrder(Long orderId, Long customerId, AmendOrderRequest request) {
+        log.info("Amending order: {} for customer: {}, size: {}, price: {}", orderId, customerId, request.getSize(), request.getPrice());
+        
+        if (request.getSize() == null && request.getPrice() == null) {
+            throw new InvalidOrderException("Size or price is required");
         }
         
+        // Lock the order so matching, expiry or another amendment can't change it under us
+        Order order = lockPendingOrder(orderId, "amended");
+        
+        if (!order.getCustomerId().equals(customerId)) {
+            throw new InvalidOrderException("Order does not belong to customer");
+        }
+        
+        BigDecimal size = request.getSize() != null ? request.getSize() : order.getSize();
+        BigDecimal price = request.getPrice() != null ? request.getPrice() : order.getPrice();
+        if (size.compareTo(order.getSize()) == 0 && price.compareTo(order.getPrice()) == 0) {
+            return mapToOrderResponse(order);
+        }
+        
+        CreateOrderRequest amended = new CreateOrderRequest();
+        amended.setCustomerId(order.getCustomerId());
+        amended.setAssetName(order.getAssetName());
+        amended.setOrderSide(order.getOrderSide());
+        amended.setSize(size);
+        amended.setPrice(price);
+        riskEngine.checkAmendment(amended, order.getSize());
+        
+        // Only the difference to the current reservation moves
+        adjustReservation(order, size, price);
+        
+        BigDecimal previousSize = order.getSize();
+        order.setSize(size);
+        order.setPrice(price);
+        orderRepository.save(order);
+        
+        log.info("Order {} amended successfully", orderId);
+        OrderResponse response = mapToOrderResponse(order);
+        eventPublisher.publishEvent(new OrderEvent(OrderEventType.AMENDED, response, previousSize));
+        return response;
+    }
+    
+    @Transactional
+    public OrderResponse matchOrder(Long orderId) {
+        log.info("Matching order: {}", orderId);
+        
+        // Waits for a concurrent amendment, so the terms settled are the ones reserved
+        Order order = lockPendingOrder(orderId, "matched");
+        
         // Update order status
         order.setStatus(OrderStatus.MATCHED);
         Order savedOrder = orderRepository.save(order);
         
-        // Update asset balances for matched order
-        updateAssetBalancesForMatchedOrder(order);
+        // Update asset balances for matched order, or leave that to netted settlement
+        if (settlementService.isNetting()) {
+            settlementService.record(List.of(order.getId()));
+        } else {
+            updateAssetBalancesForMatchedOrder(order);
+        }
         
         log.info("Order {} matched successfully", orderId);
-        return mapToOrderResponse(savedOrder);
+        OrderResponse response = mapToOrderResponse(savedOrder);
+        eventPublisher.publishEvent(new OrderEvent(OrderEventType.MATCHED, response));
+        return response;
+    }
+    
+    /**
+     * Locks a pending order for the rest of the transaction. The status condition is evaluated again once
+     * the lock is granted, so an order canceled, matched or expired while waiting is not returned, the same
+     * guarantee the bulk cancel, match and expiry paths rely on.
+     */
+    private Order lockPendingOrder(Long orderId, String action) {
+        List<Order> locked = orderRepository.findByIdInAndStatusForUpdate(List.of(orderId), OrderStatus.PENDING);
+        if (locked.isEmpty()) {
+            orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
+            throw new InvalidOrderException("Only pending orders can be " + action);
+        }
+        return locked.get(0);
+    }
+    
+    private OrderResponse findPreviousResult(CreateOrderRequest request, String idempotencyKey) {
+        // Compared with the terms the order was placed with: the cached response holds them, the stored
+        // order may have been amended since and carries them as a hash
+        String expected = requestHash(request.getAssetName(), request.getOrderSide(), request.getSize(), request.getPrice());
+        OrderResponse cached = idempotencyStore.get(request.getCustomerId(), idempotencyKey).orElse(null);
+        if (cached != null) {
+            checkSameRequest(expected, requestHash(cached.getAssetName(), cached.getOrderSide(), cached.getSize(), cached.getPrice()),
+                    idempotencyKey);
+            return cached;
+        }
+        
+        Order order = orderRepository.findByCustomerIdAndIdempotencyKey(request.getCustomerId(), idempotencyKey).orElse(null);
+        if (order == null) {
+            return null;
+        }
+        String placed = order.getRequestHash() != null ? order.getRequestHash()
+                : requestHash(order.getAssetName(), order.getOrderSide(), order.getSize(), order.getPrice());
+        checkSameRequest(expected, placed, idempotencyKey);
+        return mapToOrderResponse(order);
+    }
+    
+    private static void checkSameRequest(String expected, String placed, String idempotencyKey) {
+        if (!expected.equals(placed)) {
+            throw new InvalidOrderException("Idempotency key " + idempotencyKey + " was already used for a different order");
+        }
+    }
+    
+    private static String requestHash(String assetName, OrderSide orderSide, BigDecimal size, BigDecimal price) {
+        String terms = assetName + '|' + orderSide + '|' + size.stripTrailingZeros().toPlainString()
+                + '|' + price.stripTrailingZeros().toPlainString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(terms.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
     private void validateOrder(CreateOrderRequest request) {
@@ -127,101 +385,99 @@ public class OrderService {
             throw new InvalidOrderException("Order price must be greater than 0");
         }
         
-        if (request.getAssetName().equals(TRY_ASSET)) {
+        if (instrumentRegistry.idOf(request.getAssetName()) == InstrumentRegistry.CASH_ID) {
             throw new InvalidOrderException("Cannot trade TRY asset directly");
         }
+        
+        if (request.getTimeInForce() == TimeInForce.GTD) {
+            if (request.getExpireAt() == null) {
+                throw new InvalidOrderException("Expiry timestamp is required for GTD orders");
+            }
+            if (!request.getExpireAt().isAfter(LocalDateTime.now())) {
+                throw new InvalidOrderException("Expiry timestamp must be in the future");
+            }
+        } else if (request.getExpireAt() != null) {
+            throw new InvalidOrderException("Expiry timestamp is only allowed for GTD orders");
+        }
     }
     
-    private void checkSufficientFunds(CreateOrderRequest request) {
+    private LocalDateTime resolveExpiry(TimeInForce timeInForce, LocalDateTime requestedExpiry) {
+        return switch (timeInForce) {
+            case GTC -> null;
+            case DAY -> tradingSession.sessionClose(LocalDateTime.now());
+            case GTD -> requestedExpiry;
+        };
+    }
+    
+    private void reserveFunds(CreateOrderRequest request) {
+        // One conditional update checks and reserves; the asset is only read to explain a rejection
         if (request.getOrderSide() == OrderSide.BUY) {
-            // Check if customer has enough TRY
-            Asset tryAsset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), TRY_ASSET)
-                    .orElseThrow(() -> new InvalidOrderException("TRY asset not found for customer"));
-            
+            // Reserve TRY for the order
             BigDecimal requiredAmount = request.getSize().multiply(request.getPrice());
-            if (tryAsset.getUsableSize().compareTo(requiredAmount) < 0) {
+            if (assetRepository.reserveUsable(request.getCustomerId(), TRY_ASSET, requiredAmount) == 0) {
+                Asset tryAsset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), TRY_ASSET)
+                        .orElseThrow(() -> new InvalidOrderException("TRY asset not found for customer"));
                 throw new InsufficientFundsException("Insufficient TRY balance. Required: " + requiredAmount + ", Available: " + tryAsset.getUsableSize());
             }
         } else {
-            // Check if customer has enough of the asset to sell
-            Asset asset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), request.getAssetName())
-                    .orElseThrow(() -> new InvalidOrderException("Asset not found: " + request.getAssetName()));
-            
-            if (asset.getUsableSize().compareTo(request.getSize()) < 0) {
+            // Reserve the asset being sold
+            if (assetRepository.reserveUsable(request.getCustomerId(), request.getAssetName(), request.getSize()) == 0) {
+                Asset asset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), request.getAssetName())
+                        .orElseThrow(() -> new InvalidOrderException("Asset not found: " + request.getAssetName()));
                 throw new InsufficientFundsException("Insufficient asset balance. Required: " + request.getSize() + ", Available: " + asset.getUsableSize());
             }
         }
     }
     
-    private void updateAssetBalances(CreateOrderRequest request) {
-        if (request.getOrderSide() == OrderSide.BUY) {
-            // Reserve TRY for the order
-            Asset tryAsset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), TRY_ASSET).get();
-            BigDecimal requiredAmount = request.getSize().multiply(request.getPrice());
-            tryAsset.setUsableSize(tryAsset.getUsableSize().subtract(requiredAmount));
-            assetRepository.save(tryAsset);
-        } else {
-            // Reserve the asset being sold
-            Asset asset = assetRepository.findAssetByCustomerAndName(request.getCustomerId(), request.getAssetName()).get();
-            asset.setUsableSize(asset.getUsableSize().subtract(request.getSize()));
-            assetRepository.save(asset);
+    private void adjustReservation(Order order, BigDecimal size, BigDecimal price) {
+        String reserved = order.getOrderSide() == OrderSide.BUY ? TRY_ASSET : order.getAssetName();
+        BigDecimal delta = order.getOrderSide() == OrderSide.BUY
+                ? size.multiply(price).subtract(order.getSize().multiply(order.getPrice()))
+                : size.subtract(order.getSize());
+        if (delta.signum() > 0) {
+            if (assetRepository.reserveUsable(order.getCustomerId(), reserved, delta) == 0) {
+                Asset asset = assetRepository.findAssetByCustomerAndName(order.getCustomerId(), reserved)
+                        .orElseThrow(() -> new InvalidOrderException("Asset not found: " + reserved));
+                throw new InsufficientFundsException("Insufficient " + (order.getOrderSide() == OrderSide.BUY ? "TRY" : "asset")
+                        + " balance. Required: " + delta + ", Available: " + asset.getUsableSize());
+            }
+        } else if (delta.signum() < 0) {
+            assetRepository.adjustBalances(order.getCustomerId(), reserved, BigDecimal.ZERO, delta.negate());
         }
     }
     
     private void restoreAssetBalances(Order order) {
         if (order.getOrderSide() == OrderSide.BUY) {
             // Restore TRY balance
-            Asset tryAsset = assetRepository.findAssetByCustomerAndName(order.getCustomerId(), TRY_ASSET).get();
             BigDecimal amount = order.getSize().multiply(order.getPrice());
-            tryAsset.setUsableSize(tryAsset.getUsableSize().add(amount));
-            assetRepository.save(tryAsset);
+            assetRepository.adjustBalances(order.getCustomerId(), TRY_ASSET, BigDecimal.ZERO, amount);
         } else {
             // Restore asset balance
-            Asset asset = assetRepository.findAssetByCustomerAndName(order.getCustomerId(), order.getAssetName()).get();
-            asset.setUsableSize(asset.getUsableSize().add(order.getSize()));
-            assetRepository.save(asset);
+            assetRepository.adjustBalances(order.getCustomerId(), order.getAssetName(), BigDecimal.ZERO, order.getSize());
         }
     }
     
     private void updateAssetBalancesForMatchedOrder(Order order) {
         if (order.getOrderSide() == OrderSide.BUY) {
-            // Customer bought asset, update both TRY and asset balances
-            Asset asset = assetRepository.findAssetByCustomerAndName(order.getCustomerId(), order.getAssetName()).get();
-            
-            // TRY was already reserved during order creation, so no change needed
-            // Add the bought asset
-            if (asset == null) {
-                // Create new asset if it doesn't exist
-                asset = new Asset();
+            // Customer bought asset; TRY was already reserved during order creation, so no change needed
+            // Add the bought asset, creating it if the customer didn't hold any
+            int updated = assetRepository.adjustBalances(order.getCustomerId(), order.getAssetName(), order.getSize(), order.getSize());
+            if (updated == 0) {
+                Asset asset = new Asset();
                 asset.setCustomerId(order.getCustomerId());
                 asset.setAssetName(order.getAssetName());
                 asset.setSize(order.getSize());
                 asset.setUsableSize(order.getSize());
-            } else {
-                asset.setSize(asset.getSize().add(order.getSize()));
-                asset.setUsableSize(asset.getUsableSize().add(order.getSize()));
+                assetRepository.save(asset);
             }
-            assetRepository.save(asset);
         } else {
             // Customer sold asset, add TRY to balance
-            Asset tryAsset = assetRepository.findAssetByCustomerAndName(order.getCustomerId(), TRY_ASSET).get();
             BigDecimal amount = order.getSize().multiply(order.getPrice());
-            tryAsset.setSize(tryAsset.getSize().add(amount));
-            tryAsset.setUsableSize(tryAsset.getUsableSize().add(amount));
-            assetRepository.save(tryAsset);
+            assetRepository.adjustBalances(order.getCustomerId(), TRY_ASSET, amount, amount);
         }
     }
     
     private OrderResponse mapToOrderResponse(Order order) {
-        OrderResponse response = new OrderResponse();
-        response.setId(order.getId());
-        response.setCustomerId(order.getCustomerId());
-        response.setAssetName(order.getAssetName());
-        response.setOrderSide(order.getOrderSide());
-        response.setSize(order.getSize());
-        response.setPrice(order.getPrice());
-        response.setStatus(order.getStatus());
-        response.setCreateDate(order.getCreateDate());
-        return response;
+        return OrderResponse.from(order);
     }
 }
@@ -0,0 +1,232 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderStatusEvent;
+import com.brokerage.api.event.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Pushes order state changes to subscribed clients over Server-Sent Events.
+ * <p>
+ * Every customer has its own sequence counter and a small replay ring so a client can
+ * reconnect with {@code Last-Event-ID} and pick up where it left off. Events are handed
+ * over after the writing transaction commits and delivery happens on a separate
+ * dispatcher pool; a subscriber whose buffer fills up is disconnected and resumes from
+ * the replay ring on reconnect.
+ * <p>
+ * A channel is opened by a customer's first subscription; events for customers nobody is
+ * listening to are not kept. Once the last subscriber leaves the channel stays around for
+ * {@code orders.stream.idle-ttl} so a reconnect can resume, then it is dropped and a later
+ * {@code Last-Event-ID} gets a {@code RESYNC}.
+ */
+@Service
+@Slf4j
+public class OrderStreamService {
+
+    static final String RESYNC_EVENT = "RESYNC";
+
+    private final int replaySize;
+    private final int bufferSize;
+    private final long timeout;
+    private final long idleTtlNanos;
+    private final ExecutorService dispatcher;
+
+    private final ConcurrentHashMap<Long, CustomerChannel> channels = new ConcurrentHashMap<>();
+
+    public OrderStreamService(@Value("${orders.stream.replay-size:256}") int replaySize,
+                              @Value("${orders.stream.buffer-size:128}") int bufferSize,
+                              @Value("${orders.stream.timeout:1800000}") long timeout,
+                              @Value("${orders.stream.dispatcher-threads:2}") int dispatcherThreads,
+                              @Value("${orders.stream.idle-ttl:300000}") long idleTtl) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtl);
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long customerId, Long lastSequence) {
+        log.info("Opening order event stream for customer: {} from sequence: {}", customerId, lastSequence);
+
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize + replaySize);
+        // Registered inside compute so the idle purge cannot drop the channel in between
+        CustomerChannel channel = channels.compute(customerId, (id, existing) -> {
+            CustomerChannel target = existing != null ? existing : new CustomerChannel();
+            target.register(subscriber, lastSequence);
+            return target;
+        });
+
+        emitter.onCompletion(() -> channel.unregister(subscriber));
+        emitter.onTimeout(() -> channel.unregister(subscriber));
+        emitter.onError(error -> channel.unregister(subscriber));
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        CustomerChannel channel = channels.get(event.getCustomerId());
+        if (channel != null) {
+            channel.publish(event);
+        }
+    }
+
+    int openChannels() {
+        return channels.size();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stream.purge-interval:60000}")
+    public void purgeIdleChannels() {
+        long now = System.nanoTime();
+        for (Long customerId : channels.keySet()) {
+            channels.computeIfPresent(customerId, (id, channel) -> channel.isIdle(now) ? null : channel);
+        }
+    }
+
+    /**
+     * Ends the streams of matching customers and forgets their replay rings; clients reconnect with
+     * {@code Last-Event-ID}.
+     */
+    public void closeStreams(Predicate<Long> customers) {
+        channels.entrySet().removeIf(entry -> {
+            if (!customers.test(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    private class CustomerChannel {
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private OrderStatusEvent[] replay;
+        private long sequence;
+        private volatile long lastActivity = System.nanoTime();
+
+        synchronized void publish(OrderEvent event) {
+            lastActivity = System.nanoTime();
+            OrderStatusEvent statusEvent = new OrderStatusEvent(++sequence, event.getType(), event.getOrder());
+            if (replay == null) {
+                replay = new OrderStatusEvent[replaySize];
+            }
+            replay[(int) (statusEvent.getSequence() % replaySize)] = statusEvent;
+
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(statusEvent)) {
+                    subscriber.schedule();
+                } else {
+                    // Slow consumer: drop it, it will resume from the replay ring on reconnect
+                    log.warn("Order event subscriber buffer full, disconnecting at sequence: {}", statusEvent.getSequence());
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+
+        synchronized void register(Subscriber subscriber, Long lastSequence) {
+            if (lastSequence != null) {
+                long oldest = Math.max(1, sequence - replaySize + 1);
+                if (lastSequence + 1 < oldest || lastSequence > sequence) {
+                    // Gap we can't fill from the ring (or a restart or idle purge reset the counter)
+                    subscriber.resync = true;
+                }
+                for (long seq = Math.max(lastSequence + 1, oldest); seq <= sequence; seq++) {
+                    subscriber.offer(replay[(int) (seq % replaySize)]);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        void unregister(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            lastActivity = System.nanoTime();
+        }
+
+        boolean isIdle(long now) {
+            return subscribers.isEmpty() && now - lastActivity > idleTtlNanos;
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<OrderStatusEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean resync;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean offer(OrderStatusEvent event) {
+            return queue.offer(event);
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resync) {
+                    resync = false;
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                }
+                List<OrderStatusEvent> batch = new ArrayList<>();
+                OrderStatusEvent event;
+                while ((event = queue.poll()) != null) {
+                    batch.add(event);
+                }
+                for (OrderStatusEvent statusEvent : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(statusEvent.getSequence()))
+                            .name(statusEvent.getType().name())
+                            .data(statusEvent));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Order event subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.AssetResponse;
+import com.brokerage.api.dto.PortfolioValuationResponse;
+import com.brokerage.api.dto.PositionValuation;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.market.PriceTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values customer portfolios at the latest feed prices: every asset's size times its price,
+ * with TRY at face value. Prices come from the lock-free {@link PriceTable}, so a valuation
+ * costs one read per asset and can be recomputed on every tick.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioValuationService {
+    
+    private final AssetService assetService;
+    private final PriceTable priceTable;
+    private final InstrumentRegistry instrumentRegistry;
+    
+    public PortfolioValuationResponse valuePortfolio(Long customerId) {
+        return value(customerId, assetService.listAssets(customerId));
+    }
+    
+    public PortfolioValuationResponse value(Long customerId, List<AssetResponse> assets) {
+        BigDecimal total = BigDecimal.ZERO;
+        boolean complete = true;
+        List<PositionValuation> positions = new ArrayList<>(assets.size());
+        for (AssetResponse asset : assets) {
+            PositionValuation position = new PositionValuation();
+            position.setAssetName(asset.getAssetName());
+            position.setSize(asset.getSize());
+            int instrumentId = instrumentRegistry.idOf(asset.getAssetName());
+            if (instrumentId == InstrumentRegistry.CASH_ID) {
+                position.setPrice(BigDecimal.ONE);
+                position.setValue(asset.getSize());
+            } else if (instrumentId != InstrumentRegistry.UNKNOWN) {
+                PriceTable.Quote quote = priceTable.get(instrumentId);
+                if (quote != null) {
+                    position.setPrice(quote.price());
+                    position.setValue(asset.getSize().multiply(quote.price()).setScale(PriceTable.SCALE, RoundingMode.HALF_UP));
+                    position.setPriceTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(quote.timestampMillis()), ZoneId.systemDefault()));
+                }
+            }
+            if (position.getValue() != null) {
+                total = total.add(position.getValue());
+            } else {
+                complete = false;
+            }
+            positions.add(position);
+        }
+        return new PortfolioValuationResponse(customerId, total, complete, positions);
+    }
+}
@@ -0,0 +1,153 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.SettlementEntryRepository;
+import com.brokerage.api.repository.SettlementEntryView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Netted settlement of matched orders. With netting on, matching only writes each order to the
+ * settlement journal instead of updating the customer's asset or TRY row; a background run
+ * collects up to a batch of journal entries, nets them per (customer, asset) and applies one
+ * balance update per net position, deleting the entries in the same transaction. Hot accounts
+ * take one write per run instead of one per match, at the cost of balances trailing matches by
+ * up to the settlement interval.
+ * <p>
+ * The journal is a table, so unsettled matches survive a restart and are settled at startup,
+ * whichever mode the node comes back in.
+ */
+@Service
+@Slf4j
+public class SettlementService {
+    
+    private static final String TRY_ASSET = "TRY";
+    
+    private final SettlementEntryRepository settlementEntryRepository;
+    private final AssetRepository assetRepository;
+    private final OrderPartitions orderPartitions;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean netting;
+    private final int batchSize;
+    private final Counter entriesSettled;
+    private final Counter balanceUpdates;
+    
+    public SettlementService(SettlementEntryRepository settlementEntryRepository,
+                             AssetRepository assetRepository,
+                             OrderPartitions orderPartitions,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.settlement.netting:false}") boolean netting,
+                             @Value("${orders.settlement.batch-size:1000}") int batchSize) {
+        this.settlementEntryRepository = settlementEntryRepository;
+        this.assetRepository = assetRepository;
+        this.orderPartitions = orderPartitions;
+        this.transactionTemplate = transactionTemplate;
+        this.netting = netting;
+        this.batchSize = batchSize;
+        this.entriesSettled = Counter.builder("orders.settlement.entries")
+                .description("Matched orders settled from the journal")
+                .register(meterRegistry);
+        this.balanceUpdates = Counter.builder("orders.settlement.balance.updates")
+                .description("Netted balance updates applied for settled orders")
+                .register(meterRegistry);
+    }
+    
+    public boolean isNetting() {
+        return netting;
+    }
+    
+    /**
+     * Journals orders the current transaction has just marked MATCHED, for netted settlement.
+     */
+    public void record(Collection<Long> matchedOrderIds) {
+        settlementEntryRepository.copyFromOrders(matchedOrderIds, OrderStatus.MATCHED, TRY_ASSET);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void settleLeftovers() {
+        int settled = settlePending();
+        if (settled > 0) {
+            log.info("Settled {} matched orders left in the journal", settled);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.settlement.interval:200}")
+    public void tick() {
+        if (netting) {
+            settlePending();
+        }
+    }
+    
+    synchronized int settlePending() {
+        int settled = 0;
+        Integer count;
+        do {
+            Set<Long> customers = new TreeSet<>();
+            count = transactionTemplate.execute(status -> settleBatch(customers));
+            settled += count != null ? count : 0;
+            // Committed: cached balances of these customers are stale now
+            if (orderPartitions.isEnabled()) {
+                customers.forEach(orderPartitions::invalidate);
+            }
+        } while (count != null && count == batchSize);
+        return settled;
+    }
+    
+    private int settleBatch(Set<Long> customers) {
+        List<SettlementEntryView> entries = settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, batchSize));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        
+        Map<BalanceKey, BigDecimal> deltas = new TreeMap<>();
+        for (SettlementEntryView entry : entries) {
+            deltas.merge(new BalanceKey(entry.getCustomerId(), entry.getAssetName()), entry.getAmount(), BigDecimal::add);
+            customers.add(entry.getCustomerId());
+        }
+        deltas.forEach(this::applyDelta);
+        
+        List<Long> orderIds = entries.stream().map(SettlementEntryView::getOrderId).toList();
+        int deleted = settlementEntryRepository.deleteByOrderIdIn(orderIds);
+        if (deleted != orderIds.size()) {
+            // Another node settled some of them first; roll back rather than apply them twice
+            throw new IllegalStateException("Settled " + deleted + " of " + orderIds.size() + " journal entries");
+        }
+        
+        entriesSettled.increment(entries.size());
+        balanceUpdates.increment(deltas.size());
+        log.debug("Settled {} matched orders with {} balance updates", entries.size(), deltas.size());
+        return entries.size();
+    }
+    
+    private void applyDelta(BalanceKey key, BigDecimal delta) {
+        int updated = assetRepository.adjustBalances(key.customerId(), key.assetName(), delta, delta);
+        if (updated == 0) {
+            // First holding of a bought asset
+            Asset asset = new Asset();
+            asset.setCustomerId(key.customerId());
+            asset.setAssetName(key.assetName());
+            asset.setSize(delta);
+            asset.setUsableSize(delta);
+            assetRepository.save(asset);
+        }
+    }
+}
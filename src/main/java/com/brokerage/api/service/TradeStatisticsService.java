@@ -0,0 +1,157 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.dto.TradeStatsResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.TradeStatsSnapshot;
+import com.brokerage.api.repository.TradeStatsSnapshotRepository;
+import com.brokerage.api.stats.StatsBucket;
+import com.brokerage.api.stats.TradeStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps per-asset trade statistics (volume, notional, VWAP, OHLC, trade count) up to date as
+ * orders are matched, so dashboards read them from memory instead of aggregating the orders
+ * table. Matches are counted once their transaction commits, whether they came from
+ * {@link OrderService#matchOrder} or bulk matching. Closed buckets are written to
+ * {@code trade_stats_snapshots} periodically for history beyond the in-memory window.
+ */
+@Service
+@Slf4j
+public class TradeStatisticsService {
+
+    private final TradeStatsSnapshotRepository snapshotRepository;
+    private final InstrumentRegistry instrumentRegistry;
+    private final long bucketMillis;
+
+    // Indexed by instrument id
+    private final TradeStatistics[] statistics;
+
+    // Start of the first bucket not yet snapshotted; only the scheduler thread moves it
+    private volatile long snapshotFrom;
+
+    public TradeStatisticsService(TradeStatsSnapshotRepository snapshotRepository,
+                                  InstrumentRegistry instrumentRegistry,
+                                  @Value("${orders.stats.bucket-millis:60000}") long bucketMillis,
+                                  @Value("${orders.stats.buckets:60}") int bucketCount,
+                                  @Value("${orders.stats.snapshot-interval:60000}") long snapshotInterval) {
+        this.snapshotRepository = snapshotRepository;
+        this.instrumentRegistry = instrumentRegistry;
+        this.bucketMillis = bucketMillis;
+        // Buckets must survive in memory until the next snapshot has written them
+        int retained = Math.max(bucketCount, (int) (snapshotInterval / bucketMillis) + 2);
+        this.statistics = new TradeStatistics[instrumentRegistry.size()];
+        for (int id = 0; id < statistics.length; id++) {
+            statistics[id] = new TradeStatistics(bucketMillis, retained);
+        }
+        this.snapshotFrom = System.currentTimeMillis() / bucketMillis * bucketMillis;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getType() == OrderEventType.MATCHED) {
+            record(event.getOrder(), System.currentTimeMillis());
+        }
+    }
+
+    void record(OrderResponse order, long nowMillis) {
+        int instrumentId = instrumentRegistry.idOf(order.getAssetName());
+        if (instrumentId != InstrumentRegistry.UNKNOWN) {
+            statistics[instrumentId].record(nowMillis, order.getSize(), order.getPrice());
+        }
+    }
+
+    /**
+     * Statistics of every traded asset over the in-memory window.
+     */
+    public List<TradeStatsResponse> getAllStatistics() {
+        long now = System.currentTimeMillis();
+        List<TradeStatsResponse> responses = new ArrayList<>();
+        for (int id = 0; id < statistics.length; id++) {
+            String asset = instrumentRegistry.symbolOf(id);
+            statistics[id].window(now).stream()
+                    .reduce(StatsBucket::merge)
+                    .ifPresent(window -> responses.add(TradeStatsResponse.from(asset, window)));
+        }
+        responses.sort(Comparator.comparing(TradeStatsResponse::getAssetName));
+        return responses;
+    }
+
+    /**
+     * The in-memory buckets of one asset, oldest first.
+     */
+    public List<TradeStatsResponse> getBuckets(String assetName) {
+        int instrumentId = instrumentRegistry.idOf(assetName);
+        if (instrumentId == InstrumentRegistry.UNKNOWN) {
+            return List.of();
+        }
+        return statistics[instrumentId].window(System.currentTimeMillis()).stream()
+                .map(bucket -> TradeStatsResponse.from(assetName, bucket))
+                .toList();
+    }
+
+    public List<TradeStatsResponse> getHistory(String assetName, LocalDateTime from, LocalDateTime to) {
+        return snapshotRepository.findByAssetNameAndBucketStartBetweenOrderByBucketStart(assetName, from, to).stream()
+                .map(TradeStatsResponse::from)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stats.snapshot-interval:60000}",
+               initialDelayString = "${orders.stats.snapshot-interval:60000}")
+    public void snapshot() {
+        snapshotBefore(System.currentTimeMillis());
+    }
+
+    /**
+     * Persists the buckets that closed since the last snapshot.
+     *
+     * @return the number of snapshot rows written
+     */
+    int snapshotBefore(long nowMillis) {
+        long to = nowMillis / bucketMillis * bucketMillis;
+        if (to <= snapshotFrom) {
+            return 0;
+        }
+
+        List<TradeStatsSnapshot> snapshots = new ArrayList<>();
+        for (int id = 0; id < statistics.length; id++) {
+            String asset = instrumentRegistry.symbolOf(id);
+            statistics[id].buckets(snapshotFrom, to).forEach(bucket -> snapshots.add(toSnapshot(asset, bucket)));
+        }
+        if (!snapshots.isEmpty()) {
+            snapshotRepository.saveAll(snapshots);
+            log.debug("Saved {} trade statistics snapshots", snapshots.size());
+        }
+        snapshotFrom = to;
+        return snapshots.size();
+    }
+
+    private static TradeStatsSnapshot toSnapshot(String assetName, StatsBucket bucket) {
+        TradeStatsSnapshot snapshot = new TradeStatsSnapshot();
+        snapshot.setAssetName(assetName);
+        snapshot.setBucketStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(bucket.startMillis()), ZoneId.systemDefault()));
+        snapshot.setBucketMillis(bucket.lengthMillis());
+        snapshot.setTrades(bucket.trades());
+        snapshot.setVolume(bucket.volume());
+        snapshot.setNotional(bucket.notional());
+        snapshot.setVwap(bucket.vwap());
+        snapshot.setOpen(bucket.open());
+        snapshot.setHigh(bucket.high());
+        snapshot.setLow(bucket.low());
+        snapshot.setClose(bucket.close());
+        return snapshot;
+    }
+}
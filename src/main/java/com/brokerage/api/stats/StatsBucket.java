@@ -0,0 +1,31 @@
+package com.brokerage.api.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Point-in-time copy of one statistics bucket, or of several merged into a longer period.
+ */
+public record StatsBucket(long startMillis,
+                          long lengthMillis,
+                          long trades,
+                          BigDecimal volume,
+                          BigDecimal notional,
+                          BigDecimal open,
+                          BigDecimal high,
+                          BigDecimal low,
+                          BigDecimal close) {
+
+    public BigDecimal vwap() {
+        return volume.signum() == 0 ? null : notional.divide(volume, TradeStatistics.SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Combines this bucket with a later one into a bucket covering both and the time between them.
+     */
+    public StatsBucket merge(StatsBucket later) {
+        return new StatsBucket(startMillis, later.startMillis + later.lengthMillis - startMillis,
+                trades + later.trades, volume.add(later.volume), notional.add(later.notional),
+                open, high.max(later.high), low.min(later.low), later.close);
+    }
+}
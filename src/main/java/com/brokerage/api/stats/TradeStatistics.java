@@ -0,0 +1,127 @@
+package com.brokerage.api.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolling trade statistics for one asset over fixed time buckets.
+ * <p>
+ * The last {@code bucketCount} buckets live in a ring indexed by bucket number; a trade for a
+ * newer bucket replaces the expired one in its slot with a compare-and-set. Inside a bucket,
+ * trade count, volume and notional are {@link LongAdder}s and high/low are CAS-updated, so
+ * recording never takes a lock and reading never blocks writers. Open is the first trade to
+ * reach the bucket and close the last one. Sizes, prices and notionals are held as longs at
+ * the 4 decimal places of the orders table.
+ */
+public class TradeStatistics {
+
+    public static final int SCALE = 4;
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public TradeStatistics(long bucketMillis, int bucketCount) {
+        if (bucketMillis <= 0 || bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket length must be positive and at least one bucket kept");
+        }
+        this.bucketMillis = bucketMillis;
+        this.ring = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Adds a trade to the bucket covering {@code timestampMillis}. Trades older than the
+     * retained window are ignored.
+     */
+    public void record(long timestampMillis, BigDecimal size, BigDecimal price) {
+        Bucket bucket = bucketFor(timestampMillis / bucketMillis);
+        if (bucket == null) {
+            return;
+        }
+        long scaledPrice = scaled(price);
+        bucket.open.compareAndSet(Bucket.NONE, scaledPrice);
+        bucket.high.accumulateAndGet(scaledPrice, Math::max);
+        bucket.low.accumulateAndGet(scaledPrice, Math::min);
+        bucket.close.set(scaledPrice);
+        bucket.volume.add(scaled(size));
+        bucket.notional.add(scaled(size.multiply(price)));
+        // Counted last: readers skip buckets without trades, so they never see an unset price
+        bucket.trades.increment();
+    }
+
+    /**
+     * Buckets with trades between {@code fromMillis} (inclusive) and {@code toMillis}
+     * (exclusive) that are still in the ring, oldest first.
+     */
+    public List<StatsBucket> buckets(long fromMillis, long toMillis) {
+        long last = Math.floorDiv(toMillis - 1, bucketMillis);
+        long first = Math.max(Math.floorDiv(fromMillis, bucketMillis), last - ring.length() + 1);
+        List<StatsBucket> buckets = new ArrayList<>();
+        for (long index = first; index <= last; index++) {
+            Bucket bucket = ring.get(slot(index));
+            if (bucket != null && bucket.index == index && bucket.trades.sum() > 0) {
+                buckets.add(bucket.snapshot(bucketMillis));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * All retained buckets up to and including the one covering {@code nowMillis}.
+     */
+    public List<StatsBucket> window(long nowMillis) {
+        return buckets(Long.MIN_VALUE, (Math.floorDiv(nowMillis, bucketMillis) + 1) * bucketMillis);
+    }
+
+    private Bucket bucketFor(long index) {
+        int slot = slot(index);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.index >= index) {
+                // A newer bucket in the slot means this trade fell out of the window
+                return current.index == index ? current : null;
+            }
+            Bucket fresh = new Bucket(index);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) ring.length());
+    }
+
+    private static long scaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Bucket {
+
+        static final long NONE = Long.MIN_VALUE;
+
+        final long index;
+        final LongAdder trades = new LongAdder();
+        final LongAdder volume = new LongAdder();
+        final LongAdder notional = new LongAdder();
+        final AtomicLong open = new AtomicLong(NONE);
+        final AtomicLong high = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLong low = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong close = new AtomicLong(NONE);
+
+        Bucket(long index) {
+            this.index = index;
+        }
+
+        StatsBucket snapshot(long bucketMillis) {
+            return new StatsBucket(index * bucketMillis, bucketMillis, trades.sum(),
+                    BigDecimal.valueOf(volume.sum(), SCALE), BigDecimal.valueOf(notional.sum(), SCALE),
+                    BigDecimal.valueOf(open.get(), SCALE), BigDecimal.valueOf(high.get(), SCALE),
+                    BigDecimal.valueOf(low.get(), SCALE), BigDecimal.valueOf(close.get(), SCALE));
+        }
+    }
+}
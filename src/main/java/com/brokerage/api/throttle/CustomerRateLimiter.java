@@ -0,0 +1,50 @@
+package com.brokerage.api.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TokenBucket} per authenticated principal. Buckets are created on demand and
+ * dropped again once they have fully refilled, so idle customers cost nothing.
+ */
+@Component
+@Slf4j
+public class CustomerRateLimiter {
+    
+    private final double permitsPerSecond;
+    private final int burst;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    
+    public CustomerRateLimiter(@Value("${orders.intake.rate-limit.permits-per-second:20}") double permitsPerSecond,
+                               @Value("${orders.intake.rate-limit.burst:40}") int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+    
+    public boolean tryAcquire(String principal) {
+        return bucket(principal).tryAcquire();
+    }
+    
+    public long secondsUntilNextPermit(String principal) {
+        TokenBucket bucket = buckets.get(principal);
+        return bucket == null ? 0 : (long) Math.ceil(bucket.nanosUntilNextPermit() / 1_000_000_000.0);
+    }
+    
+    public int trackedCustomers() {
+        return buckets.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.intake.rate-limit.purge-interval:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+    
+    private TokenBucket bucket(String principal) {
+        return buckets.computeIfAbsent(principal, key -> new TokenBucket(permitsPerSecond, burst));
+    }
+}
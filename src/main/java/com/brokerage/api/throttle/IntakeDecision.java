@@ -0,0 +1,7 @@
+package com.brokerage.api.throttle;
+
+public enum IntakeDecision {
+    ADMITTED,
+    RATE_LIMITED,
+    OVERLOADED
+}
@@ -0,0 +1,109 @@
+package com.brokerage.api.throttle;
+
+import com.brokerage.api.bulkhead.Workload;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global concurrency limit for order intake that adapts to database pressure.
+ * <p>
+ * Every sample interval the mean acquire time of the order entry connection pool since the
+ * previous sample is compared with a target: above target the in-flight limit is cut multiplicatively,
+ * below it the limit grows back one step at a time (AIMD). Requests beyond the current
+ * limit are shed immediately instead of queueing for a connection.
+ */
+@Component
+@Slf4j
+public class LoadShedder {
+    
+    static final String POOL_ACQUIRE_TIMER = "hikaricp.connections.acquire";
+    
+    private final MeterRegistry meterRegistry;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double targetWaitMillis;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile double poolWaitMillis;
+    private long lastCount;
+    private double lastTotalMillis;
+    
+    public LoadShedder(MeterRegistry meterRegistry,
+                       @Value("${orders.intake.shedding.min-concurrency:4}") int minLimit,
+                       @Value("${orders.intake.shedding.max-concurrency:64}") int maxLimit,
+                       @Value("${orders.intake.shedding.target-pool-wait-millis:20}") double targetWaitMillis) {
+        this.meterRegistry = meterRegistry;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetWaitMillis = targetWaitMillis;
+        this.limit = maxLimit;
+        
+        Gauge.builder("orders.intake.in_flight", inFlight, AtomicInteger::get)
+                .description("Order intake requests currently being processed")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.concurrency_limit", this, shedder -> shedder.limit)
+                .description("Current adaptive order intake concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.pool_wait", this, shedder -> shedder.poolWaitMillis)
+                .description("Mean order entry connection pool acquire time over the last sample, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+    
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.intake.shedding.sample-interval:1000}")
+    public synchronized void adapt() {
+        long count = 0;
+        double totalMillis = 0;
+        for (Timer timer : meterRegistry.find(POOL_ACQUIRE_TIMER).tag("pool", Workload.ORDER_ENTRY.key()).timers()) {
+            count += timer.count();
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        long samples = count - lastCount;
+        double meanWait = samples > 0 ? (totalMillis - lastTotalMillis) / samples : 0;
+        lastCount = count;
+        lastTotalMillis = totalMillis;
+        adapt(meanWait);
+    }
+    
+    synchronized void adapt(double meanWaitMillis) {
+        poolWaitMillis = meanWaitMillis;
+        int previous = limit;
+        if (meanWaitMillis > targetWaitMillis) {
+            limit = Math.max(minLimit, (int) (previous * 0.75));
+        } else if (previous < maxLimit) {
+            limit = previous + 1;
+        }
+        if (limit != previous) {
+            log.debug("Order intake concurrency limit {} -> {} (pool wait {} ms)", previous, limit, meanWaitMillis);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.brokerage.api.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control for order intake: a per-customer rate limit for fairness, then the
+ * global adaptive {@link LoadShedder}. Every {@link IntakeDecision#ADMITTED} decision
+ * must be paired with a {@link #release()}.
+ */
+@Component
+public class OrderIntakeThrottle {
+    
+    private final CustomerRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+    
+    public OrderIntakeThrottle(CustomerRateLimiter rateLimiter, LoadShedder loadShedder, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.admitted = Counter.builder("orders.intake.requests").tag("outcome", "admitted").register(meterRegistry);
+        this.rateLimited = Counter.builder("orders.intake.requests").tag("outcome", "rate_limited").register(meterRegistry);
+        this.overloaded = Counter.builder("orders.intake.requests").tag("outcome", "overloaded").register(meterRegistry);
+    }
+    
+    public IntakeDecision admit(String principal) {
+        if (!rateLimiter.tryAcquire(principal)) {
+            rateLimited.increment();
+            return IntakeDecision.RATE_LIMITED;
+        }
+        if (!loadShedder.tryAcquire()) {
+            overloaded.increment();
+            return IntakeDecision.OVERLOADED;
+        }
+        admitted.increment();
+        return IntakeDecision.ADMITTED;
+    }
+    
+    public void release() {
+        loadShedder.release();
+    }
+    
+    public long retryAfterSeconds(String principal) {
+        return Math.max(1, rateLimiter.secondsUntilNextPermit(principal));
+    }
+}
@@ -0,0 +1,82 @@
+package com.brokerage.api.throttle;
+
+import com.brokerage.api.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link OrderIntakeThrottle} to {@code POST /orders}. Runs after authorization
+ * so only authenticated, permitted requests consume a customer's tokens.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIntakeThrottleFilter extends OncePerRequestFilter {
+    
+    private final OrderIntakeThrottle throttle;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !("POST".equals(request.getMethod()) && "/orders".equals(path));
+    }
+    
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain filterChain) throws ServletException, IOException {
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String principal = authentication.getName();
+        IntakeDecision decision = throttle.admit(principal);
+        switch (decision) {
+            case RATE_LIMITED -> {
+                log.warn("Order intake rate limit exceeded for user: {}", principal);
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS, throttle.retryAfterSeconds(principal),
+                        ErrorResponse.of("RATE_001", "Too many order requests. Please slow down."));
+            }
+            case OVERLOADED -> {
+                log.warn("Order intake overloaded, shedding request from user: {}", principal);
+                reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                        ErrorResponse.of("RATE_002", "Order service is temporarily overloaded. Please retry shortly."));
+            }
+            default -> {
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    throttle.release();
+                }
+            }
+        }
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long retryAfterSeconds, ErrorResponse error) throws IOException {
+        error.setPath("uri=" + request.getRequestURI());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
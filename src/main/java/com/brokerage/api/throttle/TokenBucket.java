@@ -0,0 +1,57 @@
+package com.brokerage.api.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The bucket is stored as a single "theoretical arrival time"
+ * (the GCRA formulation): refilling is implicit in the passage of time and taking a
+ * token is one compare-and-set, so concurrent callers never block each other.
+ */
+public class TokenBucket {
+    
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+    
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+    
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = current == Long.MIN_VALUE ? now : Math.max(current, now);
+            if (tat - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Nanoseconds until the next token becomes available, 0 if one is available now.
+     */
+    public long nanosUntilNextPermit() {
+        long now = System.nanoTime();
+        long current = theoreticalArrival.get();
+        return current == Long.MIN_VALUE ? 0 : Math.max(0, current - burstToleranceNanos - now);
+    }
+    
+    /**
+     * True when the bucket has fully refilled and is indistinguishable from a new one.
+     */
+    boolean isIdle(long now) {
+        long current = theoreticalArrival.get();
+        return current == Long.MIN_VALUE || current <= now;
+    }
+}
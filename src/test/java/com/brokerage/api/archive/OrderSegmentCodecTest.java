@@ -0,0 +1,96 @@
+package com.brokerage.api.archive;
+
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSegmentCodecTest {
+    
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    
+    @Test
+    void decode_RoundTripsAllColumns() {
+        // Given
+        List<ArchivedOrder> orders = List.of(
+                order(10L, MONTH_START.plusHours(9).plusNanos(123_456_000), "AAPL", OrderSide.BUY, OrderStatus.MATCHED,
+                        TimeInForce.GTC, "10.5", "150.1234", null),
+                order(12L, MONTH_START.plusDays(1), "GOOGL", OrderSide.SELL, OrderStatus.EXPIRED,
+                        TimeInForce.GTD, "1", "2800", MONTH_START.plusDays(2)),
+                order(11L, MONTH_START.plusDays(2), "AAPL", OrderSide.SELL, OrderStatus.CANCELED,
+                        TimeInForce.DAY, "0.0001", "99999.9999", MONTH_START.plusDays(2).plusHours(18)));
+        
+        // When
+        byte[] segment = OrderSegmentCodec.encode(1L, orders);
+        List<ArchivedOrder> decoded = OrderSegmentCodec.decode(ByteBuffer.wrap(segment), Long.MIN_VALUE, Long.MAX_VALUE);
+        
+        // Then
+        assertEquals(orders, decoded);
+    }
+    
+    @Test
+    void decode_ReturnsOnlyRowsInRange() {
+        // Given
+        List<ArchivedOrder> orders = new ArrayList<>();
+        for (int day = 0; day < 30; day++) {
+            orders.add(order(100L + day, MONTH_START.plusDays(day), "AAPL", OrderSide.BUY, OrderStatus.MATCHED,
+                    TimeInForce.GTC, "1", "100", null));
+        }
+        ByteBuffer segment = ByteBuffer.wrap(OrderSegmentCodec.encode(1L, orders));
+        
+        // When
+        List<ArchivedOrder> decoded = OrderSegmentCodec.decode(segment,
+                OrderSegmentCodec.toMicros(MONTH_START.plusDays(10)), OrderSegmentCodec.toMicros(MONTH_START.plusDays(12)));
+        
+        // Then
+        assertEquals(List.of(110L, 111L, 112L), decoded.stream().map(ArchivedOrder::getId).toList());
+    }
+    
+    @Test
+    void readHeader_SkipsSegmentsOutsideRange() {
+        // Given
+        ByteBuffer segment = ByteBuffer.wrap(OrderSegmentCodec.encode(1L, List.of(
+                order(1L, MONTH_START, "AAPL", OrderSide.BUY, OrderStatus.MATCHED, TimeInForce.GTC, "1", "1", null))));
+        
+        // When
+        OrderSegmentCodec.SegmentHeader header = OrderSegmentCodec.readHeader(segment);
+        
+        // Then
+        assertEquals(1, header.rowCount());
+        assertFalse(header.overlaps(OrderSegmentCodec.toMicros(MONTH_START.plusSeconds(1)), Long.MAX_VALUE));
+        assertTrue(OrderSegmentCodec.decode(segment, OrderSegmentCodec.toMicros(MONTH_START.plusSeconds(1)), Long.MAX_VALUE).isEmpty());
+    }
+    
+    @Test
+    void encode_IsFarSmallerThanRowStorage() {
+        // Given: a busy month, a few hundred orders a day over a handful of assets
+        List<ArchivedOrder> orders = new ArrayList<>();
+        String[] assets = {"AAPL", "GOOGL", "MSFT", "TSLA"};
+        for (int i = 0; i < 10_000; i++) {
+            orders.add(order(1_000L + i, MONTH_START.plusSeconds(i * 250L), assets[i % assets.length],
+                    i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL, OrderStatus.MATCHED, TimeInForce.GTC,
+                    String.valueOf(1 + i % 50), "150." + (i % 100), null));
+        }
+        
+        // When
+        byte[] segment = OrderSegmentCodec.encode(1L, orders);
+        
+        // Then: well under 16 bytes per order
+        assertTrue(segment.length < orders.size() * 16, "segment size " + segment.length);
+    }
+    
+    private ArchivedOrder order(Long id, LocalDateTime createDate, String assetName, OrderSide side, OrderStatus status,
+                                TimeInForce timeInForce, String size, String price, LocalDateTime expireAt) {
+        return new ArchivedOrder(id, 1L, assetName, side, new BigDecimal(size).setScale(4), new BigDecimal(price).setScale(4),
+                status, createDate, timeInForce, expireAt, null);
+    }
+}
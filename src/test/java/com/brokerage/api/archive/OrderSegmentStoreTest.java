@@ -0,0 +1,67 @@
+package com.brokerage.api.archive;
+
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSegmentStoreTest {
+    
+    @TempDir
+    Path directory;
+    
+    private OrderSegmentStore store;
+    
+    @BeforeEach
+    void setUp() {
+        store = new OrderSegmentStore(directory.toString());
+    }
+    
+    @Test
+    void write_MergesRepeatedWritesById() {
+        // Given
+        store.write(1L, YearMonth.of(2024, 3), List.of(order(1L, LocalDateTime.of(2024, 3, 5, 10, 0)),
+                order(2L, LocalDateTime.of(2024, 3, 6, 10, 0))));
+        
+        // When
+        store.write(1L, YearMonth.of(2024, 3), List.of(order(2L, LocalDateTime.of(2024, 3, 6, 10, 0)),
+                order(3L, LocalDateTime.of(2024, 3, 1, 10, 0))));
+        
+        // Then
+        List<ArchivedOrder> orders = store.read(1L, LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 31, 0, 0));
+        assertEquals(List.of(3L, 1L, 2L), orders.stream().map(ArchivedOrder::getId).toList());
+    }
+    
+    @Test
+    void read_OnlyOpensSegmentsOfRequestedMonthsAndCustomer() {
+        // Given
+        store.write(1L, YearMonth.of(2024, 1), List.of(order(1L, LocalDateTime.of(2024, 1, 15, 10, 0))));
+        store.write(1L, YearMonth.of(2024, 2), List.of(order(2L, LocalDateTime.of(2024, 2, 15, 10, 0))));
+        store.write(2L, YearMonth.of(2024, 2), List.of(order(3L, LocalDateTime.of(2024, 2, 16, 10, 0))));
+        
+        // When
+        List<ArchivedOrder> orders = store.read(1L, LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 12, 31, 0, 0));
+        
+        // Then
+        assertEquals(List.of(2L), orders.stream().map(ArchivedOrder::getId).toList());
+        assertTrue(store.read(9L, LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 12, 31, 0, 0)).isEmpty());
+        assertEquals(Optional.of(YearMonth.of(2024, 2)), store.findLatestMonth());
+    }
+    
+    private ArchivedOrder order(Long id, LocalDateTime createDate) {
+        return new ArchivedOrder(id, 1L, "AAPL", OrderSide.BUY, new BigDecimal("1.0000"), new BigDecimal("100.0000"),
+                OrderStatus.MATCHED, createDate, TimeInForce.GTC, null, null);
+    }
+}
@@ -0,0 +1,151 @@
+package com.brokerage.api.bulkhead;
+
+import com.brokerage.api.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkheadInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bulkheads.entry.max-concurrent", "2")
+                .withProperty("bulkheads.reads.max-concurrent", "1");
+        interceptor = new BulkheadInterceptor(new Bulkheads(environment, meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.clear();
+    }
+
+    @Test
+    void preHandle_RejectsOverLimitWithoutTouchingOtherBulkheads() throws Exception {
+        // Given: order entry full
+        HandlerMethod place = handler("place");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, response, place));
+        assertTrue(interceptor.preHandle(second, response, place));
+
+        // When & Then
+        BulkheadFullException exception = assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, place));
+        assertEquals("entry", exception.getBulkhead());
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(read, response, handler("list")));
+        assertEquals(Workload.READS, WorkloadContext.current());
+        interceptor.afterCompletion(read, response, handler("list"), null);
+        assertNull(WorkloadContext.current());
+
+        // A finished request frees its slot, once
+        interceptor.afterCompletion(first, response, place, null);
+        interceptor.afterCompletion(first, response, place, null);
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, place));
+        assertEquals(2, meterRegistry.get("bulkhead.in_flight").tag("bulkhead", "entry").gauge().value());
+        assertEquals(3, count("entry", "admitted"));
+        assertEquals(1, count("entry", "rejected"));
+    }
+
+    @Test
+    void preHandle_MethodAnnotationOverridesController() throws Exception {
+        assertEquals(Workload.ORDER_ENTRY, BulkheadInterceptor.workloadOf(handler("place")));
+        assertEquals(Workload.READS, BulkheadInterceptor.workloadOf(handler("list")));
+        assertNull(BulkheadInterceptor.workloadOf(new HandlerMethod(new Unbounded(), Unbounded.class.getMethod("ping"))));
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_StreamLeavesBulkhead() throws Exception {
+        // Given
+        HandlerMethod list = handler("list");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(request, response, list));
+
+        // When
+        interceptor.afterConcurrentHandlingStarted(request, response, list);
+
+        // Then: the slot is free, and the async dispatch neither acquires nor releases
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, list));
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, list));
+        interceptor.afterCompletion(request, response, list, null);
+        assertEquals(1, meterRegistry.get("bulkhead.in_flight").tag("bulkhead", "reads").gauge().value());
+    }
+
+    @Test
+    void routingDataSource_ConnectsFromCurrentWorkloadsPool() throws Exception {
+        // Given
+        HikariDataSource entry = pool();
+        HikariDataSource reads = pool();
+        HikariDataSource admin = pool();
+        HikariDataSource background = pool();
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(
+                Map.of(Workload.ORDER_ENTRY, entry, Workload.READS, reads, Workload.ADMIN, admin), background);
+        dataSource.afterPropertiesSet();
+
+        // When & Then
+        assertSame(background.getConnection(), dataSource.getConnection());
+        WorkloadContext.set(Workload.READS);
+        assertSame(reads.getConnection(), dataSource.getConnection());
+        WorkloadContext.bound(Workload.ORDER_ENTRY, () -> {
+            try {
+                assertSame(entry.getConnection(), dataSource.getConnection());
+            } catch (Exception e) {
+                fail(e);
+            }
+        }).run();
+        assertNull(WorkloadContext.current());
+    }
+
+    private double count(String bulkhead, String outcome) {
+        return meterRegistry.get("bulkhead.requests").tag("bulkhead", bulkhead).tag("outcome", outcome).counter().count();
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Orders(), Orders.class.getMethod(name));
+    }
+
+    private static HikariDataSource pool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+
+    @RunsIn(Workload.ORDER_ENTRY)
+    static class Orders {
+
+        public void place() {
+        }
+
+        @RunsIn(Workload.READS)
+        public void list() {
+        }
+    }
+
+    static class Unbounded {
+
+        public void ping() {
+        }
+    }
+}
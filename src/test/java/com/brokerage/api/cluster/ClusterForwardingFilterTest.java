@@ -0,0 +1,114 @@
+package com.brokerage.api.cluster;
+
+import com.brokerage.api.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterForwardingFilterTest {
+
+    private static final String SELF = "http://127.0.0.1:8081";
+    private static final String OWNER = "http://127.0.0.1:8082";
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    @Mock
+    private ClusterClient clusterClient;
+
+    @Mock
+    private CustomerService customerService;
+
+    private ClusterForwardingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ClusterForwardingFilter(clusterMembership, clusterClient, customerService, new ObjectMapper());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "john.doe", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        lenient().when(clusterMembership.isEnabled()).thenReturn(true);
+        lenient().when(clusterMembership.getSelf()).thenReturn(SELF);
+        lenient().when(clusterMembership.owns(2L)).thenReturn(false);
+        lenient().when(clusterMembership.ownerOf(2L)).thenReturn(OWNER);
+        lenient().when(clusterClient.isClusterSecret("cluster-secret")).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void forwardedHeaderWithoutSecret_StillForwardedToOwner() throws Exception {
+        // Given
+        HttpResponse<byte[]> ownerResponse = ownerResponse();
+        when(clusterClient.forward(eq(OWNER), eq(SELF), eq("GET"), any(), anyMap(), isNull())).thenReturn(ownerResponse);
+        MockHttpServletRequest request = assetsRequest();
+        request.addHeader(ClusterClient.FORWARDED_HEADER, "http://127.0.0.1:9999");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(chain.getRequest());
+        verify(clusterClient).forward(eq(OWNER), eq(SELF), eq("GET"), any(), anyMap(), isNull());
+    }
+
+    @Test
+    void forwardedByPeer_ServedWhereItLands() throws Exception {
+        // Given
+        MockHttpServletRequest request = assetsRequest();
+        request.addHeader(ClusterClient.FORWARDED_HEADER, OWNER);
+        request.addHeader(ClusterClient.SECRET_HEADER, "cluster-secret");
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertEquals(SELF, response.getHeader(ClusterClient.NODE_HEADER));
+        verify(clusterClient, never()).forward(any(), any(), any(), any(), anyMap(), any());
+    }
+
+    private static MockHttpServletRequest assetsRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/assets");
+        request.setContextPath("/api/v1");
+        request.setParameter("customerId", "2");
+        request.setQueryString("customerId=2");
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<byte[]> ownerResponse() {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(response.body()).thenReturn(new byte[0]);
+        return response;
+    }
+}
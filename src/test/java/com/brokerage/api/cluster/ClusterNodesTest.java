@@ -0,0 +1,193 @@
+package com.brokerage.api.cluster;
+
+import com.brokerage.api.BrokerageApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts three brokerage-api JVMs in cluster mode on loopback and checks that customer requests are served
+ * by the owning node, and that ownership moves when a node leaves and comes back. Takes about a minute,
+ * so it only runs when asked for:
+ * <pre>
+ * mvn test -Dtest=ClusterNodesTest -Dcluster.it=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "cluster.it", matches = "true")
+class ClusterNodesTest {
+
+    private static final String SECRET = "cluster-test-secret";
+    private static final long CUSTOMER_ID = 2L;
+    private static final String ORDER = "{\"customerId\":2,\"assetName\":\"AAPL\",\"orderSide\":\"BUY\",\"size\":1,\"price\":1}";
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Process> nodes = new HashMap<>();
+
+    @TempDir
+    Path dataDir;
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(Process::destroyForcibly);
+    }
+
+    @Test
+    void cluster_ServesCustomersOnOwnerAndRebalances() throws Exception {
+        // Given: three nodes, started one after another so only one creates the sample data
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            urls.add("http://127.0.0.1:" + freePort());
+        }
+        for (String url : urls) {
+            start(url, String.join(",", urls));
+        }
+        String adminToken = login(urls.get(0), "admin", "admin123");
+        String token = login(urls.get(0), "john.doe", "password123");
+        for (String url : urls) {
+            awaitMembers(url, adminToken, 3);
+        }
+
+        // When: the order is sent to a node that doesn't own the customer
+        String owner = new ConsistentHashRing(urls, 128).ownerOf(CUSTOMER_ID);
+        String other = urls.stream().filter(url -> !url.equals(owner)).findFirst().orElseThrow();
+        HttpResponse<String> placed = placeOrder(other, token);
+
+        // Then: the owner served it, and every node answers for the customer from the owner
+        assertEquals(200, placed.statusCode(), placed.body());
+        assertEquals(owner, placed.headers().firstValue(ClusterClient.NODE_HEADER).orElse(null));
+        for (String url : urls) {
+            HttpResponse<String> assets = get(url + "/api/v1/assets?customerId=" + CUSTOMER_ID, token);
+            assertEquals(200, assets.statusCode());
+            assertEquals(owner, assets.headers().firstValue(ClusterClient.NODE_HEADER).orElse(null));
+        }
+
+        // When: the owner leaves
+        nodes.remove(owner).destroyForcibly().waitFor(30, TimeUnit.SECONDS);
+        List<String> remaining = urls.stream().filter(url -> !url.equals(owner)).toList();
+        for (String url : remaining) {
+            awaitMembers(url, adminToken, 2);
+        }
+
+        // Then: one of the remaining nodes took the customer over
+        String newOwner = new ConsistentHashRing(remaining, 128).ownerOf(CUSTOMER_ID);
+        for (String url : remaining) {
+            HttpResponse<String> response = placeOrder(url, token);
+            assertEquals(200, response.statusCode(), response.body());
+            assertEquals(newOwner, response.headers().firstValue(ClusterClient.NODE_HEADER).orElse(null));
+        }
+
+        // When: the node comes back, it owns the customer again
+        start(owner, String.join(",", urls));
+        for (String url : urls) {
+            awaitMembers(url, adminToken, 3);
+        }
+        HttpResponse<String> rejoined = placeOrder(other, token);
+        assertEquals(200, rejoined.statusCode(), rejoined.body());
+        assertEquals(owner, rejoined.headers().firstValue(ClusterClient.NODE_HEADER).orElse(null));
+    }
+
+    private void start(String url, String members) throws Exception {
+        String port = url.substring(url.lastIndexOf(':') + 1);
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                BrokerageApplication.class.getName(),
+                "--spring.profiles.active=cluster",
+                "--server.port=" + port,
+                "--orders.cluster.self=" + url,
+                "--orders.cluster.nodes=" + members,
+                "--orders.cluster.secret=" + SECRET,
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("brokeragedb") + ";AUTO_SERVER=TRUE",
+                "--orders.archive.segments.directory=" + dataDir.resolve("order-segments"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.brokerage=INFO");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dataDir.resolve("node-" + port + ".log").toFile())
+                .start();
+        nodes.put(url, process);
+        await(() -> process.isAlive() && isUp(url), "node " + url + " to start");
+    }
+
+    private boolean isUp(String url) {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/actuator/health")).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private void awaitMembers(String url, String adminToken, int expected) throws Exception {
+        await(() -> {
+            try {
+                HttpResponse<String> response = get(url + "/api/v1/cluster/members", adminToken);
+                return response.statusCode() == 200 && objectMapper.readTree(response.body()).get("members").size() == expected;
+            } catch (Exception e) {
+                return false;
+            }
+        }, url + " to see " + expected + " members");
+    }
+
+    private String login(String url, String username, String password) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    private HttpResponse<String> placeOrder(String url, String token) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/orders"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String url, String token) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(90);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + what);
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.brokerage.api.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://127.0.0.1:8081", "http://127.0.0.1:8082", "http://127.0.0.1:8083");
+    private static final int CUSTOMERS = 30_000;
+
+    @Test
+    void ownerOf_SameMembersInAnyOrder_SameOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(1), NODES.get(0)), 128);
+
+        for (long customerId = 1; customerId <= 1_000; customerId++) {
+            assertEquals(ring.ownerOf(customerId), reversed.ownerOf(customerId));
+        }
+    }
+
+    @Test
+    void ownerOf_SpreadsCustomersEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            owned.merge(ring.ownerOf(customerId), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > CUSTOMERS * 0.25 && count < CUSTOMERS * 0.42, "owned " + count));
+    }
+
+    @Test
+    void ownerOf_NodeJoins_OnlyMovesCustomersToNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        String joined = "http://127.0.0.1:8084";
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), joined), 128);
+
+        int moved = 0;
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            String owner = after.ownerOf(customerId);
+            if (!owner.equals(before.ownerOf(customerId))) {
+                assertEquals(joined, owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > CUSTOMERS * 0.15 && moved < CUSTOMERS * 0.35, "moved " + moved);
+    }
+
+    @Test
+    void ownerOf_NodeLeaves_OnlyItsCustomersMove() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(2)), 128);
+
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            String owner = before.ownerOf(customerId);
+            if (!owner.equals(NODES.get(1))) {
+                assertEquals(owner, after.ownerOf(customerId));
+            }
+        }
+    }
+
+    @Test
+    void ownerOf_EmptyRing_Throws() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+
+        assertThrows(IllegalStateException.class, () -> ring.ownerOf(1L));
+    }
+}
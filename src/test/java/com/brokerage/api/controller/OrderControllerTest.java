@@ -1,13 +1,28 @@
 package com.brokerage.api.controller;
 
+import com.brokerage.api.bulkhead.Bulkhead;
+import com.brokerage.api.bulkhead.Bulkheads;
+import com.brokerage.api.bulkhead.Workload;
+import com.brokerage.api.cluster.ClusterClient;
+import com.brokerage.api.cluster.ClusterMembership;
+import com.brokerage.api.dto.BulkMatchRequest;
+import com.brokerage.api.dto.BulkMatchResponse;
 import com.brokerage.api.dto.CreateOrderRequest;
 import com.brokerage.api.dto.MatchOrderRequest;
+import com.brokerage.api.dto.OrderIntakeResponse;
 import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.history.ConsistencyToken;
+import com.brokerage.api.history.OrderHistoryProjector;
+import com.brokerage.api.json.ListResponseWriter;
 import com.brokerage.api.model.Customer;
 import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.service.CustomerService;
+import com.brokerage.api.service.OrderMatchingService;
 import com.brokerage.api.service.OrderService;
+import com.brokerage.api.service.OrderStreamService;
 import com.brokerage.api.service.JwtService;
+import com.brokerage.api.throttle.IntakeDecision;
+import com.brokerage.api.throttle.OrderIntakeThrottle;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +34,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -26,6 +42,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -44,8 +61,32 @@ class OrderControllerTest {
     @MockBean
     private CustomerService customerService;
     
+    @MockBean
+    private OrderStreamService orderStreamService;
+    
+    @MockBean
+    private OrderMatchingService orderMatchingService;
+    
+    @MockBean
+    private ListResponseWriter listResponseWriter;
+    
+    @MockBean
+    private OrderHistoryProjector orderHistoryProjector;
+    
     @MockBean
     private JwtService jwtService;
+    
+    @MockBean
+    private OrderIntakeThrottle orderIntakeThrottle;
+    
+    @MockBean
+    private ClusterMembership clusterMembership;
+    
+    @MockBean
+    private Bulkheads bulkheads;
+    
+    @MockBean
+    private ClusterClient clusterClient;
 
     @MockBean
     private org.springframework.security.authentication.AuthenticationProvider authenticationProvider;
@@ -86,6 +127,11 @@ class OrderControllerTest {
         adminCustomer.setId(999L);
         adminCustomer.setUsername("admin");
         adminCustomer.setAdmin(true);
+        
+        when(orderIntakeThrottle.admit(any())).thenReturn(IntakeDecision.ADMITTED);
+        Bulkhead open = mock(Bulkhead.class);
+        when(open.tryAcquire()).thenReturn(true);
+        when(bulkheads.get(any())).thenReturn(open);
     }
     
     @Test
@@ -93,7 +139,7 @@ class OrderControllerTest {
     void createOrder_Success() throws Exception {
         // Given
         when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
-        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(orderResponse);
+        when(orderService.createOrder(any(CreateOrderRequest.class), isNull())).thenReturn(orderResponse);
         
         // When & Then
         mockMvc.perform(post("/orders")
@@ -105,7 +151,7 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.assetName").value("AAPL"))
                 .andExpect(jsonPath("$.orderSide").value("BUY"));
         
-        verify(orderService).createOrder(any(CreateOrderRequest.class));
+        verify(orderService).createOrder(any(CreateOrderRequest.class), isNull());
     }
     
     @Test
@@ -113,7 +159,7 @@ class OrderControllerTest {
     void createOrder_AdminUser_Success() throws Exception {
         // Given
         when(customerService.getCustomerByUsername("admin")).thenReturn(adminCustomer);
-        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(orderResponse);
+        when(orderService.createOrder(any(CreateOrderRequest.class), isNull())).thenReturn(orderResponse);
         
         // When & Then
         mockMvc.perform(post("/orders")
@@ -122,7 +168,7 @@ class OrderControllerTest {
                         .content(objectMapper.writeValueAsString(createOrderRequest)))
                 .andExpect(status().isOk());
         
-        verify(orderService).createOrder(any(CreateOrderRequest.class));
+        verify(orderService).createOrder(any(CreateOrderRequest.class), isNull());
     }
     
     @Test
@@ -139,7 +185,163 @@ class OrderControllerTest {
                         .content(objectMapper.writeValueAsString(createOrderRequest)))
                 .andExpect(status().isForbidden());
         
-        verify(orderService, never()).createOrder(any(CreateOrderRequest.class));
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_PreferRespondAsync_AcceptedWithStatusLocation() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.acceptOrder(any(CreateOrderRequest.class), eq("key-1"))).thenReturn(OrderIntakeResponse.accepted("key-1"));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .header("Prefer", "respond-async, wait=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(header().string("Location", "http://localhost/orders/intake/key-1?customerId=1"))
+                .andExpect(jsonPath("$.reference").value("key-1"))
+                .andExpect(jsonPath("$.status").value("ACCEPTED"));
+        
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_OtherPreference_PlacedSynchronously() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.createOrder(any(CreateOrderRequest.class), isNull())).thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .header("Prefer", "return=minimal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        
+        verify(orderService, never()).acceptOrder(any(), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void getIntakeStatus_OnlyForOwnOrders() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.getIntakeStatus(1L, "key-1")).thenReturn(OrderIntakeResponse.placed("key-1", orderResponse));
+        
+        // When & Then
+        mockMvc.perform(get("/orders/intake/key-1").param("customerId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PLACED"))
+                .andExpect(jsonPath("$.order.id").value(1));
+        mockMvc.perform(get("/orders/intake/key-1").param("customerId", "2"))
+                .andExpect(status().isForbidden());
+        
+        verify(orderService, never()).getIntakeStatus(eq(2L), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void listOrders_ReadsBulkheadFull_ServiceUnavailableWhileOrdersFlow() throws Exception {
+        // Given
+        Bulkhead full = mock(Bulkhead.class);
+        when(bulkheads.get(Workload.READS)).thenReturn(full);
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.createOrder(any(CreateOrderRequest.class), isNull())).thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(get("/orders")
+                        .param("customerId", "1")
+                        .param("startDate", "2024-01-01T00:00:00")
+                        .param("endDate", "2024-01-31T23:59:59"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.errorCode").value("RATE_003"));
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isOk());
+        
+        verify(listResponseWriter, never()).writeOrders(any(), any(), any(), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_WithIdempotencyKey_PassesKeyToService() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.createOrder(any(CreateOrderRequest.class), eq("retry-123"))).thenReturn(orderResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        
+        verify(orderService).createOrder(any(CreateOrderRequest.class), eq("retry-123"));
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_OversizedIdempotencyKey_BadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .header("Idempotency-Key", "k".repeat(65))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isBadRequest());
+        
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_RateLimited_TooManyRequests() throws Exception {
+        // Given
+        when(orderIntakeThrottle.admit("john.doe")).thenReturn(IntakeDecision.RATE_LIMITED);
+        when(orderIntakeThrottle.retryAfterSeconds("john.doe")).thenReturn(2L);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value("RATE_001"));
+        
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any());
+        verify(orderIntakeThrottle, never()).release();
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_Overloaded_ServiceUnavailable() throws Exception {
+        // Given
+        when(orderIntakeThrottle.admit("john.doe")).thenReturn(IntakeDecision.OVERLOADED);
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errorCode").value("RATE_002"));
+        
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class), any());
     }
     
     @Test
@@ -151,8 +353,10 @@ class OrderControllerTest {
         List<OrderResponse> orders = Arrays.asList(orderResponse);
         
         when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
-        when(orderService.listOrders(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(orders);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write(objectMapper.writeValueAsBytes(orders));
+            return null;
+        }).when(listResponseWriter).writeOrders(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
         
         // When & Then
         mockMvc.perform(get("/orders")
@@ -160,10 +364,48 @@ class OrderControllerTest {
                         .param("startDate", startDate.toString())
                         .param("endDate", endDate.toString()))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].assetName").value("AAPL"));
         
-        verify(orderService).listOrders(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(listResponseWriter).writeOrders(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void listOrders_ReadModelCaughtUp_ServedFromOrderHistory() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderHistoryProjector.awaitReadable("k1.5")).thenReturn(new ConsistencyToken(36 * 20 + 1, 7));
+        
+        // When & Then
+        mockMvc.perform(get("/orders")
+                        .header(ConsistencyToken.HEADER, "k1.5")
+                        .param("customerId", "1")
+                        .param("startDate", LocalDateTime.now().minusDays(7).toString())
+                        .param("endDate", LocalDateTime.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ConsistencyToken.HEADER, "k1.7"));
+        
+        verify(listResponseWriter).writeOrderHistory(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+        verify(listResponseWriter, never()).writeOrders(any(), any(), any(), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void createOrder_ReadModelEnabled_ReturnsConsistencyToken() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        when(orderService.createOrder(any(CreateOrderRequest.class), isNull())).thenReturn(orderResponse);
+        when(orderHistoryProjector.issuedToken()).thenReturn(new ConsistencyToken(36 * 20 + 1, 5));
+        
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ConsistencyToken.HEADER, "k1.5"));
     }
     
     @Test
@@ -179,7 +421,21 @@ class OrderControllerTest {
                         .param("endDate", LocalDateTime.now().toString()))
                 .andExpect(status().isForbidden());
         
-        verify(orderService, never()).listOrders(any(), any(), any());
+        verify(listResponseWriter, never()).writeOrders(any(), any(), any(), any());
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void streamOrderEvents_UnauthorizedCustomer_Forbidden() throws Exception {
+        // Given
+        when(customerService.getCustomerByUsername("john.doe")).thenReturn(customer);
+        
+        // When & Then
+        mockMvc.perform(get("/orders/events")
+                        .param("customerId", "2"))
+                .andExpect(status().isForbidden());
+        
+        verify(orderStreamService, never()).subscribe(any(), any());
     }
     
     @Test
@@ -233,4 +489,41 @@ class OrderControllerTest {
         
         verify(orderService, never()).matchOrder(any());
     }
+    
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void matchOrders_AdminUser_Success() throws Exception {
+        // Given
+        BulkMatchRequest bulkRequest = new BulkMatchRequest();
+        bulkRequest.setOrderIds(Arrays.asList(1L, 2L, 3L));
+        
+        when(orderMatchingService.matchOrders(bulkRequest.getOrderIds()))
+                .thenReturn(new BulkMatchResponse(3, 2, 1, 5));
+        
+        // When & Then
+        mockMvc.perform(post("/orders/match")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+    
+    @Test
+    @WithMockUser(username = "john.doe")
+    void matchOrders_NonAdminUser_Forbidden() throws Exception {
+        // Given
+        BulkMatchRequest bulkRequest = new BulkMatchRequest();
+        bulkRequest.setAssetName("AAPL");
+        
+        // When & Then
+        mockMvc.perform(post("/orders/match")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkRequest)))
+                .andExpect(status().isForbidden());
+        
+        verify(orderMatchingService, never()).matchPendingOrders(any());
+    }
 }
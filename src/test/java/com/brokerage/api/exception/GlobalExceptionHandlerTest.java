@@ -3,6 +3,7 @@ package com.brokerage.api.exception;
 import com.brokerage.api.dto.ErrorResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -87,6 +88,21 @@ class GlobalExceptionHandlerTest {
         assertEquals("Order not found", response.getBody().getMessage());
     }
 
+    @Test
+    void handleDuplicateOrderException_ShouldReturnConflictStatus() {
+        // Given
+        DuplicateOrderException ex = new DuplicateOrderException("Duplicate order");
+
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleDuplicateOrderException(ex, webRequest);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("ORDER_004", response.getBody().getErrorCode());
+        assertEquals("Duplicate order", response.getBody().getMessage());
+    }
+
     @Test
     void handleCustomerNotFoundException_ShouldReturnNotFoundStatus() {
         // Given
@@ -188,4 +204,19 @@ class GlobalExceptionHandlerTest {
         assertEquals("AUTH_003", response.getBody().getErrorCode());
         assertEquals("Invalid JWT token", response.getBody().getMessage());
     }
+
+    @Test
+    void handleBulkheadFullException_ShouldReturnServiceUnavailableStatus() {
+        // Given
+        BulkheadFullException ex = new BulkheadFullException("reads");
+
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleBulkheadFullException(ex, webRequest);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("RATE_003", response.getBody().getErrorCode());
+    }
 }
@@ -0,0 +1,102 @@
+package com.brokerage.api.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+    
+    @Test
+    void advance_ExpiresEntriesAtTheirDeadline() {
+        // Given
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 8, 3, 0);
+        wheel.schedule(1L, 3_000);
+        wheel.schedule(2L, 5_500);
+        List<Long> expired = new ArrayList<>();
+        
+        // When & Then
+        wheel.advance(2_999, expired::add);
+        assertTrue(expired.isEmpty());
+        
+        wheel.advance(3_000, expired::add);
+        assertEquals(List.of(1L), expired);
+        
+        wheel.advance(5_999, expired::add);
+        assertEquals(List.of(1L), expired); // never fires before the deadline
+        
+        wheel.advance(6_000, expired::add);
+        assertEquals(List.of(1L, 2L), expired);
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void advance_CascadesFromHigherLevels() {
+        // Given: level 0 covers 8s, level 1 64s, level 2 512s
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 8, 3, 0);
+        wheel.schedule(1L, 30_000);
+        wheel.schedule(2L, 300_000);
+        List<Long> expired = new ArrayList<>();
+        
+        // When & Then
+        wheel.advance(29_000, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(30_000, expired::add);
+        assertEquals(List.of(1L), expired);
+        wheel.advance(299_000, expired::add);
+        assertEquals(List.of(1L), expired);
+        wheel.advance(300_000, expired::add);
+        assertEquals(List.of(1L, 2L), expired);
+    }
+    
+    @Test
+    void advance_HandlesDeadlinesBeyondTheTopLevel() {
+        // Given
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 4, 2, 0);
+        wheel.schedule(1L, 100_000); // beyond 16s range
+        List<Long> expired = new ArrayList<>();
+        
+        // When
+        wheel.advance(99_000, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(100_000, expired::add);
+        
+        // Then
+        assertEquals(List.of(1L), expired);
+    }
+    
+    @Test
+    void advance_PastDeadlinesExpireOnNextAdvance() {
+        // Given
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 8, 3, 10_000);
+        wheel.schedule(1L, 5_000);
+        List<Long> expired = new ArrayList<>();
+        
+        // When
+        wheel.advance(10_000, expired::add);
+        
+        // Then
+        assertEquals(List.of(1L), expired);
+    }
+    
+    @Test
+    void advance_SharedDeadlineExpiresInOneSweep() {
+        // Given
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 256, 4, 0);
+        int orders = 1_000_000;
+        for (long id = 0; id < orders; id++) {
+            wheel.schedule(id, 8 * 3_600_000L);
+        }
+        
+        // When
+        long[] count = new long[1];
+        int expired = wheel.advance(8 * 3_600_000L, id -> count[0]++);
+        
+        // Then
+        assertEquals(orders, expired);
+        assertEquals(orders, count[0]);
+        assertEquals(0, wheel.size());
+    }
+}
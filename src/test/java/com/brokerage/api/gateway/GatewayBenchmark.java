@@ -0,0 +1,117 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.BrokerageApplication;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.TimeInForce;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * Round-trip latency of placing and canceling an order through the binary gateway next to
+ * the same calls over REST (JSON, HTTP/1.1 keep-alive, JWT), against a locally started app.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.gateway.GatewayBenchmark [iterations]
+ * </pre>
+ */
+public class GatewayBenchmark {
+    
+    private static final long CUSTOMER_ID = 2L;
+    private static final String USERNAME = "john.doe";
+    private static final String PASSWORD = "password123";
+    private static final int WARMUP = 500;
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                .run("--server.port=0", "--orders.gateway.enabled=true", "--orders.gateway.port=0",
+                        "--orders.intake.rate-limit.permits-per-second=1000000", "--orders.intake.rate-limit.burst=1000000",
+                        "--orders.risk.max-open-orders=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.brokerage=WARN",
+                        "--logging.level.org.springframework.security=WARN")) {
+            int httpPort = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            int gatewayPort = context.getBean(OrderGatewayServer.class).getPort();
+            
+            System.out.printf("%d round trips each, place + cancel%n", iterations);
+            benchmarkRest(httpPort, context.getBean(ObjectMapper.class), iterations);
+            benchmarkGateway(gatewayPort, iterations);
+        }
+    }
+    
+    private static void benchmarkRest(int port, ObjectMapper objectMapper, int iterations) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://localhost:" + port + "/api/v1";
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(login.body()).get("token").asText();
+        String body = "{\"customerId\":" + CUSTOMER_ID + ",\"assetName\":\"AAPL\",\"orderSide\":\"BUY\",\"size\":0.0001,\"price\":1}";
+        
+        long[] place = new long[iterations];
+        long[] cancel = new long[iterations];
+        for (int i = -WARMUP; i < iterations; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(base + "/orders"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            long placed = System.nanoTime();
+            JsonNode order = objectMapper.readTree(created.body());
+            http.send(HttpRequest.newBuilder(URI.create(base + "/orders/" + order.get("id").asLong()))
+                    .header("Authorization", "Bearer " + token)
+                    .DELETE()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            long canceled = System.nanoTime();
+            if (i >= 0) {
+                place[i] = placed - start;
+                cancel[i] = canceled - placed;
+            }
+        }
+        report("REST place", place);
+        report("REST cancel", cancel);
+    }
+    
+    private static void benchmarkGateway(int port, int iterations) throws Exception {
+        try (GatewayClient client = new GatewayClient("localhost", port)) {
+            client.login(USERNAME, PASSWORD);
+            long[] place = new long[iterations];
+            long[] cancel = new long[iterations];
+            for (int i = -WARMUP; i < iterations; i++) {
+                long clientOrderId = i + WARMUP + 1;
+                long start = System.nanoTime();
+                GatewayMessage.Ack ack = client.newOrder(new GatewayMessage.NewOrder(clientOrderId, 0L, "AAPL", OrderSide.BUY,
+                        TimeInForce.GTC, new BigDecimal("0.0001"), BigDecimal.ONE, null));
+                long placed = System.nanoTime();
+                client.cancel(new GatewayMessage.Cancel(clientOrderId, ack.orderId()));
+                long canceled = System.nanoTime();
+                if (i >= 0) {
+                    place[i] = placed - start;
+                    cancel[i] = canceled - placed;
+                }
+            }
+            report("Gateway place", place);
+            report("Gateway cancel", cancel);
+        }
+    }
+    
+    private static void report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-16s mean %7.1f us   p50 %7.1f us   p99 %7.1f us%n", name,
+                Arrays.stream(sorted).average().orElse(0) / 1e3,
+                sorted[sorted.length / 2] / 1e3,
+                sorted[(int) (sorted.length * 0.99)] / 1e3);
+    }
+}
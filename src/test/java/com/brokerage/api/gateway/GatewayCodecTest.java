@@ -0,0 +1,66 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayCodecTest {
+    
+    @Test
+    void decode_RoundTripsEveryMessageType() {
+        // Given
+        List<GatewayMessage> messages = List.of(
+                new GatewayMessage.Login("john.doe", "password123"),
+                new GatewayMessage.LoginAck(GatewayResult.ACCEPTED, 2L),
+                new GatewayMessage.NewOrder(42L, 0L, "AAPL", OrderSide.SELL, TimeInForce.GTD,
+                        new BigDecimal("1.5000"), new BigDecimal("150.2500"), LocalDateTime.of(2030, 1, 2, 18, 0)),
+                new GatewayMessage.NewOrder(43L, 2L, "GOOGL", OrderSide.BUY, TimeInForce.GTC,
+                        new BigDecimal("10.0000"), new BigDecimal("0.0001"), null),
+                new GatewayMessage.Cancel(44L, 7L),
+                new GatewayMessage.Ack(42L, 7L, GatewayResult.ACCEPTED, OrderStatus.PENDING),
+                new GatewayMessage.Ack(43L, 0L, GatewayResult.INSUFFICIENT_FUNDS, null));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        
+        // When
+        messages.forEach(message -> GatewayCodec.encode(message, buffer));
+        buffer.flip();
+        
+        // Then
+        for (GatewayMessage message : messages) {
+            assertEquals(message, GatewayCodec.decode(buffer));
+        }
+        assertNull(GatewayCodec.decode(buffer));
+    }
+    
+    @Test
+    void decode_IncompleteMessage_ReturnsNullAndKeepsBytes() {
+        // Given
+        ByteBuffer encoded = ByteBuffer.allocate(GatewayCodec.MAX_MESSAGE_SIZE);
+        GatewayCodec.encode(new GatewayMessage.Cancel(1L, 2L), encoded);
+        encoded.flip();
+        ByteBuffer partial = ByteBuffer.allocate(64);
+        partial.put(encoded.array(), 0, 10).flip();
+        
+        // When & Then
+        assertNull(GatewayCodec.decode(partial));
+        assertEquals(0, partial.position());
+        
+        partial.position(partial.limit()).limit(partial.capacity());
+        partial.put(encoded.array(), 10, encoded.limit() - 10).flip();
+        assertEquals(new GatewayMessage.Cancel(1L, 2L), GatewayCodec.decode(partial));
+    }
+    
+    @Test
+    void decode_UnknownType_ThrowsException() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {99, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> GatewayCodec.decode(buffer));
+    }
+}
@@ -0,0 +1,196 @@
+package com.brokerage.api.gateway;
+
+import com.brokerage.api.cluster.ClusterMembership;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.exception.AuthenticationException;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import com.brokerage.api.service.CustomerService;
+import com.brokerage.api.service.OrderService;
+import com.brokerage.api.throttle.IntakeDecision;
+import com.brokerage.api.throttle.OrderIntakeThrottle;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderGatewayServerTest {
+    
+    @Mock
+    private OrderService orderService;
+    
+    @Mock
+    private CustomerService customerService;
+    
+    @Mock
+    private OrderIntakeThrottle throttle;
+    
+    @Mock
+    private ClusterMembership clusterMembership;
+    
+    private OrderGatewayServer server;
+    private GatewayClient client;
+    private Customer customer;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new OrderGatewayServer(orderService, customerService, throttle,
+                Validation.buildDefaultValidatorFactory().getValidator(), clusterMembership, 0, 2);
+        server.start();
+        client = new GatewayClient("localhost", server.getPort());
+        
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setUsername("john.doe");
+        lenient().when(customerService.authenticate("john.doe", "password123")).thenReturn(customer);
+        lenient().when(throttle.admit(anyString())).thenReturn(IntakeDecision.ADMITTED);
+        lenient().when(clusterMembership.owns(any())).thenReturn(true);
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+    
+    @Test
+    void newOrder_BeforeLogin_Rejected() throws Exception {
+        // When
+        GatewayMessage.Ack ack = client.newOrder(newOrder(1L, 0L, "10"));
+        
+        // Then
+        assertEquals(GatewayResult.NOT_LOGGED_IN, ack.result());
+        verifyNoInteractions(orderService);
+    }
+    
+    @Test
+    void login_InvalidCredentials_Rejected() throws Exception {
+        // Given
+        when(customerService.authenticate("john.doe", "wrong")).thenThrow(new AuthenticationException("Invalid username or password"));
+        
+        // When
+        GatewayMessage.LoginAck ack = client.login("john.doe", "wrong");
+        
+        // Then
+        assertEquals(GatewayResult.AUTHENTICATION_FAILED, ack.result());
+    }
+    
+    @Test
+    void newOrder_AfterLogin_CreatesOrderWithClientOrderIdAsIdempotencyKey() throws Exception {
+        // Given
+        OrderResponse response = new OrderResponse();
+        response.setId(7L);
+        response.setStatus(OrderStatus.PENDING);
+        when(orderService.createOrder(any(CreateOrderRequest.class), eq("gw-42"))).thenReturn(response);
+        
+        // When
+        GatewayMessage.LoginAck login = client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(42L, 0L, "10"));
+        
+        // Then
+        assertEquals(new GatewayMessage.LoginAck(GatewayResult.ACCEPTED, 1L), login);
+        assertEquals(new GatewayMessage.Ack(42L, 7L, GatewayResult.ACCEPTED, OrderStatus.PENDING), ack);
+        verify(orderService).createOrder(argThat(request -> request.getCustomerId().equals(1L)
+                && "AAPL".equals(request.getAssetName())
+                && new BigDecimal("10").compareTo(request.getSize()) == 0), eq("gw-42"));
+        verify(throttle).release();
+    }
+    
+    @Test
+    void newOrder_InvalidSize_RejectedBeforeService() throws Exception {
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(1L, 0L, "0"));
+        
+        // Then
+        assertEquals(GatewayResult.INVALID_ORDER, ack.result());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+    
+    @Test
+    void newOrder_OtherCustomer_NotPermitted() throws Exception {
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(1L, 2L, "10"));
+        
+        // Then
+        assertEquals(GatewayResult.NOT_PERMITTED, ack.result());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+    
+    @Test
+    void newOrder_CustomerOwnedByOtherNode_Rejected() throws Exception {
+        // Given
+        when(clusterMembership.owns(1L)).thenReturn(false);
+        
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(1L, 0L, "10"));
+        
+        // Then
+        assertEquals(GatewayResult.WRONG_NODE, ack.result());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+    
+    @Test
+    void newOrder_RateLimited_Rejected() throws Exception {
+        // Given
+        when(throttle.admit("john.doe")).thenReturn(IntakeDecision.RATE_LIMITED);
+        
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(1L, 0L, "10"));
+        
+        // Then
+        assertEquals(GatewayResult.RATE_LIMITED, ack.result());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+    
+    @Test
+    void newOrder_InsufficientFunds_MappedToResult() throws Exception {
+        // Given
+        when(orderService.createOrder(any(CreateOrderRequest.class), anyString()))
+                .thenThrow(new InsufficientFundsException("Insufficient TRY balance"));
+        
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.newOrder(newOrder(5L, 0L, "10"));
+        
+        // Then
+        assertEquals(new GatewayMessage.Ack(5L, 0L, GatewayResult.INSUFFICIENT_FUNDS, null), ack);
+        verify(throttle).release();
+    }
+    
+    @Test
+    void cancel_AfterLogin_DeletesOrder() throws Exception {
+        // When
+        client.login("john.doe", "password123");
+        GatewayMessage.Ack ack = client.cancel(new GatewayMessage.Cancel(9L, 7L));
+        
+        // Then
+        assertEquals(new GatewayMessage.Ack(9L, 7L, GatewayResult.ACCEPTED, OrderStatus.CANCELED), ack);
+        verify(orderService).deleteOrder(7L, 1L);
+    }
+    
+    private GatewayMessage.NewOrder newOrder(long clientOrderId, long customerId, String size) {
+        return new GatewayMessage.NewOrder(clientOrderId, customerId, "AAPL", OrderSide.BUY, TimeInForce.GTC,
+                new BigDecimal(size), new BigDecimal("150"), null);
+    }
+}
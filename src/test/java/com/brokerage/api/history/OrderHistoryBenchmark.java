@@ -0,0 +1,117 @@
+package com.brokerage.api.history;
+
+import com.brokerage.api.BrokerageApplication;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.json.ListResponseWriter;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.service.OrderService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How fast the order history projector catches up with a burst of order changes, and how many orders a
+ * writer places per second while reader threads list a customer's orders from the orders table or from
+ * the read model.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.history.OrderHistoryBenchmark [orders] [readers]
+ * </pre>
+ */
+public class OrderHistoryBenchmark {
+
+    private static final long CUSTOMER_ID = 2L;
+    private static final long RUN_MILLIS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                .run("--server.port=0", "--orders.history.enabled=true", "--orders.risk.max-open-orders=0",
+                        "--market.feed.enabled=false", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--logging.level.com.brokerage=WARN", "--logging.level.org.springframework.security=WARN")) {
+            OrderService orderService = context.getBean(OrderService.class);
+            OrderHistoryProjector projector = context.getBean(OrderHistoryProjector.class);
+            ListResponseWriter writer = context.getBean(ListResponseWriter.class);
+            while (projector.awaitReadable(null) == null) {
+                Thread.sleep(10);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < orders; i++) {
+                orderService.createOrder(request());
+            }
+            double placing = (System.nanoTime() - start) / 1e9;
+            projector.awaitReadable(projector.issuedToken().toString());
+            double caughtUp = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d orders placed in %.2f s, read model caught up %.0f ms after the last one%n",
+                    orders, placing, (caughtUp - placing) * 1000);
+
+            System.out.printf("%d readers listing %d orders each, %d ms per run%n", readers, orders, RUN_MILLIS);
+            measure("reads from orders", orderService, readers, () -> writer.writeOrders(CUSTOMER_ID,
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), OutputStream.nullOutputStream()));
+            measure("reads from order_history", orderService, readers, () -> writer.writeOrderHistory(CUSTOMER_ID,
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), OutputStream.nullOutputStream()));
+        }
+    }
+
+    private static void measure(String label, OrderService orderService, int readers, Read read) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong lists = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            Thread thread = new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        read.run();
+                        lists.incrementAndGet();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long writes = 0;
+        long deadline = System.currentTimeMillis() + RUN_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            OrderResponse order = orderService.createOrder(request());
+            orderService.deleteOrder(order.getId(), CUSTOMER_ID);
+            writes += 2;
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = RUN_MILLIS / 1000.0;
+        System.out.printf("%-25s %6.0f writes/s, %5.1f lists/s%n", label, writes / seconds, lists.get() / seconds);
+    }
+
+    private static CreateOrderRequest request() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal("0.0001"));
+        request.setPrice(BigDecimal.ONE);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,145 @@
+package com.brokerage.api.history;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.json.ListResponseWriter;
+import com.brokerage.api.model.OrderHistoryEntry;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.CustomerRepository;
+import com.brokerage.api.repository.OrderHistoryRepository;
+import com.brokerage.api.service.OrderService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "market.feed.enabled=false",
+        "orders.history.enabled=true",
+        "orders.history.max-wait=5000"
+})
+@ActiveProfiles("test")
+class OrderHistoryProjectorTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderHistoryProjector orderHistoryProjector;
+
+    @Autowired
+    private OrderHistoryRepository orderHistoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ListResponseWriter listResponseWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        customerId = customerRepository.findByUsername("john.doe").orElseThrow().getId();
+        awaitRebuilt();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderService.cancelOrders(customerId, null, null);
+    }
+
+    @Test
+    void tokenAfterWrite_ReadModelShowsTheWrite() throws Exception {
+        // Given
+        OrderResponse order = orderService.createOrder(buy());
+        ConsistencyToken placed = orderHistoryProjector.issuedToken();
+
+        // When
+        ConsistencyToken readAt = orderHistoryProjector.awaitReadable(placed.toString());
+
+        // Then
+        assertNotNull(readAt);
+        assertTrue(readAt.sequence() >= placed.sequence());
+        assertEquals(OrderStatus.PENDING, orderHistoryRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertTrue(listed().stream().anyMatch(listedOrder -> listedOrder.getId().equals(order.getId())));
+
+        orderService.deleteOrder(order.getId(), customerId);
+        assertNotNull(orderHistoryProjector.awaitReadable(orderHistoryProjector.issuedToken().toString()));
+        assertEquals(OrderStatus.CANCELED, orderHistoryRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void stalePendingChange_DoesNotReopenTerminalOrder() {
+        // Given
+        OrderResponse order = orderService.createOrder(buy());
+        orderService.deleteOrder(order.getId(), customerId);
+        order.setSize(new BigDecimal("2.0000"));
+
+        // When
+        orderHistoryProjector.onOrderEvent(new OrderEvent(OrderEventType.AMENDED, order, BigDecimal.ONE));
+        orderHistoryProjector.awaitReadable(orderHistoryProjector.issuedToken().toString());
+
+        // Then
+        OrderHistoryEntry entry = orderHistoryRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CANCELED, entry.getStatus());
+        assertEquals(0, BigDecimal.ONE.compareTo(entry.getSize()));
+    }
+
+    @Test
+    void unusableToken_ReadGoesToOrdersTable() {
+        // Given
+        ConsistencyToken issued = orderHistoryProjector.issuedToken();
+
+        // When & Then
+        assertNull(orderHistoryProjector.awaitReadable("not-a-token"));
+        assertNull(orderHistoryProjector.awaitReadable(new ConsistencyToken(issued.epoch(), issued.sequence() + 1000).toString()));
+        assertNull(orderHistoryProjector.awaitReadable(new ConsistencyToken(issued.epoch() + 1, 0).toString()));
+        assertNotNull(orderHistoryProjector.awaitReadable(new ConsistencyToken(issued.epoch() - 1, Long.MAX_VALUE).toString()));
+    }
+
+    private List<OrderResponse> listed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listResponseWriter.writeOrderHistory(customerId, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), out);
+        return objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+    }
+
+    private void awaitRebuilt() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (orderHistoryProjector.awaitReadable(null) == null) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Order history was not rebuilt");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private CreateOrderRequest buy() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(new BigDecimal("0.01"));
+        return request;
+    }
+}
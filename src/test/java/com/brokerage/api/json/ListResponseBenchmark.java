@@ -0,0 +1,105 @@
+package com.brokerage.api.json;
+
+import com.brokerage.api.BrokerageApplication;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the old list path (entities, DTOs, Jackson reflection) with {@link ListResponseWriter}
+ * for one large order list: time, bytes allocated by the calling thread and GC count per request.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.json.ListResponseBenchmark [orders]
+ * </pre>
+ */
+public class ListResponseBenchmark {
+    
+    private static final long CUSTOMER_ID = 2L;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+    
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.brokerage=WARN")) {
+            insertOrders(context.getBean(JdbcTemplate.class), orders);
+            
+            OrderRepository orderRepository = context.getBean(OrderRepository.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            ListResponseWriter writer = context.getBean(ListResponseWriter.class);
+            LocalDateTime start = LocalDateTime.now().minusYears(1);
+            LocalDateTime end = LocalDateTime.now().plusYears(1);
+            
+            System.out.printf("%d orders per response%n", orders);
+            measure("entities + DTOs + ObjectMapper", () -> {
+                List<OrderResponse> list = transactionTemplate.execute(status ->
+                        orderRepository.findOrdersByCustomerAndDateRange(CUSTOMER_ID, start, end).stream()
+                                .map(OrderResponse::from)
+                                .toList());
+                objectMapper.writeValue(OutputStream.nullOutputStream(), list);
+            });
+            measure("ListResponseWriter", () -> writer.writeOrders(CUSTOMER_ID, start, end, OutputStream.nullOutputStream()));
+        }
+    }
+    
+    private static void insertOrders(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        String[] assets = {"AAPL", "GOOGL", "MSFT"};
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {CUSTOMER_ID, assets[i % assets.length], i % 2 == 0 ? "BUY" : "SELL",
+                    1 + i % 100, 100 + (i % 1000) / 100.0, i % 3 == 0 ? "MATCHED" : "PENDING",
+                    Timestamp.valueOf(now.minusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (customer_id, asset_name, order_side, size, price, status, create_date, time_in_force) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 'GTC')", rows);
+    }
+    
+    private static void measure(String name, Task task) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        
+        long gcBefore = gcCount();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long gcs = gcCount() - gcBefore;
+        
+        System.out.printf("%-32s %8.2f ms/request %10.1f KB allocated/request %6.2f GCs/request%n",
+                name, elapsedNanos / 1e6 / ITERATIONS, allocated / 1024.0 / ITERATIONS, (double) gcs / ITERATIONS);
+    }
+    
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+    
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,180 @@
+package com.brokerage.api.json;
+
+import com.brokerage.api.dto.AssetResponse;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.service.OrderArchiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import(ListResponseWriter.class)
+class ListResponseWriterTest {
+    
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime END = LocalDateTime.now().plusDays(1);
+    
+    @Autowired
+    private ListResponseWriter listResponseWriter;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private AssetRepository assetRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+    
+    private Long customerId;
+    
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setUsername("john.doe");
+        customer.setPassword("password");
+        customer.setFullName("John Doe");
+        customer.setEmail("john.doe@example.com");
+        customerId = entityManager.persistAndGetId(customer, Long.class);
+        
+        orderRepository.save(order("AAPL", OrderSide.BUY, "10", "150.25", TimeInForce.GTC, null));
+        orderRepository.save(order("GOOGL", OrderSide.SELL, "0.5", "2800", TimeInForce.GTD, LocalDateTime.of(2030, 1, 2, 18, 0)));
+        orderRepository.save(order("MSFT", OrderSide.BUY, "3", "99.9999", TimeInForce.DAY, LocalDateTime.of(2030, 1, 2, 18, 30, 15, 120_000_000)));
+        assetRepository.save(asset("TRY", "10000", "9000.5"));
+        assetRepository.save(asset("AAPL", "100", "100"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void writeOrders_MatchesObjectMapperOutput() throws Exception {
+        // Given
+        List<OrderResponse> expected = orderRepository.findOrdersByCustomerAndDateRange(customerId, START, END).stream()
+                .map(OrderResponse::from)
+                .collect(Collectors.toList());
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listResponseWriter.writeOrders(customerId, START, END, out);
+        
+        // Then
+        assertEquals(3, expected.size());
+        assertEquals(objectMapper.writeValueAsString(expected), out.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void writeOrders_AppendsArchivedOrdersNotAlreadyWritten() throws Exception {
+        // Given
+        List<OrderResponse> hot = orderRepository.findOrdersByCustomerAndDateRange(customerId, START, END).stream()
+                .map(OrderResponse::from)
+                .collect(Collectors.toList());
+        OrderResponse archived = OrderResponse.from(order("TSLA", OrderSide.SELL, "1", "200", TimeInForce.GTC, null));
+        archived.setId(999L);
+        archived.setStatus(OrderStatus.MATCHED);
+        archived.setCreateDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(orderArchiveService.findArchivedOrders(eq(customerId), any(), any())).thenReturn(List.of(hot.get(0), archived));
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listResponseWriter.writeOrders(customerId, START, END, out);
+        
+        // Then
+        List<OrderResponse> expected = new ArrayList<>(hot);
+        expected.add(archived);
+        assertEquals(objectMapper.writeValueAsString(expected), out.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void writeAssets_MatchesObjectMapperOutput() throws Exception {
+        // Given
+        List<AssetResponse> expected = assetRepository.findByCustomerId(customerId).stream()
+                .map(asset -> {
+                    AssetResponse response = new AssetResponse();
+                    response.setId(asset.getId());
+                    response.setCustomerId(asset.getCustomerId());
+                    response.setAssetName(asset.getAssetName());
+                    response.setSize(asset.getSize());
+                    response.setUsableSize(asset.getUsableSize());
+                    return response;
+                })
+                .collect(Collectors.toList());
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listResponseWriter.writeAssets(customerId, out);
+        
+        // Then
+        assertEquals(2, expected.size());
+        assertEquals(objectMapper.writeValueAsString(expected), out.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void formatDateTime_MatchesIsoLocalDateTime() {
+        char[] buffer = new char[32];
+        for (LocalDateTime value : List.of(
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59, 1),
+                LocalDateTime.of(2025, 6, 15, 12, 0, 0, 500_000_000),
+                LocalDateTime.of(999, 6, 15, 12, 0, 7, 123_456_000))) {
+            int length = ListResponseWriter.formatDateTime(value, buffer);
+            assertEquals(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), new String(buffer, 0, length));
+        }
+    }
+    
+    private Order order(String assetName, OrderSide side, String size, String price, TimeInForce timeInForce, LocalDateTime expireAt) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setAssetName(assetName);
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setTimeInForce(timeInForce);
+        order.setExpireAt(expireAt);
+        return order;
+    }
+    
+    private Asset asset(String assetName, String size, String usableSize) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(assetName);
+        asset.setSize(new BigDecimal(size));
+        asset.setUsableSize(new BigDecimal(usableSize));
+        return asset;
+    }
+}
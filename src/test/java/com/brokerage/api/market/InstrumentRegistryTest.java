@@ -0,0 +1,32 @@
+package com.brokerage.api.market;
+
+import com.brokerage.api.model.Symbols;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentRegistryTest {
+
+    @Test
+    void idOf_DenseIdsWithCashFirst() {
+        InstrumentRegistry registry = new InstrumentRegistry(List.of("AAPL", " GOOGL ", "TRY", "BRK.B"));
+
+        assertEquals(4, registry.size());
+        assertEquals(InstrumentRegistry.CASH_ID, registry.idOf("TRY"));
+        assertEquals(1, registry.idOf("AAPL"));
+        assertEquals(2, registry.idOf("GOOGL"));
+        assertEquals("BRK.B", registry.symbolOf(registry.idOf("BRK.B")));
+        assertEquals(InstrumentRegistry.UNKNOWN, registry.idOf("aapl"));
+        assertEquals(InstrumentRegistry.UNKNOWN, registry.idOf(null));
+        assertFalse(registry.isKnown("XYZ"));
+    }
+
+    @Test
+    void constructor_InvalidOrDuplicateSymbols_Rejected() {
+        assertThrows(IllegalStateException.class, () -> new InstrumentRegistry(List.of("AAPL", "AAPL")));
+        assertThrows(IllegalStateException.class, () -> new InstrumentRegistry(List.of("apple")));
+        assertThrows(IllegalStateException.class, () -> new InstrumentRegistry(List.of("A".repeat(Symbols.MAX_SYMBOL_LENGTH + 1))));
+    }
+}
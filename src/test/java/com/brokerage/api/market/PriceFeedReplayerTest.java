@@ -0,0 +1,34 @@
+package com.brokerage.api.market;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceFeedReplayerTest {
+
+    @Test
+    void replay_AppliesTicksAndSkipsCommentsAndBadLines() throws Exception {
+        PriceTable table = new PriceTable(new InstrumentRegistry(List.of("AAPL", "GOOGL")));
+        PriceFeedReplayer replayer = new PriceFeedReplayer(table, new ByteArrayResource(new byte[0]), 0, false);
+
+        int ticks = replayer.replay(new StringReader("""
+                # symbol,price
+                AAPL,150.10
+
+                GOOGL, 140.5
+                not a tick
+                XYZ,10
+                AAPL,abc
+                AAPL,151.20
+                """));
+
+        assertEquals(3, ticks);
+        assertEquals(0, new BigDecimal("151.20").compareTo(table.get("AAPL").price()));
+        assertEquals(0, new BigDecimal("140.5").compareTo(table.get("GOOGL").price()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.brokerage.api.market;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    @Test
+    void update_LatestPriceWins() {
+        PriceTable table = new PriceTable(new InstrumentRegistry(List.of("AAPL", "GOOGL", "MSFT")));
+
+        table.update("AAPL", new BigDecimal("150.25"), 1_000);
+        table.update("GOOGL", new BigDecimal("140"), 1_001);
+        table.update("AAPL", new BigDecimal("151.5"), 1_002);
+
+        assertEquals(new PriceTable.Quote(new BigDecimal("151.5000"), 1_002), table.get("AAPL"));
+        assertEquals(new PriceTable.Quote(new BigDecimal("140.0000"), 1_001), table.get("GOOGL"));
+        assertNull(table.get("MSFT"));
+        assertNull(table.get("XYZ"));
+    }
+
+    @Test
+    void update_UnknownSymbol_Throws() {
+        PriceTable table = new PriceTable(new InstrumentRegistry(List.of("AAPL")));
+
+        assertThrows(IllegalArgumentException.class, () -> table.update("GOOGL", BigDecimal.ONE, 1));
+    }
+
+    @Test
+    void get_ConcurrentWriter_NeverSeesTornQuote() throws Exception {
+        PriceTable table = new PriceTable(new InstrumentRegistry(List.of("AAPL")));
+        table.update("AAPL", BigDecimal.ONE, 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<PriceTable.Quote> torn = new AtomicReference<>();
+
+        // The writer always stores price == timestamp, so a mix of two ticks is detectable
+        Thread writer = new Thread(() -> {
+            for (long tick = 2; running.get(); tick++) {
+                table.update("AAPL", BigDecimal.valueOf(tick), tick);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 1_000_000 && torn.get() == null; i++) {
+                PriceTable.Quote quote = table.get("AAPL");
+                if (quote.price().longValueExact() != quote.timestampMillis()) {
+                    torn.set(quote);
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        reader.join();
+        running.set(false);
+        writer.join();
+
+        assertNull(torn.get());
+    }
+}
@@ -0,0 +1,99 @@
+package com.brokerage.api.market;
+
+import com.brokerage.api.dto.AssetResponse;
+import com.brokerage.api.service.PortfolioValuationService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revalues every portfolio once per price tick while a feed thread keeps updating the
+ * {@link PriceTable}, and reports the time per full revaluation and the ticks the feed
+ * managed meanwhile. Holdings are generated in memory, so this measures valuation and
+ * price reads only.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.market.ValuationBenchmark [customers]
+ * </pre>
+ */
+public class ValuationBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "NVDA", "META", "NFLX"};
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        InstrumentRegistry instrumentRegistry = new InstrumentRegistry(List.of(SYMBOLS));
+        PriceTable priceTable = new PriceTable(instrumentRegistry);
+        PortfolioValuationService valuationService = new PortfolioValuationService(null, priceTable, instrumentRegistry);
+        for (String symbol : SYMBOLS) {
+            priceTable.update(symbol, BigDecimal.valueOf(100), System.currentTimeMillis());
+        }
+        List<List<AssetResponse>> portfolios = portfolios(customers);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong ticks = new AtomicLong();
+        Thread feed = new Thread(() -> {
+            for (long tick = 0; running.get(); tick++) {
+                priceTable.update(SYMBOLS[(int) (tick % SYMBOLS.length)], BigDecimal.valueOf(10_000 + tick % 500, 2), System.currentTimeMillis());
+                ticks.incrementAndGet();
+            }
+        }, "price-feed");
+        feed.start();
+
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                revalue(valuationService, portfolios);
+            }
+            long ticksBefore = ticks.get();
+            long start = System.nanoTime();
+            BigDecimal checksum = BigDecimal.ZERO;
+            for (int i = 0; i < ITERATIONS; i++) {
+                checksum = checksum.add(revalue(valuationService, portfolios));
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d portfolios x %d assets: %.2f ms per full revaluation, %.0f ns per portfolio, %d feed ticks meanwhile (checksum %s)%n",
+                    customers, SYMBOLS.length / 2 + 1, elapsed / 1e6 / ITERATIONS, (double) elapsed / ITERATIONS / customers,
+                    ticks.get() - ticksBefore, checksum.signum());
+        } finally {
+            running.set(false);
+            feed.join();
+        }
+    }
+
+    private static BigDecimal revalue(PortfolioValuationService valuationService, List<List<AssetResponse>> portfolios) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int customer = 0; customer < portfolios.size(); customer++) {
+            total = total.add(valuationService.value((long) customer, portfolios.get(customer)).getTotalValue());
+        }
+        return total;
+    }
+
+    private static List<List<AssetResponse>> portfolios(int customers) {
+        List<List<AssetResponse>> portfolios = new ArrayList<>(customers);
+        for (int customer = 0; customer < customers; customer++) {
+            List<AssetResponse> assets = new ArrayList<>();
+            assets.add(asset(customer, "TRY", 10_000));
+            for (int i = 0; i < SYMBOLS.length / 2; i++) {
+                assets.add(asset(customer, SYMBOLS[(customer + i) % SYMBOLS.length], 10 + customer % 90));
+            }
+            portfolios.add(assets);
+        }
+        return portfolios;
+    }
+
+    private static AssetResponse asset(long customerId, String assetName, long size) {
+        AssetResponse asset = new AssetResponse();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(assetName);
+        asset.setSize(BigDecimal.valueOf(size));
+        asset.setUsableSize(BigDecimal.valueOf(size));
+        return asset;
+    }
+}
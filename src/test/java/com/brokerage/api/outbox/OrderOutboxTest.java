@@ -0,0 +1,223 @@
+package com.brokerage.api.outbox;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OutboxWatermark;
+import com.brokerage.api.repository.CustomerRepository;
+import com.brokerage.api.repository.OutboxEventRepository;
+import com.brokerage.api.repository.OutboxWatermarkRepository;
+import com.brokerage.api.service.OrderService;
+import com.brokerage.api.sql.SqlCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "market.feed.enabled=false",
+        "orders.outbox.enabled=true",
+        "orders.outbox.sink=memory",
+        "orders.outbox.batch-size=2",
+        "orders.outbox.relay-interval=3600000"
+})
+@ActiveProfiles("test")
+@Import(SqlCounter.class)
+class OrderOutboxTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @SpyBean
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxWatermarkRepository outboxWatermarkRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SqlCounter.Measurer measurer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = customerRepository.findByUsername("john.doe").orElseThrow().getId();
+        orderService.cancelOrders(customerId, null, null);
+        outboxRelay.relayPending();
+        ((InMemoryOutboxSink) outboxSink).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderService.cancelOrders(customerId, null, null);
+        outboxRelay.relayPending();
+    }
+
+    @Test
+    void orderChanges_RelayedInOrderWithWatermark() throws Exception {
+        // Given
+        OrderResponse order = orderService.createOrder(buy());
+        orderService.deleteOrder(order.getId(), customerId);
+
+        // When
+        int relayed = outboxRelay.relayPending();
+
+        // Then
+        List<OutboxMessage> messages = delivered();
+        assertEquals(2, relayed);
+        assertEquals(List.of(OrderEventType.CREATED, OrderEventType.CANCELED), messages.stream().map(OutboxMessage::type).toList());
+        assertEquals(order.getId(), messages.get(0).orderId());
+        assertEquals(order.getId(), objectMapper.readValue(messages.get(1).payload(), OrderResponse.class).getId());
+        assertEquals(0, outboxEventRepository.count());
+        OutboxWatermark watermark = outboxWatermarkRepository.findById("memory").orElseThrow();
+        assertEquals(messages.get(1).id(), watermark.getLastEventId());
+    }
+
+    @Test
+    void rolledBackChange_NoEvent() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.createOrder(buy());
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void massCancel_EventsWrittenInOneStatement() throws Exception {
+        // Given
+        orderService.createOrder(buy());
+        long one = measurer.measure(() -> orderService.cancelOrders(customerId, null, null)).statements();
+        for (int i = 0; i < 20; i++) {
+            orderService.createOrder(buy());
+        }
+
+        // When
+        long twenty = measurer.measure(() -> orderService.cancelOrders(customerId, null, null)).statements();
+
+        // Then
+        assertEquals(one, twenty);
+        assertEquals(42, outboxEventRepository.count());
+    }
+
+    @Test
+    void sinkFailure_BatchDeliveredAgain() throws Exception {
+        // Given
+        OrderResponse order = orderService.createOrder(buy());
+        doThrow(new IOException("sink down")).when(outboxSink).deliver(any());
+
+        // When
+        assertEquals(0, outboxRelay.relayPending());
+        doCallRealMethod().when(outboxSink).deliver(any());
+        int relayed = outboxRelay.relayPending();
+
+        // Then
+        assertEquals(1, relayed);
+        assertEquals(order.getId(), delivered().get(0).orderId());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void relaysOnTwoNodes_EachEventDeliveredOnce() throws Exception {
+        // Given: two relays sharing the database, as on two cluster nodes, with slow sinks
+        for (int i = 0; i < 10; i++) {
+            orderService.createOrder(buy());
+        }
+        long deliveredBefore = outboxWatermarkRepository.findById("memory").orElseThrow().getDelivered();
+        List<InMemoryOutboxSink> sinks = List.of(slowSink(), slowSink());
+        List<OutboxRelay> relays = sinks.stream()
+                .map(sink -> new OutboxRelay(outboxEventRepository, outboxWatermarkRepository, sink,
+                        transactionTemplate, new SimpleMeterRegistry(), true, 2))
+                .toList();
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> runs = executor.invokeAll(relays.stream()
+                    .<Callable<Integer>>map(relay -> relay::relayPending)
+                    .toList());
+            for (Future<Integer> run : runs) {
+                run.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        outboxRelay.relayPending();
+
+        // Then
+        List<Long> ids = new ArrayList<>();
+        sinks.forEach(sink -> sink.messages().forEach(message -> ids.add(message.id())));
+        delivered().forEach(message -> ids.add(message.id()));
+        assertEquals(10, ids.size());
+        assertEquals(10, new HashSet<>(ids).size());
+        assertEquals(deliveredBefore + 10, outboxWatermarkRepository.findById("memory").orElseThrow().getDelivered());
+    }
+
+    private InMemoryOutboxSink slowSink() {
+        return new InMemoryOutboxSink() {
+            @Override
+            public synchronized void deliver(List<OutboxMessage> batch) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.deliver(batch);
+            }
+        };
+    }
+
+    private List<OutboxMessage> delivered() {
+        return ((InMemoryOutboxSink) outboxSink).messages();
+    }
+
+    private CreateOrderRequest buy() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(new BigDecimal("0.01"));
+        return request;
+    }
+}
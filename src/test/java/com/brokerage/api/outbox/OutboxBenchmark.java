@@ -0,0 +1,75 @@
+package com.brokerage.api.outbox;
+
+import com.brokerage.api.BrokerageApplication;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.repository.OutboxEventRepository;
+import com.brokerage.api.repository.OutboxWatermarkRepository;
+import com.brokerage.api.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Outbox relay throughput to the file sink for growing batch sizes. Each batch costs one read, one
+ * delete, one watermark update and one fsync, so events per second should grow with the batch size.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.outbox.OutboxBenchmark [events]
+ * </pre>
+ */
+public class OutboxBenchmark {
+
+    private static final int[] BATCH_SIZES = {1, 10, 100, 1000};
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Path directory = Files.createTempDirectory("outbox-benchmark");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                .run("--server.port=0", "--orders.outbox.enabled=true", "--orders.outbox.sink=memory",
+                        "--orders.outbox.relay-interval=3600000", "--orders.risk.max-open-orders=0", "--market.feed.enabled=false",
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.brokerage=WARN",
+                        "--logging.level.org.springframework.security=WARN")) {
+            OrderService orderService = context.getBean(OrderService.class);
+            OutboxEventRepository outboxEventRepository = context.getBean(OutboxEventRepository.class);
+            OutboxWatermarkRepository outboxWatermarkRepository = context.getBean(OutboxWatermarkRepository.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            context.getBean(OutboxRelay.class).relayPending();
+
+            System.out.printf("%d events per run%n", events);
+            for (int batchSize : BATCH_SIZES) {
+                for (int i = 0; i < events; i++) {
+                    orderService.createOrder(request());
+                }
+                try (FileOutboxSink sink = new FileOutboxSink(directory.resolve("events-" + batchSize + ".jsonl"), objectMapper)) {
+                    OutboxRelay relay = new OutboxRelay(outboxEventRepository, outboxWatermarkRepository, sink,
+                            transactionTemplate, new SimpleMeterRegistry(), true, batchSize);
+                    long start = System.nanoTime();
+                    int relayed = relay.relayPending();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("batch %5d: %d events in %.2f s, %.0f events/s%n", batchSize, relayed, seconds, relayed / seconds);
+                }
+            }
+        }
+    }
+
+    private static CreateOrderRequest request() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(2L);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal("0.0001"));
+        request.setPrice(BigDecimal.ONE);
+        return request;
+    }
+}
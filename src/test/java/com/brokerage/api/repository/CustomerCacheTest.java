@@ -0,0 +1,90 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.sql.SqlCounter;
+import com.brokerage.api.sql.SqlCounter.Counts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "market.feed.enabled=false")
+@ActiveProfiles("test")
+@Import(SqlCounter.class)
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SqlCounter.Measurer measurer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void identityLookups_ServedFromCacheOnceWarm() throws Exception {
+        // Given
+        Customer customer = customerRepository.findByUsername("john.doe").orElseThrow();
+        customerRepository.existsByUsername("john.doe");
+
+        // When
+        Counts counts = measurer.measure(() -> {
+            assertEquals(customer.getId(), customerRepository.findByUsername("john.doe").orElseThrow().getId());
+            assertTrue(customerRepository.existsByUsername("john.doe"));
+            assertTrue(customerRepository.findById(customer.getId()).isPresent());
+        });
+
+        // Then
+        assertEquals(new Counts(0, 0, 0), counts);
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Customer.CACHE_REGION).tag("result", "hit").functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("hibernate.cache.query.requests")
+                .tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    void update_NextLookupSeesIt() throws Exception {
+        // Given: a warm cache
+        Customer customer = customerRepository.findByUsername("john.doe").orElseThrow();
+        String email = customer.getEmail();
+
+        try {
+            // When
+            customer.setEmail("john.doe@cache.test");
+            customerRepository.save(customer);
+
+            // Then
+            AtomicReference<Customer> reloaded = new AtomicReference<>();
+            Counts counts = measurer.measure(() -> reloaded.set(customerRepository.findByUsername("john.doe").orElseThrow()));
+            assertEquals("john.doe@cache.test", reloaded.get().getEmail());
+            assertTrue(counts.statements() > 0, "query result of an updated table is not reused");
+        } finally {
+            customer.setEmail(email);
+            customerRepository.save(customer);
+        }
+    }
+
+    @Test
+    void newCustomer_VisibleToExistsCheckedBefore() {
+        // Given: a cached negative answer
+        assertFalse(customerRepository.existsByUsername("jane.cache"));
+
+        // When
+        Customer customer = customerRepository.save(new Customer(null, "jane.cache", "secret", "Jane Cache", "jane@cache.test", false));
+
+        // Then
+        try {
+            assertTrue(customerRepository.existsByUsername("jane.cache"));
+            assertEquals(customer.getId(), customerRepository.findByUsername("jane.cache").orElseThrow().getId());
+        } finally {
+            customerRepository.delete(customer);
+        }
+    }
+}
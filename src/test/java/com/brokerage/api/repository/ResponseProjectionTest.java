@@ -0,0 +1,150 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.dto.AssetResponse;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ResponseProjectionTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime END = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setUsername("john.doe");
+        customer.setPassword("password");
+        customer.setFullName("John Doe");
+        customer.setEmail("john.doe@example.com");
+        customerId = entityManager.persistAndGetId(customer, Long.class);
+    }
+
+    @Test
+    void archivedOrderProjection_MatchesEntityMapping() {
+        // Given
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setId(99L);
+        archived.setCustomerId(customerId);
+        archived.setAssetName("MSFT");
+        archived.setOrderSide(OrderSide.SELL);
+        archived.setSize(new BigDecimal("2.5000"));
+        archived.setPrice(new BigDecimal("310.1200"));
+        archived.setStatus(OrderStatus.MATCHED);
+        archived.setCreateDate(LocalDateTime.now());
+        archived.setTimeInForce(TimeInForce.DAY);
+        archivedOrderRepository.save(archived);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<OrderResponse> projectedArchive = archivedOrderRepository.findResponsesByCustomerAndDateRange(customerId, START, END);
+
+        // Then
+        assertEquals(List.of(OrderResponse.from(archivedOrderRepository.findById(99L).orElseThrow())), projectedArchive);
+        assertTrue(archivedOrderRepository.findResponsesByCustomerAndDateRange(customerId + 1, START, END).isEmpty());
+    }
+
+    @Test
+    void pendingOrdersForUpdate_OptionalAssetAndSideFilters() {
+        // Given
+        Order buy = orderRepository.save(order(OrderSide.BUY, TimeInForce.GTC, null));
+        Order sell = orderRepository.save(order(OrderSide.SELL, TimeInForce.GTC, null));
+        Order other = order(OrderSide.BUY, TimeInForce.GTC, null);
+        other.setAssetName("MSFT");
+        orderRepository.save(other);
+        Order matched = order(OrderSide.BUY, TimeInForce.GTC, null);
+        matched.setStatus(OrderStatus.MATCHED);
+        orderRepository.save(matched);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When & Then
+        assertEquals(List.of(buy.getId(), sell.getId(), other.getId()), ids(null, null));
+        assertEquals(List.of(buy.getId(), sell.getId()), ids("AAPL", null));
+        assertEquals(List.of(buy.getId(), other.getId()), ids(null, OrderSide.BUY));
+        assertEquals(List.of(sell.getId()), ids("AAPL", OrderSide.SELL));
+        assertEquals(OrderResponse.from(orderRepository.findById(sell.getId()).orElseThrow()),
+                orderRepository.findResponsesByCustomerAndStatusForUpdate(customerId, OrderStatus.PENDING, "AAPL", OrderSide.SELL).get(0));
+    }
+
+    @Test
+    void assetProjection_MatchesEntityFields() {
+        // Given
+        assetRepository.save(asset("TRY", "10000.0000", "9000.5000"));
+        assetRepository.save(asset("AAPL", "100.0000", "40.0000"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<AssetResponse> projected = assetRepository.findResponsesByCustomerId(customerId);
+
+        // Then
+        assertEquals(2, projected.size());
+        for (Asset asset : assetRepository.findByCustomerId(customerId)) {
+            AssetResponse expected = new AssetResponse(asset.getId(), asset.getCustomerId(), asset.getAssetName(),
+                    asset.getSize(), asset.getUsableSize());
+            assertTrue(projected.contains(expected), () -> "missing " + expected);
+        }
+    }
+
+    private Order order(OrderSide side, TimeInForce timeInForce, LocalDateTime expireAt) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal("10.0000"));
+        order.setPrice(new BigDecimal("150.2500"));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        order.setTimeInForce(timeInForce);
+        order.setExpireAt(expireAt);
+        return order;
+    }
+
+    private List<Long> ids(String assetName, OrderSide orderSide) {
+        return orderRepository.findResponsesByCustomerAndStatusForUpdate(customerId, OrderStatus.PENDING, assetName, orderSide).stream()
+                .map(OrderResponse::getId)
+                .toList();
+    }
+
+    private Asset asset(String name, String size, String usableSize) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(name);
+        asset.setSize(new BigDecimal(size));
+        asset.setUsableSize(new BigDecimal(usableSize));
+        return asset;
+    }
+}
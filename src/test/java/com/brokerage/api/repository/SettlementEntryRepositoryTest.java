@@ -0,0 +1,81 @@
+package com.brokerage.api.repository;
+
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SettlementEntryRepositoryTest {
+
+    @Autowired
+    private SettlementEntryRepository settlementEntryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setUsername("john.doe");
+        customer.setPassword("password");
+        customer.setFullName("John Doe");
+        customer.setEmail("john.doe@example.com");
+        customerId = entityManager.persistAndGetId(customer, Long.class);
+    }
+
+    @Test
+    void copyFromOrders_JournalsWhatEachMatchAdds() {
+        // Given
+        Long buy = orderRepository.save(order(OrderSide.BUY, "10", OrderStatus.MATCHED)).getId();
+        Long sell = orderRepository.save(order(OrderSide.SELL, "2.5", OrderStatus.MATCHED)).getId();
+        Long pending = orderRepository.save(order(OrderSide.SELL, "1", OrderStatus.PENDING)).getId();
+        entityManager.flush();
+
+        // When
+        int copied = settlementEntryRepository.copyFromOrders(List.of(sell, buy, pending), OrderStatus.MATCHED, "TRY");
+
+        // Then: the buy adds the asset, the sell its proceeds in TRY; the pending order is left out
+        assertEquals(2, copied);
+        List<SettlementEntryView> entries = settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, 10));
+        assertEquals(List.of(buy, sell), entries.stream().map(SettlementEntryView::getOrderId).toList());
+        assertEquals("AAPL", entries.get(0).getAssetName());
+        assertEquals(0, new BigDecimal("10").compareTo(entries.get(0).getAmount()));
+        assertEquals("TRY", entries.get(1).getAssetName());
+        assertEquals(0, new BigDecimal("375.6250").compareTo(entries.get(1).getAmount()));
+        assertEquals(customerId, entries.get(1).getCustomerId());
+
+        assertEquals(1, settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, 1)).size());
+        assertEquals(2, settlementEntryRepository.deleteByOrderIdIn(List.of(buy, sell)));
+        assertEquals(0, settlementEntryRepository.count());
+    }
+
+    private Order order(OrderSide side, String size, OrderStatus status) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal("150.25"));
+        order.setStatus(status);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,61 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.market.PriceTable;
+import com.brokerage.api.model.OrderSide;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Time per {@link RiskEngine#check} with the default rule chain, for orders spread over many
+ * customers so exposures don't all sit in cache.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.risk.RiskEngineBenchmark [customers]
+ * </pre>
+ */
+public class RiskEngineBenchmark {
+
+    private static final int ROUNDS = 10;
+    private static final int CHECKS_PER_ROUND = 1_000_000;
+
+    public static void main(String[] args) {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        InstrumentRegistry instrumentRegistry = new InstrumentRegistry(List.of("AAPL", "GOOGL", "MSFT", "TSLA"));
+        PriceTable priceTable = new PriceTable(instrumentRegistry);
+        priceTable.update("AAPL", new BigDecimal("150.00"), System.currentTimeMillis());
+        priceTable.update("GOOGL", new BigDecimal("140.00"), System.currentTimeMillis());
+        List<RiskRule> rules = List.of(
+                new MaxOrderNotionalRule(new BigDecimal("1000000")),
+                new PriceCollarRule(priceTable, new BigDecimal("20")),
+                new MaxOpenOrdersRule(1000),
+                new MaxPositionRule(new BigDecimal("1000000")));
+        RiskEngine riskEngine = new RiskEngine(rules, instrumentRegistry, null, null, new SimpleMeterRegistry(), true);
+
+        CreateOrderRequest[] orders = new CreateOrderRequest[customers];
+        for (int i = 0; i < customers; i++) {
+            CreateOrderRequest order = new CreateOrderRequest();
+            order.setCustomerId((long) i);
+            order.setAssetName(i % 2 == 0 ? "AAPL" : "GOOGL");
+            order.setOrderSide(i % 3 == 0 ? OrderSide.SELL : OrderSide.BUY);
+            order.setSize(new BigDecimal("10"));
+            order.setPrice(new BigDecimal(i % 2 == 0 ? "150.25" : "139.80"));
+            orders[i] = order;
+        }
+
+        System.out.printf("%d customers, %d rules%n", customers, rules.size());
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CHECKS_PER_ROUND; i++) {
+                riskEngine.check(orders[i % customers]);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("round %2d: %6.0f ns/check%n", round, (double) elapsed / CHECKS_PER_ROUND);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.brokerage.api.risk;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.RiskLimitExceededException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.market.PriceTable;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OpenOrderView;
+import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.repository.PositionView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RiskEngineTest {
+
+    private static final long CUSTOMER_ID = 1L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    private final InstrumentRegistry instrumentRegistry = new InstrumentRegistry(List.of("AAPL", "GOOGL"));
+    private final PriceTable priceTable = new PriceTable(instrumentRegistry);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RiskEngine riskEngine;
+
+    @BeforeEach
+    void setUp() {
+        List<RiskRule> rules = List.of(
+                new MaxOrderNotionalRule(new BigDecimal("10000")),
+                new PriceCollarRule(priceTable, BigDecimal.TEN),
+                new MaxOpenOrdersRule(2),
+                new MaxPositionRule(new BigDecimal("100")));
+        riskEngine = new RiskEngine(rules, instrumentRegistry, orderRepository, assetRepository, meterRegistry, true);
+        priceTable.update("AAPL", new BigDecimal("150"), System.currentTimeMillis());
+    }
+
+    @Test
+    void check_RulesRejectInChainOrder() {
+        // Notional 200 * 150 = 30000 > 10000
+        assertRejectedBy("max-order-notional", order(OrderSide.BUY, "200", "150"));
+        // More than 10% through the market price of 150, either side
+        assertRejectedBy("price-collar", order(OrderSide.BUY, "1", "166"));
+        assertRejectedBy("price-collar", order(OrderSide.SELL, "1", "134"));
+        // Resting away from the market is fine, and so is a symbol without a price
+        riskEngine.check(order(OrderSide.BUY, "1", "100"));
+        riskEngine.check(order(OrderSide.SELL, "1", "200"));
+        CreateOrderRequest unpriced = order(OrderSide.BUY, "1", "9999");
+        unpriced.setAssetName("GOOGL");
+        riskEngine.check(unpriced);
+
+        // Then
+        assertEquals(1, rejects("max-order-notional"));
+        assertEquals(2, rejects("price-collar"));
+        assertEquals(0, rejects("max-open-orders"));
+        assertEquals(6, meterRegistry.get("orders.risk.rule").tag("rule", "max-order-notional").functionTimer().count());
+        assertEquals(3, meterRegistry.get("orders.risk.rule").tag("rule", "max-position").functionTimer().count());
+    }
+
+    @Test
+    void check_ExposureFollowsOrderEvents() {
+        // Given: 60 held, 30 pending buy
+        when(assetRepository.findByAssetNameNot(InstrumentRegistry.CASH, PositionView.class))
+                .thenReturn(List.of(position("AAPL", "60")));
+        when(orderRepository.findByStatus(OrderStatus.PENDING, OpenOrderView.class))
+                .thenReturn(List.of(openOrder(OrderSide.BUY, "30")));
+        riskEngine.loadExposure();
+
+        // When & Then: 60 + 30 + 11 > 100
+        assertRejectedBy("max-position", order(OrderSide.BUY, "11", "150"));
+        riskEngine.check(order(OrderSide.BUY, "10", "150"));
+
+        // A second open order reaches the open order limit
+        riskEngine.onOrderEvent(event(OrderEventType.CREATED, OrderSide.SELL, "5"));
+        assertRejectedBy("max-open-orders", order(OrderSide.SELL, "1", "150"));
+
+        // Canceling the sell frees an order slot; matching the buy moves it from pending to held
+        riskEngine.onOrderEvent(event(OrderEventType.CANCELED, OrderSide.SELL, "5"));
+        riskEngine.onOrderEvent(event(OrderEventType.MATCHED, OrderSide.BUY, "30"));
+        CustomerExposure exposure = riskEngine.exposure(CUSTOMER_ID);
+        int aapl = instrumentRegistry.idOf("AAPL");
+        assertEquals(0, exposure.openOrders());
+        assertEquals(CustomerExposure.scaled(new BigDecimal("90")), exposure.position(aapl));
+        assertEquals(0, exposure.pendingBuys(aapl));
+        assertRejectedBy("max-position", order(OrderSide.BUY, "11", "150"));
+        riskEngine.check(order(OrderSide.BUY, "10", "150"));
+    }
+
+    @Test
+    void checkAmendment_CurrentOrderLeftOutOfExposure() {
+        // Given: one open buy of 60, and the open order limit of 2 already reached
+        riskEngine.onOrderEvent(event(OrderEventType.CREATED, OrderSide.BUY, "60"));
+        riskEngine.onOrderEvent(event(OrderEventType.CREATED, OrderSide.SELL, "1"));
+        assertRejectedBy("max-open-orders", order(OrderSide.BUY, "1", "150"));
+
+        // When & Then: growing the buy to 100 replaces it rather than adding to it
+        riskEngine.checkAmendment(order(OrderSide.BUY, "100", "90"), new BigDecimal("60"));
+        RiskLimitExceededException exception = assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.checkAmendment(order(OrderSide.BUY, "101", "90"), new BigDecimal("60")));
+        assertEquals("max-position", exception.getRule());
+
+        // The check leaves exposure as it was; the committed amendment moves pending buys by the difference
+        int aapl = instrumentRegistry.idOf("AAPL");
+        CustomerExposure exposure = riskEngine.exposure(CUSTOMER_ID);
+        assertEquals(2, exposure.openOrders());
+        assertEquals(CustomerExposure.scaled(new BigDecimal("60")), exposure.pendingBuys(aapl));
+        OrderEvent amended = event(OrderEventType.AMENDED, OrderSide.BUY, "80");
+        amended.setPreviousSize(new BigDecimal("60"));
+        riskEngine.onOrderEvent(amended);
+        assertEquals(2, exposure.openOrders());
+        assertEquals(CustomerExposure.scaled(new BigDecimal("80")), exposure.pendingBuys(aapl));
+    }
+
+    @Test
+    void check_DisabledRulesLeftOutOfChain() {
+        // Given
+        RiskEngine engine = new RiskEngine(List.of(new MaxOrderNotionalRule(BigDecimal.ZERO), new MaxOpenOrdersRule(0)),
+                instrumentRegistry, orderRepository, assetRepository, new SimpleMeterRegistry(), true);
+
+        // When & Then
+        engine.check(order(OrderSide.BUY, "1000000", "1000000"));
+        assertEquals(0, engine.exposure(CUSTOMER_ID).openOrders());
+    }
+
+    private void assertRejectedBy(String rule, CreateOrderRequest order) {
+        RiskLimitExceededException exception = assertThrows(RiskLimitExceededException.class, () -> riskEngine.check(order));
+        assertEquals(rule, exception.getRule());
+    }
+
+    private double rejects(String rule) {
+        return meterRegistry.get("orders.risk.rejects").tag("rule", rule).functionCounter().count();
+    }
+
+    private static CreateOrderRequest order(OrderSide side, String size, String price) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setAssetName("AAPL");
+        request.setOrderSide(side);
+        request.setSize(new BigDecimal(size));
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private static OrderEvent event(OrderEventType type, OrderSide side, String size) {
+        OrderResponse order = new OrderResponse();
+        order.setCustomerId(CUSTOMER_ID);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal("150"));
+        return new OrderEvent(type, order);
+    }
+
+    private static PositionView position(String assetName, String size) {
+        return new PositionView() {
+            public Long getCustomerId() {
+                return CUSTOMER_ID;
+            }
+
+            public String getAssetName() {
+                return assetName;
+            }
+
+            public BigDecimal getSize() {
+                return new BigDecimal(size);
+            }
+        };
+    }
+
+    private static OpenOrderView openOrder(OrderSide side, String size) {
+        return new OpenOrderView() {
+            public Long getCustomerId() {
+                return CUSTOMER_ID;
+            }
+
+            public String getAssetName() {
+                return "AAPL";
+            }
+
+            public OrderSide getOrderSide() {
+                return side;
+            }
+
+            public BigDecimal getSize() {
+                return new BigDecimal(size);
+            }
+        };
+    }
+}
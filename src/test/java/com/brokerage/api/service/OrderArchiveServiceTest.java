@@ -0,0 +1,179 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.archive.OrderSegmentStore;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.history.OrderHistoryProjector;
+import com.brokerage.api.model.ArchivedOrder;
+import com.brokerage.api.repository.ArchivedOrderRepository;
+import com.brokerage.api.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    
+    @Mock
+    private OrderSegmentStore segmentStore;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private OrderHistoryProjector orderHistoryProjector;
+    
+    private OrderArchiveService orderArchiveService;
+    
+    @BeforeEach
+    void setUp() {
+        orderArchiveService = new OrderArchiveService(orderRepository, archivedOrderRepository, segmentStore,
+                transactionTemplate, orderHistoryProjector, 30, 365, 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    @Test
+    void archiveOrdersBefore_MovesTerminalOrdersInBatches() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(orderRepository.findIdsByStatusInAndCreateDateBefore(eq(OrderArchiveService.TERMINAL_STATUSES), eq(cutoff), any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L), Collections.singletonList(3L), Collections.emptyList());
+        when(archivedOrderRepository.copyFromOrders(anyList(), eq(OrderArchiveService.TERMINAL_STATUSES)))
+                .thenReturn(2, 1);
+        when(orderRepository.deleteByIdInAndStatusIn(anyList(), eq(OrderArchiveService.TERMINAL_STATUSES)))
+                .thenReturn(2, 1);
+        
+        // When
+        int archived = orderArchiveService.archiveOrdersBefore(cutoff);
+        
+        // Then
+        assertEquals(3, archived);
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(archivedOrderRepository).copyFromOrders(Arrays.asList(1L, 2L), OrderArchiveService.TERMINAL_STATUSES);
+        verify(orderRepository).deleteByIdInAndStatusIn(Collections.singletonList(3L), OrderArchiveService.TERMINAL_STATUSES);
+        verify(orderHistoryProjector).forget(Arrays.asList(1L, 2L));
+        verify(orderHistoryProjector).forget(Collections.singletonList(3L));
+    }
+    
+    @Test
+    void archiveOrdersBefore_CopyAndDeleteMismatch_ThrowsException() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(orderRepository.findIdsByStatusInAndCreateDateBefore(anyList(), eq(cutoff), any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L));
+        when(archivedOrderRepository.copyFromOrders(anyList(), anyList())).thenReturn(2);
+        when(orderRepository.deleteByIdInAndStatusIn(anyList(), anyList())).thenReturn(1);
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> orderArchiveService.archiveOrdersBefore(cutoff));
+    }
+    
+    @Test
+    void compactOrdersBefore_WritesOneSegmentPerCustomerAndMonth() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2025, 6, 1, 0, 0);
+        ArchivedOrder january = archivedOrder(1L, 1L, LocalDateTime.of(2025, 1, 10, 9, 0));
+        ArchivedOrder february = archivedOrder(2L, 1L, LocalDateTime.of(2025, 2, 3, 9, 0));
+        ArchivedOrder otherCustomer = archivedOrder(3L, 2L, LocalDateTime.of(2025, 1, 12, 9, 0));
+        when(archivedOrderRepository.findByCreateDateBefore(eq(cutoff), any(Pageable.class)))
+                .thenReturn(Arrays.asList(january, february, otherCustomer), Collections.emptyList());
+        when(archivedOrderRepository.deleteByIdIn(anyList())).thenReturn(3);
+        
+        // When
+        int compacted = orderArchiveService.compactOrdersBefore(cutoff);
+        
+        // Then
+        assertEquals(3, compacted);
+        InOrder inOrder = inOrder(segmentStore, archivedOrderRepository);
+        inOrder.verify(segmentStore).write(1L, YearMonth.of(2025, 1), List.of(january));
+        inOrder.verify(segmentStore).write(1L, YearMonth.of(2025, 2), List.of(february));
+        inOrder.verify(segmentStore).write(2L, YearMonth.of(2025, 1), List.of(otherCustomer));
+        inOrder.verify(archivedOrderRepository).deleteByIdIn(Arrays.asList(1L, 2L, 3L));
+    }
+    
+    @Test
+    void findArchivedOrders_RangeNewerThanArchive_SkipsArchive() {
+        // Given
+        when(archivedOrderRepository.findLatestCreateDate()).thenReturn(LocalDateTime.now().minusDays(30));
+        orderArchiveService.loadWatermark();
+        
+        // When
+        List<OrderResponse> responses = orderArchiveService.findArchivedOrders(1L,
+                LocalDateTime.now().minusDays(7), LocalDateTime.now());
+        
+        // Then
+        assertTrue(responses.isEmpty());
+        verify(archivedOrderRepository, never()).findResponsesByCustomerAndDateRange(any(), any(), any());
+    }
+    
+    @Test
+    void findArchivedOrders_RangeOverlapsArchive_QueriesArchive() {
+        // Given
+        LocalDateTime startDate = LocalDateTime.now().minusDays(90);
+        LocalDateTime endDate = LocalDateTime.now();
+        ArchivedOrder archivedOrder = new ArchivedOrder();
+        archivedOrder.setId(7L);
+        archivedOrder.setCustomerId(1L);
+        when(archivedOrderRepository.findLatestCreateDate()).thenReturn(LocalDateTime.now().minusDays(30));
+        when(archivedOrderRepository.findResponsesByCustomerAndDateRange(1L, startDate, endDate))
+                .thenReturn(Collections.singletonList(OrderResponse.from(archivedOrder)));
+        when(segmentStore.read(1L, startDate, endDate))
+                .thenReturn(Collections.singletonList(archivedOrder(3L, 1L, LocalDateTime.now().minusDays(80))));
+        orderArchiveService.loadWatermark();
+        
+        // When
+        List<OrderResponse> responses = orderArchiveService.findArchivedOrders(1L, startDate, endDate);
+        
+        // Then
+        assertEquals(2, responses.size());
+        assertEquals(7L, responses.get(0).getId());
+        assertEquals(3L, responses.get(1).getId());
+    }
+    
+    @Test
+    void loadWatermark_ArchiveTableEmpty_UsesLatestSegment() {
+        // Given
+        when(archivedOrderRepository.findLatestCreateDate()).thenReturn(null);
+        when(segmentStore.findLatestMonth()).thenReturn(Optional.of(YearMonth.of(2024, 3)));
+        orderArchiveService.loadWatermark();
+        
+        // When
+        orderArchiveService.findArchivedOrders(1L, LocalDateTime.of(2024, 3, 15, 0, 0), LocalDateTime.of(2024, 5, 1, 0, 0));
+        
+        // Then
+        verify(segmentStore).read(eq(1L), any(), any());
+    }
+    
+    private ArchivedOrder archivedOrder(Long id, Long customerId, LocalDateTime createDate) {
+        ArchivedOrder order = new ArchivedOrder();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setCreateDate(createDate);
+        return order;
+    }
+}
@@ -0,0 +1,216 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderIntakeResponse;
+import com.brokerage.api.dto.OrderIntakeResponse.Status;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.exception.BulkheadFullException;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakePipelineTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderPartitions orderPartitions;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderIntakePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        // Not started, so everything submitted before start() is drained as one batch
+        pipeline = new OrderIntakePipeline(orderRepository, assetRepository, eventPublisher, idempotencyStore,
+                transactionTemplate, orderPartitions, meterRegistry, true, 4, 64, 1000, 60000);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        lenient().when(assetRepository.reserveUsable(any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_AnsweredBeforeWriting_ThenGroupCommitted() throws Exception {
+        // When
+        OrderIntakeResponse first = pipeline.submit(order(OrderSide.BUY, "5", "100", "a"), "a");
+        pipeline.submit(order(OrderSide.SELL, "2", "120", "b"), "b");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "c"), "c");
+
+        // Then
+        assertEquals(Status.ACCEPTED, first.getStatus());
+        verifyNoInteractions(orderRepository);
+
+        pipeline.start();
+        OrderIntakeResponse placed = awaitOutcome("a");
+        awaitOutcome("b");
+        awaitOutcome("c");
+        assertEquals(Status.PLACED, placed.getStatus());
+        assertEquals(OrderStatus.PENDING, placed.getOrder().getStatus());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(assetRepository).reserveUsable(eq(1L), eq("TRY"), argThatEquals("500"));
+        verify(assetRepository).reserveUsable(eq(1L), eq("AAPL"), argThatEquals("2"));
+        verify(idempotencyStore).putAfterCommit(eq(1L), eq("a"), any(OrderResponse.class));
+        verify(eventPublisher, times(3)).publishEvent(any(OrderEvent.class));
+        assertEquals(3, meterRegistry.get("orders.intake.batch_size").summary().totalAmount());
+    }
+
+    @Test
+    void write_InsufficientFunds_RejectsOnlyThatOrder() throws Exception {
+        // Given
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), argThatEquals("1000"))).thenReturn(0);
+        pipeline.submit(order(OrderSide.BUY, "10", "100", "poor"), "poor");
+        pipeline.submit(order(OrderSide.BUY, "1", "100", "fine"), "fine");
+
+        // When
+        pipeline.start();
+
+        // Then
+        OrderIntakeResponse rejected = awaitOutcome("poor");
+        assertEquals(Status.REJECTED, rejected.getStatus());
+        assertTrue(rejected.getReason().contains("Insufficient TRY"));
+        assertEquals(Status.PLACED, awaitOutcome("fine").getStatus());
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void write_FailedBatch_WritesOrdersIndividually() throws Exception {
+        // Given
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if ("dup".equals(order.getIdempotencyKey())) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "valid"), "valid");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "dup"), "dup");
+
+        // When
+        pipeline.start();
+
+        // Then
+        assertEquals(Status.PLACED, awaitOutcome("valid").getStatus());
+        OrderIntakeResponse duplicate = awaitOutcome("dup");
+        assertEquals(Status.REJECTED, duplicate.getStatus());
+        assertTrue(duplicate.getReason().contains("already exists"));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void submit_SameReferenceQueuedOnce_FullQueueRejected() {
+        // Given
+        OrderIntakeResponse accepted = pipeline.submit(order(OrderSide.BUY, "1", "10", "a"), "a");
+
+        // When
+        OrderIntakeResponse retried = pipeline.submit(order(OrderSide.BUY, "1", "10", "a"), "a");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "b"), "b");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "c"), "c");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "d"), "d");
+
+        // Then
+        assertSame(accepted, retried);
+        assertEquals(4, pipeline.queueDepth());
+        assertThrows(BulkheadFullException.class, () -> pipeline.submit(order(OrderSide.BUY, "1", "10", "e"), "e"));
+        assertTrue(pipeline.status(1L, "e").isEmpty());
+        assertTrue(pipeline.status(2L, "a").isEmpty());
+    }
+
+    @Test
+    void partitionsEnabled_HandsOrdersToPartitions() throws Exception {
+        // Given
+        when(orderPartitions.isEnabled()).thenReturn(true);
+        OrderResponse written = new OrderResponse();
+        written.setId(7L);
+        when(orderPartitions.placeAsync(any(Order.class), eq("a"))).thenReturn(CompletableFuture.completedFuture(written));
+        when(orderPartitions.placeAsync(any(Order.class), eq("b")))
+                .thenReturn(CompletableFuture.failedFuture(new InsufficientFundsException("Insufficient TRY balance")));
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "a"), "a");
+        pipeline.submit(order(OrderSide.BUY, "1", "10", "b"), "b");
+
+        // When
+        pipeline.start();
+
+        // Then
+        assertEquals(7L, awaitOutcome("a").getOrder().getId());
+        assertEquals("Insufficient TRY balance", awaitOutcome("b").getReason());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private OrderIntakeResponse awaitOutcome(String reference) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            OrderIntakeResponse response = pipeline.status(1L, reference).orElseThrow();
+            if (response.getStatus() != Status.ACCEPTED) {
+                return response;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("Order " + reference + " was not written");
+    }
+
+    private static Order order(OrderSide side, String size, String price, String reference) {
+        Order order = new Order();
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setIdempotencyKey(reference);
+        return order;
+    }
+
+    private static BigDecimal argThatEquals(String value) {
+        return argThat(actual -> actual != null && actual.compareTo(new BigDecimal(value)) == 0);
+    }
+}
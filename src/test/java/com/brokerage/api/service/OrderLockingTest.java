@@ -0,0 +1,144 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.AmendOrderRequest;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.CustomerRepository;
+import com.brokerage.api.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent changes to one order against the real database: the second change waits for the first
+ * to commit and then works on what it committed.
+ */
+@SpringBootTest(properties = "market.feed.enabled=false")
+@ActiveProfiles("test")
+class OrderLockingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = customerRepository.findByUsername("john.doe").orElseThrow().getId();
+        orderService.cancelOrders(customerId, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderService.cancelOrders(customerId, null, null);
+    }
+
+    @Test
+    void matchDuringAmendment_SettlesAmendedTerms() throws Exception {
+        // Given
+        OrderResponse order = orderService.createOrder(buy());
+        BigDecimal held = holding("AAPL");
+
+        // When: the match starts while the amendment holds the order
+        CompletableFuture<OrderResponse> match = whileLocked(order.getId(), () -> {
+            AmendOrderRequest amendment = new AmendOrderRequest();
+            amendment.setSize(new BigDecimal("2"));
+            orderService.amendOrder(order.getId(), customerId, amendment);
+        }, () -> orderService.matchOrder(order.getId()));
+
+        // Then
+        OrderResponse matched = match.get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.MATCHED, matched.getStatus());
+        assertEquals(0, new BigDecimal("2").compareTo(matched.getSize()));
+        assertEquals(0, new BigDecimal("2").compareTo(orderRepository.findById(order.getId()).orElseThrow().getSize()));
+        assertEquals(0, held.add(new BigDecimal("2")).compareTo(holding("AAPL")));
+    }
+
+    @Test
+    void deleteDuringMassCancel_ReleasesReservationOnce() throws Exception {
+        // Given
+        BigDecimal usable = usable("TRY");
+        OrderResponse order = orderService.createOrder(buy());
+
+        // When: the delete starts while the mass cancel holds the order
+        CompletableFuture<Void> delete = whileLocked(order.getId(),
+                () -> orderService.cancelOrders(customerId, null, null),
+                () -> {
+                    orderService.deleteOrder(order.getId(), customerId);
+                    return null;
+                });
+
+        // Then
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> delete.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InvalidOrderException.class, failure.getCause());
+        assertEquals(OrderStatus.CANCELED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(0, usable.compareTo(usable("TRY")));
+    }
+
+    /**
+     * Runs {@code second} on another thread while {@code first} runs in a transaction that has locked the
+     * order, and commits {@code first} once {@code second} is blocked on it.
+     */
+    private <T> CompletableFuture<T> whileLocked(Long orderId, Runnable first, Supplier<T> second) {
+        return transactionTemplate.execute(status -> {
+            orderRepository.findByIdInAndStatusForUpdate(List.of(orderId), OrderStatus.PENDING);
+            first.run();
+            CompletableFuture<T> started = CompletableFuture.supplyAsync(second);
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(started.isDone(), "second change did not wait for the lock");
+            return started;
+        });
+    }
+
+    private BigDecimal usable(String assetName) {
+        return assetRepository.findByCustomerIdAndAssetName(customerId, assetName).map(Asset::getUsableSize).orElseThrow();
+    }
+
+    private BigDecimal holding(String assetName) {
+        return assetRepository.findByCustomerIdAndAssetName(customerId, assetName).map(Asset::getSize).orElse(BigDecimal.ZERO);
+    }
+
+    private CreateOrderRequest buy() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(new BigDecimal("0.01"));
+        return request;
+    }
+}
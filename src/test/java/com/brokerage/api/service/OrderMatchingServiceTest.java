@@ -0,0 +1,157 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.BulkMatchResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.exception.InvalidOrderException;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderMatchingServiceTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private AssetRepository assetRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private SettlementService settlementService;
+    
+    private OrderMatchingService orderMatchingService;
+    
+    @BeforeEach
+    void setUp() {
+        orderMatchingService = new OrderMatchingService(orderRepository, assetRepository, eventPublisher,
+                transactionTemplate, new InstrumentRegistry(List.of("AAPL", "GOOGL")), settlementService, 2, 1);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    @Test
+    void matchOrders_NetsBalancesPerCustomerAndAsset() {
+        // Given
+        Order buy1 = order(1L, OrderSide.BUY, "10", "150.00");
+        Order buy2 = order(2L, OrderSide.BUY, "5", "151.00");
+        Order sell = order(3L, OrderSide.SELL, "2", "160.00");
+        when(orderRepository.findByIdInAndStatusForUpdate(Arrays.asList(1L, 2L), OrderStatus.PENDING))
+                .thenReturn(Arrays.asList(buy1, buy2));
+        when(orderRepository.findByIdInAndStatusForUpdate(Collections.singletonList(3L), OrderStatus.PENDING))
+                .thenReturn(Collections.singletonList(sell));
+        when(assetRepository.adjustBalances(any(), any(), any(), any())).thenReturn(1);
+        
+        // When
+        BulkMatchResponse response = orderMatchingService.matchOrders(Arrays.asList(3L, 1L, 2L));
+        
+        // Then
+        assertEquals(3, response.getRequested());
+        assertEquals(3, response.getMatched());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(assetRepository).adjustBalances(1L, "AAPL", new BigDecimal("15"), new BigDecimal("15"));
+        verify(assetRepository).adjustBalances(eq(1L), eq("TRY"), argThatEquals("320.00"), argThatEquals("320.00"));
+        verify(eventPublisher, times(3)).publishEvent(any(OrderEvent.class));
+    }
+    
+    @Test
+    void matchOrders_SkipsOrdersNoLongerPending() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(anyList(), eq(OrderStatus.PENDING)))
+                .thenReturn(Collections.emptyList());
+        
+        // When
+        BulkMatchResponse response = orderMatchingService.matchOrders(Collections.singletonList(1L));
+        
+        // Then
+        assertEquals(0, response.getMatched());
+        assertEquals(1, response.getSkipped());
+        verify(orderRepository, never()).updateStatus(any(), any(), any());
+        verify(assetRepository, never()).adjustBalances(any(), any(), any(), any());
+    }
+    
+    @Test
+    void matchOrders_MissingAsset_CreatesIt() {
+        // Given
+        Order buy = order(1L, OrderSide.BUY, "10", "150.00");
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING))
+                .thenReturn(List.of(buy));
+        when(assetRepository.adjustBalances(any(), any(), any(), any())).thenReturn(0);
+        
+        // When
+        orderMatchingService.matchOrders(List.of(1L));
+        
+        // Then
+        verify(assetRepository).save(any(Asset.class));
+    }
+    
+    @Test
+    void matchOrders_Netting_JournalsInsteadOfUpdatingBalances() {
+        // Given
+        Order buy = order(1L, OrderSide.BUY, "10", "150.00");
+        Order sell = order(2L, OrderSide.SELL, "2", "160.00");
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L, 2L), OrderStatus.PENDING))
+                .thenReturn(List.of(buy, sell));
+        when(settlementService.isNetting()).thenReturn(true);
+        
+        // When
+        BulkMatchResponse response = orderMatchingService.matchOrders(List.of(1L, 2L));
+        
+        // Then
+        assertEquals(2, response.getMatched());
+        verify(settlementService).record(List.of(1L, 2L));
+        verifyNoInteractions(assetRepository);
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+    }
+    
+    @Test
+    void matchOrders_NoIds_ThrowsException() {
+        assertThrows(InvalidOrderException.class, () -> orderMatchingService.matchOrders(Collections.emptyList()));
+    }
+    
+    private static BigDecimal argThatEquals(String value) {
+        return argThat(actual -> actual != null && actual.compareTo(new BigDecimal(value)) == 0);
+    }
+    
+    private static Order order(Long id, OrderSide side, String size, String price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,217 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.exception.DuplicateOrderException;
+import com.brokerage.api.exception.InsufficientFundsException;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.model.Order;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPartitionsTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong ids = new AtomicLong();
+    private OrderPartitions orderPartitions;
+
+    @BeforeEach
+    void setUp() {
+        orderPartitions = new OrderPartitions(orderRepository, assetRepository, eventPublisher, idempotencyStore,
+                transactionTemplate, new InstrumentRegistry(List.of("AAPL", "GOOGL")), new SimpleMeterRegistry(), true, 2, 64);
+        orderPartitions.start();
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        lenient().when(assetRepository.reserveUsable(any(), any(), any())).thenReturn(1);
+        lenient().when(assetRepository.findByCustomerId(1L)).thenReturn(List.of(asset(1L, "TRY", "1000"), asset(1L, "AAPL", "10")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderPartitions.stop();
+    }
+
+    @Test
+    void place_ReservesFromCachedBalances() {
+        // When
+        OrderResponse first = orderPartitions.place(order(1L, OrderSide.BUY, "5", "100"), "key-1");
+        OrderResponse second = orderPartitions.place(order(1L, OrderSide.SELL, "4", "120"), null);
+
+        // Then
+        assertEquals(OrderStatus.PENDING, first.getStatus());
+        assertNotNull(second.getId());
+        verify(assetRepository, times(1)).findByCustomerId(1L);
+        verify(assetRepository).reserveUsable(eq(1L), eq("TRY"), argThatEquals("500"));
+        verify(assetRepository).reserveUsable(eq(1L), eq("AAPL"), argThatEquals("4"));
+        verify(idempotencyStore).putAfterCommit(eq(1L), eq("key-1"), any(OrderResponse.class));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void place_InsufficientFunds_RejectedWithoutWriting() {
+        // Given
+        orderPartitions.place(order(1L, OrderSide.BUY, "6", "100"), null);
+
+        // When & Then
+        InsufficientFundsException e = assertThrows(InsufficientFundsException.class,
+                () -> orderPartitions.place(order(1L, OrderSide.BUY, "5", "100"), null));
+        assertTrue(e.getMessage().contains("Available: 400"));
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void place_ConcurrentOrdersOnHotAccount_NeverOverReserve() {
+        // Given: 1000 TRY covers exactly 20 orders of 50 TRY
+        List<CompletableFuture<OrderResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> orderPartitions.place(order(1L, OrderSide.BUY, "1", "50"), null)));
+        }
+
+        // When
+        long placed = results.stream().filter(result -> {
+            try {
+                result.join();
+                return true;
+            } catch (CompletionException e) {
+                assertInstanceOf(InsufficientFundsException.class, e.getCause());
+                return false;
+            }
+        }).count();
+
+        // Then
+        assertEquals(20, placed);
+        verify(orderRepository, times(20)).save(any(Order.class));
+    }
+
+    @Test
+    void onOrderEvent_Canceled_ReloadsBalances() {
+        // Given
+        orderPartitions.place(order(1L, OrderSide.BUY, "10", "100"), null);
+        OrderResponse canceled = new OrderResponse();
+        canceled.setCustomerId(1L);
+
+        // When
+        orderPartitions.onOrderEvent(new OrderEvent(OrderEventType.CANCELED, canceled));
+        orderPartitions.place(order(1L, OrderSide.BUY, "10", "100"), null);
+
+        // Then
+        verify(assetRepository, times(2)).findByCustomerId(1L);
+    }
+
+    @Test
+    void place_FailedBatch_WritesOrdersIndividually() throws Exception {
+        // Given: the first write blocks so the next two orders are written as one batch
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if ("first".equals(order.getIdempotencyKey())) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            if ("dup".equals(order.getIdempotencyKey())) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(
+                () -> orderPartitions.place(keyed("first"), "first"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(
+                () -> orderPartitions.place(keyed("dup"), "dup"));
+        CompletableFuture<OrderResponse> valid = CompletableFuture.supplyAsync(
+                () -> orderPartitions.place(keyed("valid"), "valid"));
+        while (orderPartitions.queueDepth() < 2) {
+            Thread.sleep(1);
+        }
+
+        // When
+        release.countDown();
+
+        // Then
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(valid.get(5, TimeUnit.SECONDS).getId());
+        CompletionException e = assertThrows(CompletionException.class, duplicate::join);
+        assertInstanceOf(DuplicateOrderException.class, e.getCause());
+    }
+
+    private static Order order(Long customerId, OrderSide side, String size, String price) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+
+    private static Order keyed(String idempotencyKey) {
+        Order order = order(1L, OrderSide.BUY, "1", "10");
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+
+    private static Asset asset(Long customerId, String name, String usable) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(name);
+        asset.setSize(new BigDecimal(usable));
+        asset.setUsableSize(new BigDecimal(usable));
+        return asset;
+    }
+
+    private static BigDecimal argThatEquals(String value) {
+        return argThat(actual -> actual != null && actual.compareTo(new BigDecimal(value)) == 0);
+    }
+}
@@ -1,22 +1,37 @@
 package com.brokerage.api.service;
 
+import com.brokerage.api.dto.AmendOrderRequest;
+import com.brokerage.api.dto.BulkCancelResponse;
 import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.OrderIntakeResponse;
 import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
 import com.brokerage.api.exception.InsufficientFundsException;
 import com.brokerage.api.exception.InvalidOrderException;
 import com.brokerage.api.exception.OrderNotFoundException;
+import com.brokerage.api.exception.RiskLimitExceededException;
+import com.brokerage.api.expiry.TradingSession;
+import com.brokerage.api.market.InstrumentRegistry;
 import com.brokerage.api.model.Asset;
 import com.brokerage.api.model.Order;
 import com.brokerage.api.model.OrderSide;
 import com.brokerage.api.model.OrderStatus;
+import com.brokerage.api.model.TimeInForce;
 import com.brokerage.api.repository.AssetRepository;
 import com.brokerage.api.repository.OrderRepository;
+import com.brokerage.api.risk.RiskEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,6 +41,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +54,33 @@ class OrderServiceTest {
     @Mock
     private AssetRepository assetRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    
+    @Mock
+    private TradingSession tradingSession;
+    
+    @Mock
+    private OrderPartitions orderPartitions;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Spy
+    private InstrumentRegistry instrumentRegistry = new InstrumentRegistry(List.of("AAPL", "GOOGL"));
+    
+    @Mock
+    private RiskEngine riskEngine;
+    
+    @Mock
+    private SettlementService settlementService;
+    
+    @Mock
+    private OrderIntakePipeline orderIntakePipeline;
+    
     @InjectMocks
     private OrderService orderService;
     
@@ -48,6 +92,9 @@ class OrderServiceTest {
     
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        
         buyOrderRequest = new CreateOrderRequest();
         buyOrderRequest.setCustomerId(1L);
         buyOrderRequest.setAssetName("AAPL");
@@ -90,10 +137,8 @@ class OrderServiceTest {
     @Test
     void createOrder_BuyOrder_Success() {
         // Given
-        when(assetRepository.findAssetByCustomerAndName(1L, "TRY"))
-                .thenReturn(Optional.of(tryAsset));
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
         
         // When
         OrderResponse response = orderService.createOrder(buyOrderRequest);
@@ -103,16 +148,16 @@ class OrderServiceTest {
         assertEquals(1L, response.getId());
         assertEquals(OrderStatus.PENDING, response.getStatus());
         verify(orderRepository).save(any(Order.class));
-        verify(assetRepository).save(any(Asset.class));
+        verify(assetRepository).reserveUsable(eq(1L), eq("TRY"), argThat(amount -> amount.compareTo(new BigDecimal("1500")) == 0));
+        verify(assetRepository, never()).findAssetByCustomerAndName(any(), any());
+        verify(eventPublisher).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.CREATED));
     }
     
     @Test
     void createOrder_SellOrder_Success() {
         // Given
-        when(assetRepository.findAssetByCustomerAndName(1L, "AAPL"))
-                .thenReturn(Optional.of(stockAsset));
+        when(assetRepository.reserveUsable(1L, "AAPL", new BigDecimal("5"))).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(assetRepository.save(any(Asset.class))).thenReturn(stockAsset);
         
         // When
         OrderResponse response = orderService.createOrder(sellOrderRequest);
@@ -122,13 +167,149 @@ class OrderServiceTest {
         assertEquals(1L, response.getId());
         assertEquals(OrderStatus.PENDING, response.getStatus());
         verify(orderRepository).save(any(Order.class));
-        verify(assetRepository).save(any(Asset.class));
+        verify(assetRepository).reserveUsable(1L, "AAPL", new BigDecimal("5"));
+        verify(assetRepository, never()).findAssetByCustomerAndName(any(), any());
+    }
+    
+    @Test
+    void createOrder_WithIdempotencyKey_StoresKey() {
+        // Given
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(1);
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.empty());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        
+        // When
+        orderService.createOrder(buyOrderRequest, "key-1");
+        
+        // Then
+        verify(orderRepository).save(argThat((Order o) -> "key-1".equals(o.getIdempotencyKey())));
+        verify(idempotencyStore).putAfterCommit(eq(1L), eq("key-1"), any(OrderResponse.class));
+    }
+    
+    @Test
+    void createOrder_ReplayedIdempotencyKey_ReturnsOriginalOrder() {
+        // Given
+        order.setIdempotencyKey("key-1");
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(order));
+        
+        // When
+        OrderResponse response = orderService.createOrder(buyOrderRequest, "key-1");
+        
+        // Then
+        assertEquals(1L, response.getId());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(assetRepository, never()).save(any(Asset.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void createOrder_CachedIdempotencyKey_SkipsDatabase() {
+        // Given
+        OrderResponse cached = OrderResponse.from(order);
+        when(idempotencyStore.get(1L, "key-1")).thenReturn(Optional.of(cached));
+        
+        // When
+        OrderResponse response = orderService.createOrder(buyOrderRequest, "key-1");
+        
+        // Then
+        assertSame(cached, response);
+        verifyNoInteractions(orderRepository, assetRepository);
+    }
+    
+    @Test
+    void createOrder_IdempotencyKeyReusedForDifferentOrder_ThrowsException() {
+        // Given
+        order.setSize(new BigDecimal("99"));
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(order));
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest, "key-1"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void createOrder_RetriedAfterAmendAndEviction_ReplaysOrder() {
+        // Given: placed with key-1, then amended to 155.00, and the cached result gone
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        orderService.createOrder(buyOrderRequest, "key-1");
+        ArgumentCaptor<Order> placed = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(placed.capture());
+        Order stored = placed.getValue();
+        
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(stored));
+        orderService.amendOrder(1L, 1L, amendment(null, "155.00"));
+        when(idempotencyStore.get(1L, "key-1")).thenReturn(Optional.empty());
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(stored));
+        
+        // When
+        OrderResponse response = orderService.createOrder(buyOrderRequest, "key-1");
+        
+        // Then: a retry of the original request, not a different order
+        assertEquals(1L, response.getId());
+        verify(orderRepository, times(2)).save(any(Order.class));
+        
+        // A request with the amended terms is a different order
+        buyOrderRequest.setPrice(new BigDecimal("155.00"));
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest, "key-1"));
+    }
+    
+    @Test
+    void createOrder_DayOrder_ExpiresAtSessionClose() {
+        // Given
+        LocalDateTime close = LocalDateTime.now().plusHours(2);
+        buyOrderRequest.setTimeInForce(TimeInForce.DAY);
+        when(tradingSession.sessionClose(any(LocalDateTime.class))).thenReturn(close);
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        
+        // When
+        orderService.createOrder(buyOrderRequest);
+        
+        // Then
+        verify(orderRepository).save(argThat((Order o) -> o.getTimeInForce() == TimeInForce.DAY && close.equals(o.getExpireAt())));
+    }
+    
+    @Test
+    void createOrder_GtdWithoutExpiry_ThrowsException() {
+        // Given
+        buyOrderRequest.setTimeInForce(TimeInForce.GTD);
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void createOrder_GtdWithPastExpiry_ThrowsException() {
+        // Given
+        buyOrderRequest.setTimeInForce(TimeInForce.GTD);
+        buyOrderRequest.setExpireAt(LocalDateTime.now().minusMinutes(1));
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void createOrder_ExpiryWithoutGtd_ThrowsException() {
+        // Given
+        buyOrderRequest.setExpireAt(LocalDateTime.now().plusDays(1));
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest));
+        verify(orderRepository, never()).save(any(Order.class));
     }
     
     @Test
     void createOrder_InsufficientTRYBalance_ThrowsException() {
         // Given
         tryAsset.setUsableSize(new BigDecimal("100.00")); // Not enough for 10 * 150 = 1500
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(0);
         when(assetRepository.findAssetByCustomerAndName(1L, "TRY"))
                 .thenReturn(Optional.of(tryAsset));
         
@@ -141,6 +322,7 @@ class OrderServiceTest {
     void createOrder_InsufficientStockBalance_ThrowsException() {
         // Given
         stockAsset.setUsableSize(new BigDecimal("3")); // Not enough for 5
+        when(assetRepository.reserveUsable(1L, "AAPL", new BigDecimal("5"))).thenReturn(0);
         when(assetRepository.findAssetByCustomerAndName(1L, "AAPL"))
                 .thenReturn(Optional.of(stockAsset));
         
@@ -149,6 +331,29 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
     
+    @Test
+    void createOrder_UnknownAsset_RejectedBeforeDatabase() {
+        // Given
+        buyOrderRequest.setAssetName("XYZ");
+        
+        // When & Then
+        InvalidOrderException exception = assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest, "key-1"));
+        assertEquals("Unknown asset: XYZ", exception.getMessage());
+        verifyNoInteractions(orderRepository, assetRepository, idempotencyStore, transactionTemplate, orderPartitions);
+    }
+    
+    @Test
+    void createOrder_RiskRejected_NothingReservedOrSaved() {
+        // Given
+        doThrow(new RiskLimitExceededException("max-open-orders", "Order rejected by max-open-orders"))
+                .when(riskEngine).check(buyOrderRequest);
+        
+        // When & Then
+        assertThrows(RiskLimitExceededException.class, () -> orderService.createOrder(buyOrderRequest));
+        verify(assetRepository, never()).reserveUsable(any(), any(), any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
     @Test
     void createOrder_TryAsset_ThrowsException() {
         // Given
@@ -178,52 +383,107 @@ class OrderServiceTest {
     void createOrder_InvalidPrice_ThrowsException() {
         // Given
         buyOrderRequest.setPrice(BigDecimal.ZERO);
-        
+    
         // When & Then
         assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest));
         verify(orderRepository, never()).save(any(Order.class));
     }
     
     @Test
-    void listOrders_Success() {
+    void createOrder_Partitioned_PlacesOnPartitionWithoutTransaction() {
         // Given
-        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
-        LocalDateTime endDate = LocalDateTime.now();
-        List<Order> orders = Arrays.asList(order);
-        
-        when(orderRepository.findOrdersByCustomerAndDateRange(1L, startDate, endDate))
-                .thenReturn(orders);
-        
+        OrderResponse placed = OrderResponse.from(order);
+        when(orderPartitions.isEnabled()).thenReturn(true);
+        when(orderPartitions.place(any(Order.class), eq("key-1"))).thenReturn(placed);
+    
         // When
-        List<OrderResponse> responses = orderService.listOrders(1L, startDate, endDate);
-        
+        OrderResponse response = orderService.createOrder(buyOrderRequest, "key-1");
+    
         // Then
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals(1L, responses.get(0).getId());
-        verify(orderRepository).findOrdersByCustomerAndDateRange(1L, startDate, endDate);
+        assertSame(placed, response);
+        verify(orderPartitions).place(argThat((Order o) -> o.getCustomerId().equals(1L)
+                && o.getStatus() == OrderStatus.PENDING && "key-1".equals(o.getIdempotencyKey())), eq("key-1"));
+        verify(transactionTemplate, never()).execute(any());
+        verifyNoInteractions(assetRepository);
+    }
+    
+    @Test
+    void createOrder_Partitioned_InvalidOrderRejectedBeforePartition() {
+        // Given
+        when(orderPartitions.isEnabled()).thenReturn(true);
+        buyOrderRequest.setSize(BigDecimal.ZERO);
+    
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(buyOrderRequest));
+        verify(orderPartitions, never()).place(any(), any());
+    }
+    
+    @Test
+    void acceptOrder_QueuedUnderGeneratedReferenceWithoutDatabase() {
+        // Given
+        when(orderIntakePipeline.isEnabled()).thenReturn(true);
+        when(orderIntakePipeline.submit(any(Order.class), any())).thenAnswer(invocation -> OrderIntakeResponse.accepted(invocation.getArgument(1)));
+    
+        // When
+        OrderIntakeResponse response = orderService.acceptOrder(buyOrderRequest, null);
+    
+        // Then
+        assertEquals(OrderIntakeResponse.Status.ACCEPTED, response.getStatus());
+        assertNotNull(response.getReference());
+        verify(orderIntakePipeline).submit(argThat((Order o) -> response.getReference().equals(o.getIdempotencyKey())
+                && o.getStatus() == OrderStatus.PENDING), eq(response.getReference()));
+        verify(riskEngine).check(buyOrderRequest);
+        verifyNoInteractions(assetRepository, orderRepository, transactionTemplate);
+    }
+    
+    @Test
+    void acceptOrder_InvalidOrderRejectedBeforeQueueing() {
+        // Given
+        when(orderIntakePipeline.isEnabled()).thenReturn(true);
+        buyOrderRequest.setPrice(BigDecimal.ZERO);
+    
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.acceptOrder(buyOrderRequest, "key-1"));
+        verify(orderIntakePipeline, never()).submit(any(), any());
+    }
+    
+    @Test
+    void getIntakeStatus_ForgottenReference_FoundByIdempotencyKey() {
+        // Given
+        order.setIdempotencyKey("key-1");
+        when(orderIntakePipeline.status(1L, "key-1")).thenReturn(Optional.empty());
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(order));
+        when(orderRepository.findByCustomerIdAndIdempotencyKey(1L, "unknown")).thenReturn(Optional.empty());
+    
+        // When
+        OrderIntakeResponse response = orderService.getIntakeStatus(1L, "key-1");
+    
+        // Then
+        assertEquals(OrderIntakeResponse.Status.PLACED, response.getStatus());
+        assertEquals(1L, response.getOrder().getId());
+        assertThrows(OrderNotFoundException.class, () -> orderService.getIntakeStatus(1L, "unknown"));
     }
     
     @Test
     void deleteOrder_Success() {
         // Given
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(assetRepository.findAssetByCustomerAndName(1L, "TRY"))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
         
         // When
         orderService.deleteOrder(1L, 1L);
         
         // Then
         verify(orderRepository).save(any(Order.class));
-        verify(assetRepository).save(any(Asset.class));
+        verify(assetRepository).adjustBalances(eq(1L), eq("TRY"), eq(BigDecimal.ZERO),
+                argThat(amount -> amount.compareTo(new BigDecimal("1500")) == 0));
+        verify(eventPublisher).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.CANCELED));
     }
     
     @Test
     void deleteOrder_OrderNotFound_ThrowsException() {
         // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
         
         // When & Then
@@ -235,6 +495,7 @@ class OrderServiceTest {
     void deleteOrder_NotPendingStatus_ThrowsException() {
         // Given
         order.setStatus(OrderStatus.MATCHED);
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         
         // When & Then
@@ -245,7 +506,7 @@ class OrderServiceTest {
     @Test
     void deleteOrder_NotCustomerOrder_ThrowsException() {
         // Given
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
         
         // When & Then
         assertThrows(InvalidOrderException.class, () -> orderService.deleteOrder(1L, 2L));
@@ -253,13 +514,142 @@ class OrderServiceTest {
     }
     
     @Test
-    void matchOrder_Success() {
+    void cancelOrders_ReleasesReservationsNettedPerAsset() {
+        // Given: two buys and two sells of AAPL
+        List<OrderResponse> pending = List.of(
+                pendingOrder(1L, OrderSide.BUY, "10", "150"),
+                pendingOrder(2L, OrderSide.BUY, "2", "100"),
+                pendingOrder(3L, OrderSide.SELL, "5", "160"),
+                pendingOrder(4L, OrderSide.SELL, "1", "170"));
+        when(orderRepository.findResponsesByCustomerAndStatusForUpdate(1L, OrderStatus.PENDING, "AAPL", null)).thenReturn(pending);
+        
+        // When
+        BulkCancelResponse response = orderService.cancelOrders(1L, "AAPL", null);
+        
+        // Then
+        assertEquals(4, response.getCanceled());
+        verify(orderRepository).updateStatusOfLocked(List.of(1L, 2L, 3L, 4L), OrderStatus.CANCELED);
+        verify(assetRepository).adjustBalances(eq(1L), eq("TRY"), eq(BigDecimal.ZERO),
+                argThat(amount -> amount.compareTo(new BigDecimal("1700")) == 0));
+        verify(assetRepository).adjustBalances(eq(1L), eq("AAPL"), eq(BigDecimal.ZERO),
+                argThat(amount -> amount.compareTo(new BigDecimal("6")) == 0));
+        verifyNoMoreInteractions(assetRepository);
+        verify(eventPublisher, times(4)).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.CANCELED
+                && e.getOrder().getStatus() == OrderStatus.CANCELED));
+    }
+    
+    @Test
+    void cancelOrders_NothingPending_NoUpdates() {
         // Given
+        when(orderRepository.findResponsesByCustomerAndStatusForUpdate(1L, OrderStatus.PENDING, null, OrderSide.SELL)).thenReturn(List.of());
+        
+        // When
+        BulkCancelResponse response = orderService.cancelOrders(1L, null, OrderSide.SELL);
+        
+        // Then
+        assertEquals(0, response.getCanceled());
+        verify(orderRepository, never()).updateStatusOfLocked(any(), any());
+        verifyNoInteractions(assetRepository, eventPublisher);
+    }
+    
+    @Test
+    void cancelOrders_UnknownAsset_ThrowsException() {
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.cancelOrders(1L, "NOPE", null));
+        verifyNoInteractions(orderRepository);
+    }
+    
+    @Test
+    void amendOrder_BuyPriceUp_ReservesDifferenceOnly() {
+        // Given: 10 @ 150.00 becomes 10 @ 155.00
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(1);
+        
+        // When
+        OrderResponse response = orderService.amendOrder(1L, 1L, amendment(null, "155.00"));
+        
+        // Then
+        assertEquals(0, new BigDecimal("155.00").compareTo(response.getPrice()));
+        verify(assetRepository).reserveUsable(eq(1L), eq("TRY"), argThat(amount -> amount.compareTo(new BigDecimal("50")) == 0));
+        verify(assetRepository, never()).adjustBalances(any(), any(), any(), any());
+        verify(riskEngine).checkAmendment(argThat(amended -> amended.getPrice().compareTo(new BigDecimal("155.00")) == 0),
+                eq(new BigDecimal("10")));
+        verify(eventPublisher).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.AMENDED
+                && e.getPreviousSize().compareTo(new BigDecimal("10")) == 0));
+    }
+    
+    @Test
+    void amendOrder_SellSizeDown_ReleasesDifference() {
+        // Given: sell 10 becomes sell 4
+        order.setOrderSide(OrderSide.SELL);
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        
+        // When
+        orderService.amendOrder(1L, 1L, amendment("4", null));
+        
+        // Then
+        verify(assetRepository).adjustBalances(eq(1L), eq("AAPL"), eq(BigDecimal.ZERO),
+                argThat(amount -> amount.compareTo(new BigDecimal("6")) == 0));
+        verify(assetRepository, never()).reserveUsable(any(), any(), any());
+        assertEquals(0, new BigDecimal("4").compareTo(order.getSize()));
+    }
+    
+    @Test
+    void amendOrder_InsufficientTRYForIncrease_ThrowsException() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(assetRepository.reserveUsable(eq(1L), eq("TRY"), any())).thenReturn(0);
+        when(assetRepository.findAssetByCustomerAndName(1L, "TRY")).thenReturn(Optional.of(tryAsset));
+        
+        // When & Then
+        assertThrows(InsufficientFundsException.class, () -> orderService.amendOrder(1L, 1L, amendment("20", null)));
+        assertEquals(0, new BigDecimal("10").compareTo(order.getSize()));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void amendOrder_Unchanged_NoBalanceUpdateOrEvent() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        
+        // When
+        orderService.amendOrder(1L, 1L, amendment("10.0", "150"));
+        
+        // Then
+        verifyNoInteractions(assetRepository, riskEngine, eventPublisher);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void amendOrder_NotPendingStatus_ThrowsException() {
+        // Given
+        order.setStatus(OrderStatus.MATCHED);
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findById(2L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.amendOrder(1L, 1L, amendment("5", null)));
+        assertThrows(OrderNotFoundException.class, () -> orderService.amendOrder(2L, 1L, amendment("5", null)));
+    }
+    
+    @Test
+    void amendOrder_NotCustomerOrder_ThrowsException() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        
+        // When & Then
+        assertThrows(InvalidOrderException.class, () -> orderService.amendOrder(1L, 2L, amendment("5", null)));
+        verifyNoInteractions(assetRepository);
+    }
+    
+    @Test
+    void matchOrder_Success() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(assetRepository.findAssetByCustomerAndName(1L, "AAPL"))
-                .thenReturn(Optional.of(stockAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(stockAsset);
+        when(assetRepository.adjustBalances(1L, "AAPL", order.getSize(), order.getSize())).thenReturn(1);
         
         // When
         OrderResponse response = orderService.matchOrder(1L);
@@ -268,12 +658,47 @@ class OrderServiceTest {
         assertNotNull(response);
         assertEquals(OrderStatus.MATCHED, response.getStatus());
         verify(orderRepository).save(any(Order.class));
-        verify(assetRepository, atLeastOnce()).save(any(Asset.class));
+        verify(assetRepository).adjustBalances(1L, "AAPL", order.getSize(), order.getSize());
+        verify(assetRepository, never()).save(any(Asset.class));
+        verify(eventPublisher).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.MATCHED));
+    }
+    
+    @Test
+    void matchOrder_Netting_JournalsInsteadOfUpdatingBalances() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(settlementService.isNetting()).thenReturn(true);
+        
+        // When
+        OrderResponse response = orderService.matchOrder(1L);
+        
+        // Then
+        assertEquals(OrderStatus.MATCHED, response.getStatus());
+        verify(settlementService).record(List.of(1L));
+        verifyNoInteractions(assetRepository);
+        verify(eventPublisher).publishEvent(argThat((OrderEvent e) -> e.getType() == OrderEventType.MATCHED));
+    }
+    
+    @Test
+    void matchOrder_BuyWithoutHolding_CreatesAsset() {
+        // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(assetRepository.adjustBalances(1L, "AAPL", order.getSize(), order.getSize())).thenReturn(0);
+        
+        // When
+        orderService.matchOrder(1L);
+        
+        // Then
+        verify(assetRepository).save(argThat((Asset a) -> "AAPL".equals(a.getAssetName())
+                && a.getSize().compareTo(new BigDecimal("10")) == 0 && a.getUsableSize().compareTo(new BigDecimal("10")) == 0));
     }
     
     @Test
     void matchOrder_OrderNotFound_ThrowsException() {
         // Given
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
         
         // When & Then
@@ -285,10 +710,24 @@ class OrderServiceTest {
     void matchOrder_NotPendingStatus_ThrowsException() {
         // Given
         order.setStatus(OrderStatus.MATCHED);
+        when(orderRepository.findByIdInAndStatusForUpdate(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         
         // When & Then
         assertThrows(InvalidOrderException.class, () -> orderService.matchOrder(1L));
         verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    private static AmendOrderRequest amendment(String size, String price) {
+        AmendOrderRequest request = new AmendOrderRequest();
+        request.setSize(size != null ? new BigDecimal(size) : null);
+        request.setPrice(price != null ? new BigDecimal(price) : null);
+        return request;
+    }
+    
+    private static OrderResponse pendingOrder(Long id, OrderSide side, String size, String price) {
+        return new OrderResponse(id, 1L, "AAPL", side, new BigDecimal(size), new BigDecimal(price),
+                OrderStatus.PENDING, LocalDateTime.now(), TimeInForce.GTC, null);
     }
 }
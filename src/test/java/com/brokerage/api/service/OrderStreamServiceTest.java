@@ -0,0 +1,56 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStreamServiceTest {
+
+    private final OrderStreamService orderStreamService = new OrderStreamService(256, 128, 60000, 1, 0);
+
+    @AfterEach
+    void tearDown() {
+        orderStreamService.shutdown();
+    }
+
+    @Test
+    void onOrderEvent_NoSubscriber_KeepsNothing() {
+        // When
+        for (long customerId = 1; customerId <= 1000; customerId++) {
+            orderStreamService.onOrderEvent(event(customerId));
+        }
+
+        // Then
+        assertEquals(0, orderStreamService.openChannels());
+    }
+
+    @Test
+    void purgeIdleChannels_KeepsChannelsWithSubscribers() {
+        // Given
+        orderStreamService.subscribe(1L, null);
+        orderStreamService.onOrderEvent(event(1L));
+        orderStreamService.onOrderEvent(event(2L));
+
+        // When
+        orderStreamService.purgeIdleChannels();
+
+        // Then
+        assertEquals(1, orderStreamService.openChannels());
+
+        orderStreamService.closeStreams(customerId -> true);
+        assertEquals(0, orderStreamService.openChannels());
+    }
+
+    private OrderEvent event(long customerId) {
+        OrderResponse order = new OrderResponse();
+        order.setId(customerId);
+        order.setCustomerId(customerId);
+        return new OrderEvent(OrderEventType.CREATED, order, BigDecimal.ZERO);
+    }
+}
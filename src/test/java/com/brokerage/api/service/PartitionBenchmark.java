@@ -0,0 +1,85 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.BrokerageApplication;
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.model.OrderSide;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Order placement throughput with many threads buying on one hot account and on the sample customers,
+ * once with row-locking placement and once on single-writer customer partitions.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.brokerage.api.service.PartitionBenchmark [threads] [orders per thread]
+ * </pre>
+ */
+public class PartitionBenchmark {
+
+    private static final long[] SAMPLE_CUSTOMERS = {2L, 3L, 4L};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int ordersPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        System.out.printf("%d threads x %d orders%n", threads, ordersPerThread);
+        for (boolean partitioned : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                    .run("--server.port=0", "--orders.partitions.enabled=" + partitioned,
+                            "--orders.risk.max-open-orders=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.brokerage=WARN",
+                            "--logging.level.org.springframework.security=WARN")) {
+                OrderService orderService = context.getBean(OrderService.class);
+                String mode = partitioned ? "partitioned" : "row locks";
+                // Warm up both paths before measuring
+                run(orderService, threads, 100, new long[] {2L, 3L, 4L});
+                report(mode, "hot account", threads * ordersPerThread, run(orderService, threads, ordersPerThread, new long[] {2L}));
+                report(mode, "3 customers", threads * ordersPerThread, run(orderService, threads, ordersPerThread, SAMPLE_CUSTOMERS));
+            }
+        }
+    }
+
+    private static long run(OrderService orderService, int threads, int ordersPerThread, long[] customers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long customerId = customers[t % customers.length];
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        orderService.createOrder(request(customerId));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static CreateOrderRequest request(long customerId) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal("0.0001"));
+        request.setPrice(BigDecimal.ONE);
+        return request;
+    }
+
+    private static void report(String mode, String workload, int orders, long nanos) {
+        System.out.printf("%-12s %-12s %8.0f orders/s%n", mode, workload, orders / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,74 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.AssetResponse;
+import com.brokerage.api.dto.PortfolioValuationResponse;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.market.PriceTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioValuationServiceTest {
+
+    @Mock
+    private AssetService assetService;
+
+    private PriceTable priceTable;
+    private PortfolioValuationService portfolioValuationService;
+
+    @BeforeEach
+    void setUp() {
+        InstrumentRegistry instrumentRegistry = new InstrumentRegistry(List.of("AAPL", "GOOGL"));
+        priceTable = new PriceTable(instrumentRegistry);
+        portfolioValuationService = new PortfolioValuationService(assetService, priceTable, instrumentRegistry);
+    }
+
+    @Test
+    void valuePortfolio_SumsSizeTimesLatestPrice() {
+        // Given
+        when(assetService.listAssets(2L)).thenReturn(List.of(asset("TRY", "1000"), asset("AAPL", "10"), asset("GOOGL", "4")));
+        priceTable.update("AAPL", new BigDecimal("150"), 1);
+        priceTable.update("GOOGL", new BigDecimal("140"), 1);
+        priceTable.update("AAPL", new BigDecimal("155.5"), 2);
+
+        // When
+        PortfolioValuationResponse valuation = portfolioValuationService.valuePortfolio(2L);
+
+        // Then
+        assertTrue(valuation.isComplete());
+        assertEquals(0, new BigDecimal("3115").compareTo(valuation.getTotalValue()));
+        assertEquals(0, new BigDecimal("1555").compareTo(valuation.getPositions().get(1).getValue()));
+    }
+
+    @Test
+    void valuePortfolio_UnpricedAsset_LeftOutOfTotal() {
+        // Given
+        when(assetService.listAssets(2L)).thenReturn(List.of(asset("TRY", "1000"), asset("XYZ", "10")));
+
+        // When
+        PortfolioValuationResponse valuation = portfolioValuationService.valuePortfolio(2L);
+
+        // Then
+        assertFalse(valuation.isComplete());
+        assertEquals(0, new BigDecimal("1000").compareTo(valuation.getTotalValue()));
+        assertNull(valuation.getPositions().get(1).getPrice());
+    }
+
+    private static AssetResponse asset(String assetName, String size) {
+        AssetResponse asset = new AssetResponse();
+        asset.setCustomerId(2L);
+        asset.setAssetName(assetName);
+        asset.setSize(new BigDecimal(size));
+        asset.setUsableSize(new BigDecimal(size));
+        return asset;
+    }
+}
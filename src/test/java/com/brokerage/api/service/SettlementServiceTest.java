@@ -0,0 +1,143 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.model.Asset;
+import com.brokerage.api.repository.AssetRepository;
+import com.brokerage.api.repository.SettlementEntryRepository;
+import com.brokerage.api.repository.SettlementEntryView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    private SettlementEntryRepository settlementEntryRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private OrderPartitions orderPartitions;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SettlementService settlementService;
+
+    @BeforeEach
+    void setUp() {
+        settlementService = new SettlementService(settlementEntryRepository, assetRepository, orderPartitions,
+                transactionTemplate, meterRegistry, true, 3);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void settlePending_NetsEntriesPerCustomerAndAsset() {
+        // Given: three sells of customer 1 and a buy of customer 2, over two batches
+        when(settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, 3)))
+                .thenReturn(List.of(entry(1L, 1L, "TRY", "100"), entry(2L, 1L, "TRY", "250.5"), entry(3L, 2L, "AAPL", "10")))
+                .thenReturn(List.of(entry(4L, 1L, "TRY", "50")));
+        when(settlementEntryRepository.deleteByOrderIdIn(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(assetRepository.adjustBalances(any(), any(), any(), any())).thenReturn(1);
+        when(orderPartitions.isEnabled()).thenReturn(true);
+
+        // When
+        int settled = settlementService.settlePending();
+
+        // Then: one update per (customer, asset) and batch, entries removed with them
+        assertEquals(4, settled);
+        verify(assetRepository).adjustBalances(eq(1L), eq("TRY"), argThatEquals("350.5"), argThatEquals("350.5"));
+        verify(assetRepository).adjustBalances(eq(2L), eq("AAPL"), argThatEquals("10"), argThatEquals("10"));
+        verify(assetRepository).adjustBalances(eq(1L), eq("TRY"), argThatEquals("50"), argThatEquals("50"));
+        verify(settlementEntryRepository).deleteByOrderIdIn(List.of(1L, 2L, 3L));
+        verify(settlementEntryRepository).deleteByOrderIdIn(List.of(4L));
+        verify(orderPartitions, times(2)).invalidate(1L);
+        verify(orderPartitions).invalidate(2L);
+        assertEquals(4, meterRegistry.get("orders.settlement.entries").counter().count());
+        assertEquals(3, meterRegistry.get("orders.settlement.balance.updates").counter().count());
+    }
+
+    @Test
+    void settlePending_FirstPurchaseCreatesAsset() {
+        // Given
+        when(settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, 3))).thenReturn(List.of(entry(1L, 1L, "MSFT", "5")));
+        when(settlementEntryRepository.deleteByOrderIdIn(List.of(1L))).thenReturn(1);
+        when(assetRepository.adjustBalances(any(), any(), any(), any())).thenReturn(0);
+
+        // When
+        settlementService.settlePending();
+
+        // Then
+        verify(assetRepository).save(argThat((Asset asset) -> asset.getCustomerId().equals(1L) && asset.getAssetName().equals("MSFT")
+                && asset.getSize().compareTo(new BigDecimal("5")) == 0 && asset.getUsableSize().compareTo(new BigDecimal("5")) == 0));
+    }
+
+    @Test
+    void settlePending_EntriesSettledElsewhere_RollsBack() {
+        // Given
+        when(settlementEntryRepository.findBatchForUpdate(PageRequest.of(0, 3)))
+                .thenReturn(List.of(entry(1L, 1L, "TRY", "100"), entry(2L, 1L, "TRY", "100")));
+        when(settlementEntryRepository.deleteByOrderIdIn(List.of(1L, 2L))).thenReturn(1);
+        when(assetRepository.adjustBalances(any(), any(), any(), any())).thenReturn(1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> settlementService.settlePending());
+        assertEquals(0, meterRegistry.get("orders.settlement.entries").counter().count());
+    }
+
+    @Test
+    void tick_ImmediateMode_LeavesJournalToStartup() {
+        // Given
+        SettlementService immediate = new SettlementService(settlementEntryRepository, assetRepository, orderPartitions,
+                transactionTemplate, new SimpleMeterRegistry(), false, 3);
+
+        // When
+        immediate.tick();
+
+        // Then
+        verifyNoInteractions(settlementEntryRepository, assetRepository);
+    }
+
+    private static BigDecimal argThatEquals(String value) {
+        return argThat(actual -> actual != null && actual.compareTo(new BigDecimal(value)) == 0);
+    }
+
+    private static SettlementEntryView entry(Long orderId, Long customerId, String assetName, String amount) {
+        return new SettlementEntryView() {
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            public Long getCustomerId() {
+                return customerId;
+            }
+
+            public String getAssetName() {
+                return assetName;
+            }
+
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
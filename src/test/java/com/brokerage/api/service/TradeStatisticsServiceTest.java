@@ -0,0 +1,87 @@
+package com.brokerage.api.service;
+
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.dto.TradeStatsResponse;
+import com.brokerage.api.event.OrderEvent;
+import com.brokerage.api.event.OrderEventType;
+import com.brokerage.api.market.InstrumentRegistry;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.model.TradeStatsSnapshot;
+import com.brokerage.api.repository.TradeStatsSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeStatisticsServiceTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Mock
+    private TradeStatsSnapshotRepository snapshotRepository;
+
+    private TradeStatisticsService tradeStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        tradeStatisticsService = new TradeStatisticsService(snapshotRepository, new InstrumentRegistry(List.of("AAPL", "GOOGL")), MINUTE, 60, MINUTE);
+    }
+
+    @Test
+    void onOrderEvent_OnlyCountsMatches() {
+        tradeStatisticsService.onOrderEvent(new OrderEvent(OrderEventType.CREATED, order("AAPL", "10", "150")));
+        tradeStatisticsService.onOrderEvent(new OrderEvent(OrderEventType.MATCHED, order("AAPL", "10", "150")));
+        tradeStatisticsService.onOrderEvent(new OrderEvent(OrderEventType.MATCHED, order("AAPL", "30", "160")));
+        tradeStatisticsService.onOrderEvent(new OrderEvent(OrderEventType.CANCELED, order("GOOGL", "1", "100")));
+
+        List<TradeStatsResponse> statistics = tradeStatisticsService.getAllStatistics();
+        assertEquals(1, statistics.size());
+        TradeStatsResponse aapl = statistics.get(0);
+        assertEquals("AAPL", aapl.getAssetName());
+        assertEquals(2, aapl.getTrades());
+        assertEquals(0, new BigDecimal("40").compareTo(aapl.getVolume()));
+        assertEquals(0, new BigDecimal("157.5").compareTo(aapl.getVwap()));
+        assertTrue(tradeStatisticsService.getBuckets("GOOGL").isEmpty());
+    }
+
+    @Test
+    void snapshotBefore_PersistsClosedBucketsOnce() {
+        long now = System.currentTimeMillis() / MINUTE * MINUTE + MINUTE;
+        tradeStatisticsService.record(order("AAPL", "10", "150"), now);
+        tradeStatisticsService.record(order("GOOGL", "2", "100"), now);
+        tradeStatisticsService.record(order("AAPL", "5", "151"), now + MINUTE);
+
+        // Only the first minute has closed
+        assertEquals(2, tradeStatisticsService.snapshotBefore(now + MINUTE + 1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TradeStatsSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+        TradeStatsSnapshot aapl = saved.getValue().stream().filter(s -> s.getAssetName().equals("AAPL")).findFirst().orElseThrow();
+        assertEquals(1, aapl.getTrades());
+        assertEquals(0, new BigDecimal("150").compareTo(aapl.getClose()));
+
+        assertEquals(0, tradeStatisticsService.snapshotBefore(now + MINUTE + 2));
+        assertEquals(1, tradeStatisticsService.snapshotBefore(now + 2 * MINUTE));
+        verify(snapshotRepository, times(2)).saveAll(any());
+    }
+
+    private static OrderResponse order(String assetName, String size, String price) {
+        OrderResponse order = new OrderResponse();
+        order.setCustomerId(2L);
+        order.setAssetName(assetName);
+        order.setOrderSide(OrderSide.BUY);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        return order;
+    }
+}
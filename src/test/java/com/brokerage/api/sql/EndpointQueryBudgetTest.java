@@ -0,0 +1,251 @@
+package com.brokerage.api.sql;
+
+import com.brokerage.api.dto.CreateOrderRequest;
+import com.brokerage.api.dto.LoginRequest;
+import com.brokerage.api.dto.OrderResponse;
+import com.brokerage.api.model.Customer;
+import com.brokerage.api.model.OrderSide;
+import com.brokerage.api.repository.CustomerRepository;
+import com.brokerage.api.service.JwtService;
+import com.brokerage.api.service.OrderIntakePipeline;
+import com.brokerage.api.sql.SqlCounter.Counts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Upper bounds on the SQL each endpoint of the order, asset and auth controllers runs per call.
+ * A change that adds a round trip, a flush or an entity load to one of these paths fails here;
+ * if the extra work is intended, raise the budget in the same change. The caller's customer record
+ * comes from the second-level cache, which {@link #setUp} warms, so identity lookups cost nothing.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "market.feed.enabled=false",
+        "orders.intake.async.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCounter.class)
+class EndpointQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlCounter.Measurer measurer;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderIntakePipeline orderIntakePipeline;
+
+    private Long customerId;
+    private String customerToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.findByUsername("john.doe").orElseThrow();
+        customerId = customer.getId();
+        customerRepository.findByUsername("admin").orElseThrow();
+        customerToken = jwtService.generateToken("john.doe", false);
+        adminToken = jwtService.generateToken("admin", true);
+    }
+
+    @Test
+    void login() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("john.doe");
+        request.setPassword("password123");
+
+        assertBudget("POST /auth/login", new Counts(0, 0, 0), post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    @Test
+    void listAssets() throws Exception {
+        assertBudget("GET /assets", new Counts(1, 0, 0), authorized(get("/assets"), customerToken)
+                .param("customerId", customerId.toString()));
+    }
+
+    @Test
+    void createBuyOrder() throws Exception {
+        assertBudget("POST /orders (buy)", new Counts(2, 2, 0), createOrder(OrderSide.BUY, null));
+    }
+
+    @Test
+    void createSellOrder() throws Exception {
+        assertBudget("POST /orders (sell)", new Counts(2, 2, 0), createOrder(OrderSide.SELL, null));
+    }
+
+    @Test
+    void createOrderWithIdempotencyKey() throws Exception {
+        assertBudget("POST /orders (Idempotency-Key)", new Counts(3, 2, 0), createOrder(OrderSide.BUY, "budget-key-1"));
+    }
+
+    @Test
+    void acceptOrder() throws Exception {
+        stopIntakeWriter();
+
+        assertBudget("POST /orders (respond-async)", new Counts(0, 0, 0), createOrder(OrderSide.BUY, null)
+                .header("Prefer", "respond-async"));
+    }
+
+    @Test
+    void acceptOrderWithIdempotencyKey() throws Exception {
+        stopIntakeWriter();
+
+        // The key's replay lookup, nothing else
+        assertBudget("POST /orders (respond-async, Idempotency-Key)", new Counts(1, 0, 0), createOrder(OrderSide.BUY, "budget-async-1")
+                .header("Prefer", "respond-async"));
+    }
+
+    @Test
+    void getIntakeStatus() throws Exception {
+        stopIntakeWriter();
+        mockMvc.perform(createOrder(OrderSide.BUY, "budget-async-2").header("Prefer", "respond-async"))
+                .andExpect(status().isAccepted());
+
+        assertBudget("GET /orders/intake/{reference}", new Counts(0, 0, 0), authorized(get("/orders/intake/budget-async-2"), customerToken)
+                .param("customerId", customerId.toString()));
+    }
+
+    @Test
+    void getIntakeStatusFromDatabase() throws Exception {
+        // Placed synchronously, so the intake has no status for it and the lookup falls back to the key
+        mockMvc.perform(createOrder(OrderSide.BUY, "budget-async-3")).andExpect(status().isOk());
+
+        assertBudget("GET /orders/intake/{reference} (database)", new Counts(1, 0, 1), authorized(get("/orders/intake/budget-async-3"), customerToken)
+                .param("customerId", customerId.toString()));
+    }
+
+    @Test
+    void listOrders() throws Exception {
+        placeOrder(OrderSide.BUY);
+
+        assertBudget("GET /orders", new Counts(1, 0, 0), authorized(get("/orders"), customerToken)
+                .param("customerId", customerId.toString())
+                .param("startDate", LocalDateTime.now().minusDays(1).toString())
+                .param("endDate", LocalDateTime.now().plusDays(1).toString()));
+    }
+
+    @Test
+    void streamOrderEvents() throws Exception {
+        assertBudget("GET /orders/events", new Counts(0, 0, 0), authorized(get("/orders/events"), customerToken)
+                .param("customerId", customerId.toString()));
+    }
+
+    @Test
+    void deleteOrder() throws Exception {
+        OrderResponse order = placeOrder(OrderSide.BUY);
+
+        assertBudget("DELETE /orders/{id}", new Counts(3, 2, 1), authorized(delete("/orders/" + order.getId()), customerToken));
+    }
+
+    @Test
+    void cancelOrders() throws Exception {
+        placeOrder(OrderSide.BUY);
+        placeOrder(OrderSide.BUY);
+        placeOrder(OrderSide.SELL);
+
+        // One release per asset, however many orders
+        assertBudget("DELETE /orders", new Counts(4, 4, 0), authorized(delete("/orders"), customerToken)
+                .param("customerId", customerId.toString()));
+    }
+
+    @Test
+    void amendOrder() throws Exception {
+        OrderResponse order = placeOrder(OrderSide.BUY);
+
+        assertBudget("PATCH /orders/{id}", new Counts(3, 2, 1), authorized(patch("/orders/" + order.getId()), customerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("price", 11))));
+    }
+
+    @Test
+    void matchOrder() throws Exception {
+        OrderResponse order = placeOrder(OrderSide.SELL);
+
+        assertBudget("POST /orders/{id}/match", new Counts(3, 2, 1), authorized(post("/orders/" + order.getId() + "/match"), adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("orderId", order.getId()))));
+    }
+
+    @Test
+    void matchOrders() throws Exception {
+        OrderResponse first = placeOrder(OrderSide.BUY);
+        OrderResponse second = placeOrder(OrderSide.SELL);
+
+        assertBudget("POST /orders/match", new Counts(4, 4, 2), authorized(post("/orders/match"), adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("orderIds", List.of(first.getId(), second.getId())))));
+    }
+
+    private void assertBudget(String endpoint, Counts budget, RequestBuilder request) throws Exception {
+        Counts counts = measurer.measure(() -> mockMvc.perform(request).andExpect(status().is2xxSuccessful()));
+        assertTrue(counts.within(budget), () -> endpoint + " used " + counts + ", budget is " + budget);
+    }
+
+    // Flushes and entity loads are counted across threads, so the intake writer must not run meanwhile;
+    // accepted orders stay queued
+    private void stopIntakeWriter() throws InterruptedException {
+        orderIntakePipeline.stop();
+    }
+
+    private MockHttpServletRequestBuilder createOrder(OrderSide side, String idempotencyKey) throws Exception {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(side);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(new BigDecimal("10"));
+
+        MockHttpServletRequestBuilder builder = authorized(post("/orders"), customerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+        return idempotencyKey != null ? builder.header("Idempotency-Key", idempotencyKey) : builder;
+    }
+
+    private OrderResponse placeOrder(OrderSide side) throws Exception {
+        String body = mockMvc.perform(createOrder(side, null))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, OrderResponse.class);
+    }
+
+    private static MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder builder, String token) {
+        return builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
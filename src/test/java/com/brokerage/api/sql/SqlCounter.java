@@ -0,0 +1,72 @@
+package com.brokerage.api.sql;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Test configuration that measures the SQL work of a single call: statements from
+ * {@link StatementCountingDataSource}, flushes and entity loads from Hibernate statistics.
+ * Import it into a {@code @SpringBootTest} started with
+ * {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlCounter {
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    Measurer sqlMeasurer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        return new Measurer((StatementCountingDataSource) dataSource,
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    public record Counts(long statements, long flushes, long entityLoads) {
+
+        public boolean within(Counts budget) {
+            return statements <= budget.statements && flushes <= budget.flushes && entityLoads <= budget.entityLoads;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+
+    public static class Measurer {
+
+        private final StatementCountingDataSource dataSource;
+        private final Statistics statistics;
+
+        Measurer(StatementCountingDataSource dataSource, Statistics statistics) {
+            this.dataSource = dataSource;
+            this.statistics = statistics;
+        }
+
+        /**
+         * Runs the call on this thread and returns what it cost. Flushes and entity loads are
+         * session-factory wide, so nothing else should be using the database meanwhile.
+         */
+        public synchronized Counts measure(Call call) throws Exception {
+            statistics.clear();
+            dataSource.reset();
+            call.run();
+            return new Counts(dataSource.count(), statistics.getFlushCount(), statistics.getEntityLoadCount());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.brokerage.api.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Wraps the application's {@link DataSource} and counts the JDBC statements executed per thread,
+ * whether they come from Hibernate, Spring Data or a plain {@code JdbcTemplate}. A batch counts
+ * as one round trip. Counting per thread keeps scheduled jobs out of a request's count.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ThreadLocal<long[]> executed = ThreadLocal.withInitial(() -> new long[1]);
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    public void reset() {
+        executed.get()[0] = 0;
+    }
+
+    /**
+     * @return statements executed by the calling thread since the last {@link #reset()}
+     */
+    public long count() {
+        return executed.get()[0];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return countingStatement(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return countingStatement(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return countingStatement(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S countingStatement(Class<S> type, S statement) {
+        return proxy(type, (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                executed.get()[0]++;
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
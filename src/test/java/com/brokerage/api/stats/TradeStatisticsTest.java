@@ -0,0 +1,89 @@
+package com.brokerage.api.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeStatisticsTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void record_TracksVolumeVwapAndOhlc() {
+        TradeStatistics stats = new TradeStatistics(MINUTE, 10);
+
+        stats.record(MINUTE, new BigDecimal("10"), new BigDecimal("100"));
+        stats.record(MINUTE + 1, new BigDecimal("5"), new BigDecimal("130"));
+        stats.record(MINUTE + 2, new BigDecimal("5"), new BigDecimal("90"));
+        stats.record(MINUTE + 3, new BigDecimal("20"), new BigDecimal("110"));
+
+        List<StatsBucket> buckets = stats.window(MINUTE + 10);
+        assertEquals(1, buckets.size());
+        StatsBucket bucket = buckets.get(0);
+        assertEquals(MINUTE, bucket.startMillis());
+        assertEquals(4, bucket.trades());
+        assertEquals(0, new BigDecimal("40").compareTo(bucket.volume()));
+        assertEquals(0, new BigDecimal("4300").compareTo(bucket.notional()));
+        assertEquals(0, new BigDecimal("107.5").compareTo(bucket.vwap()));
+        assertEquals(0, new BigDecimal("100").compareTo(bucket.open()));
+        assertEquals(0, new BigDecimal("130").compareTo(bucket.high()));
+        assertEquals(0, new BigDecimal("90").compareTo(bucket.low()));
+        assertEquals(0, new BigDecimal("110").compareTo(bucket.close()));
+    }
+
+    @Test
+    void window_OnlyKeepsLastBuckets() {
+        TradeStatistics stats = new TradeStatistics(MINUTE, 3);
+
+        for (int minute = 0; minute < 5; minute++) {
+            stats.record(minute * MINUTE, BigDecimal.ONE, BigDecimal.valueOf(minute + 1));
+        }
+        // Trade for a bucket that already rolled out of the ring
+        stats.record(0, BigDecimal.ONE, BigDecimal.TEN);
+
+        List<StatsBucket> window = stats.window(4 * MINUTE);
+        assertEquals(List.of(2 * MINUTE, 3 * MINUTE, 4 * MINUTE), window.stream().map(StatsBucket::startMillis).toList());
+
+        StatsBucket merged = window.stream().reduce(StatsBucket::merge).orElseThrow();
+        assertEquals(3, merged.trades());
+        assertEquals(3 * MINUTE, merged.lengthMillis());
+        assertEquals(0, new BigDecimal("3").compareTo(merged.open()));
+        assertEquals(0, new BigDecimal("5").compareTo(merged.close()));
+        assertEquals(0, new BigDecimal("4").compareTo(merged.vwap()));
+    }
+
+    @Test
+    void record_ConcurrentTrades_NoneLost() throws Exception {
+        TradeStatistics stats = new TradeStatistics(MINUTE, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= 10_000; i++) {
+                        stats.record(MINUTE + (i % 2), BigDecimal.ONE, BigDecimal.valueOf(i + offset));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        StatsBucket bucket = stats.window(MINUTE).get(0);
+        assertEquals(40_000, bucket.trades());
+        assertEquals(0, new BigDecimal("40000").compareTo(bucket.volume()));
+        assertEquals(0, new BigDecimal("10003").compareTo(bucket.high()));
+        assertEquals(0, BigDecimal.ONE.compareTo(bucket.low()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.brokerage.api.throttle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadShedderTest {
+    
+    @Test
+    void adapt_BacksOffOnPoolWaitAndRecovers() {
+        // Given
+        LoadShedder shedder = new LoadShedder(new SimpleMeterRegistry(), 2, 8, 20);
+        
+        // When
+        shedder.adapt(100);
+        
+        // Then
+        assertEquals(6, shedder.getLimit());
+        for (int i = 0; i < 6; i++) {
+            assertTrue(shedder.tryAcquire());
+        }
+        assertFalse(shedder.tryAcquire());
+        shedder.release();
+        assertTrue(shedder.tryAcquire());
+        
+        shedder.adapt(1);
+        assertEquals(7, shedder.getLimit());
+    }
+}
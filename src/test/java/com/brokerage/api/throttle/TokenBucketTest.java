@@ -0,0 +1,36 @@
+package com.brokerage.api.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    @Test
+    void tryAcquire_AllowsBurstThenRejects() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 0;
+        
+        // When & Then
+        assertTrue(bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now));
+    }
+    
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(SECOND / 20));
+        
+        // When & Then
+        assertTrue(bucket.tryAcquire(SECOND / 10));
+        assertFalse(bucket.isIdle(SECOND / 10));
+        assertTrue(bucket.isIdle(SECOND));
+    }
+}